@@ -0,0 +1,91 @@
+package linalg.bench;
+
+import linalg.CsvReader;
+import linalg.MatrixBuilder;
+import linalg.TwoDMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.function.Supplier;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exporting a matrix to a csv file and loading it again into every storage backend
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CsvBenchmark {
+
+    /**
+     * Storage backend the file is loaded into, only used by {@link #load(Backend)}
+     */
+    @State(Scope.Thread)
+    public static class Backend {
+
+        @Param({"TwoDMatrix", "DenseDoubleMatrix", "RationalMatrix"})
+        private String backend;
+
+        // Builders collect the values of one matrix, so every load needs a new one
+        private Supplier<MatrixBuilder<?>> builders;
+
+        @Setup
+        public void setUp() {
+            builders = switch (backend) {
+                case "TwoDMatrix" -> MatrixBuilder::forTwoDMatrix;
+                case "DenseDoubleMatrix" -> MatrixBuilder::forDenseDoubleMatrix;
+                case "RationalMatrix" -> MatrixBuilder::forRationalMatrix;
+                default -> throw new IllegalArgumentException("Unknown backend " + backend);
+            };
+        }
+    }
+
+    @Param({"300"})
+    private int size;
+
+    @Param({"int", "fraction", "double"})
+    private String type;
+
+    private TwoDMatrix matrix;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        matrix = Matrices.random(size, size + 1, 1.0, type, new Random(2));
+        file = Files.createTempFile("linalg-bench", ".csv");
+        matrix.exportToCsv(file.toString());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public TwoDMatrix export() throws IOException {
+        matrix.exportToCsv(file.toString());
+        return matrix;
+    }
+
+    @Benchmark
+    public Object load(Backend backend) throws IOException {
+        return CsvReader.read(file.toString(), backend.builders.get());
+    }
+}
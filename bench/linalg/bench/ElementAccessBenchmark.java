@@ -0,0 +1,65 @@
+package linalg.bench;
+
+import linalg.Frac;
+import linalg.SmartNum;
+import linalg.TwoDMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and writing every element of a matrix
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ElementAccessBenchmark {
+
+    @Param({"200"})
+    private int size;
+
+    private TwoDMatrix matrix;
+    private final SmartNum value = SmartNum.valueOf(new Frac(1, 3));
+
+    @Setup
+    public void setUp() {
+        matrix = Matrices.random(size, size, 1.0, "fraction", new Random(1));
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) blackhole.consume(matrix.get(row, column));
+        }
+    }
+
+    @Benchmark
+    public void getDouble(Blackhole blackhole) {
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) blackhole.consume(matrix.getDouble(row, column));
+        }
+    }
+
+    @Benchmark
+    public TwoDMatrix set() {
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) matrix.set(row, column, value);
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,51 @@
+package linalg.bench;
+
+import linalg.Frac;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arithmetic of single fractions. The operations change the fraction they are called on, so they work on a copy
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FracBenchmark {
+
+    private final Frac a = new Frac(355, 113);
+    private final Frac b = new Frac(-22, 7);
+    // Products of these overflow long, so the BigInteger path is taken
+    private final Frac large = new Frac(3_037_000_493L, 3_037_000_499L);
+
+    @Benchmark
+    public Frac add() {
+        return a.clone().add(b);
+    }
+
+    @Benchmark
+    public Frac mult() {
+        return a.clone().mult(b);
+    }
+
+    @Benchmark
+    public Frac divide() {
+        return a.clone().divide(b);
+    }
+
+    @Benchmark
+    public Frac multBigInteger() {
+        return large.clone().mult(large).mult(large);
+    }
+}
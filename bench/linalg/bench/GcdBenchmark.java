@@ -0,0 +1,59 @@
+package linalg.bench;
+
+import linalg.MathHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The binary gcd of MathHelper on random ints and longs. The score is the time of one gcd
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class GcdBenchmark {
+
+    private static final int PAIRS = 1 << 12;
+
+    private final int[] intValues = new int[2 * PAIRS];
+    private final long[] longValues = new long[2 * PAIRS];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < intValues.length; i++) {
+            intValues[i] = random.nextInt(Integer.MAX_VALUE);
+            longValues[i] = random.nextLong() & Long.MAX_VALUE;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public long gcdInt() {
+        long checksum = 0;
+        for (int i = 0; i < intValues.length; i += 2) checksum += MathHelper.gcd(intValues[i], intValues[i + 1]);
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public long gcdLong() {
+        long checksum = 0;
+        for (int i = 0; i < longValues.length; i += 2) checksum += MathHelper.gcd(longValues[i], longValues[i + 1]);
+        return checksum;
+    }
+}
@@ -0,0 +1,44 @@
+package linalg.bench;
+
+import linalg.Frac;
+import linalg.SmartNum;
+import linalg.TwoDMatrix;
+
+import java.util.Random;
+
+/**
+ * Random inputs shared by the benchmarks
+ */
+final class Matrices {
+
+    private Matrices() {
+    }
+
+    /**
+     * Creates a random matrix. The diagonal is always filled, so sparse systems still have a unique solution
+     *
+     * @param density Fraction of the other elements that aren't zero
+     * @param type    "int", "fraction" or "double"
+     */
+    static TwoDMatrix random(int rows, int columns, double density, String type, Random random) {
+        SmartNum[][] values = new SmartNum[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                boolean filled = row == column || random.nextDouble() < density;
+                values[row][column] = filled ? randomValue(type, random) : SmartNum.ZERO;
+            }
+        }
+        return new TwoDMatrix(values);
+    }
+
+    private static SmartNum randomValue(String type, Random random) {
+        int numerator = random.nextInt(19) - 9;
+        if (numerator == 0) numerator = 10;
+        return switch (type) {
+            case "int" -> SmartNum.valueOf(numerator);
+            case "fraction" -> SmartNum.valueOf(new Frac(numerator, random.nextInt(9) + 1));
+            case "double" -> SmartNum.valueOf(numerator + random.nextDouble() * 0.1 + 1e-9);
+            default -> throw new IllegalArgumentException("Unknown number type " + type);
+        };
+    }
+}
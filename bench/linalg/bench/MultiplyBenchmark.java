@@ -0,0 +1,67 @@
+package linalg.bench;
+
+import linalg.DenseDoubleMatrix;
+import linalg.MatrixMultiplier;
+import linalg.StrassenMultiplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multiplication of square double matrices with the tiled kernel and with Strassen-Winograd
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MultiplyBenchmark {
+
+    @Param({"256", "512", "1024"})
+    private int size;
+
+    @Param({"32", "64", "128"})
+    private int tileSize;
+
+    private DenseDoubleMatrix left;
+    private DenseDoubleMatrix right;
+    private MatrixMultiplier multiplier;
+
+    @Setup
+    public void setUp() {
+        left = randomMatrix(size, new Random(size));
+        right = randomMatrix(size, new Random(size + 1));
+        multiplier = new MatrixMultiplier(tileSize, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public DenseDoubleMatrix tiled() {
+        return multiplier.multiply(left, right);
+    }
+
+    @Benchmark
+    public DenseDoubleMatrix strassen() {
+        return new StrassenMultiplier().multiply(left, right);
+    }
+
+    private static DenseDoubleMatrix randomMatrix(int size, Random random) {
+        DenseDoubleMatrix matrix = new DenseDoubleMatrix(size, size);
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) matrix.set(row, column, random.nextDouble());
+        }
+        return matrix;
+    }
+}
@@ -0,0 +1,75 @@
+package linalg.bench;
+
+import linalg.Frac;
+import linalg.SmartNum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arithmetic of SmartNums with mixed number types, and the promotion of doubles when a SmartNum is created
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SmartNumBenchmark {
+
+    private final SmartNum integer = SmartNum.valueOf(12_345);
+    private final SmartNum fraction = SmartNum.valueOf(new Frac(7, 9));
+    private final SmartNum decimal = SmartNum.valueOf(Math.PI);
+    // Fields instead of constants, so the JIT can't fold the factory calls
+    private double integralDouble = 1e6;
+    private double fractionalDouble = 0.375;
+    private double inexactDouble = Math.E;
+
+    @Benchmark
+    public SmartNum addIntInt() {
+        return integer.add(integer);
+    }
+
+    @Benchmark
+    public SmartNum addIntFraction() {
+        return integer.add(fraction);
+    }
+
+    @Benchmark
+    public SmartNum addFractionDouble() {
+        return fraction.add(decimal);
+    }
+
+    @Benchmark
+    public SmartNum multFractionFraction() {
+        return fraction.mult(fraction);
+    }
+
+    @Benchmark
+    public SmartNum divideIntInt() {
+        return integer.divide(7);
+    }
+
+    @Benchmark
+    public SmartNum promoteIntegralDouble() {
+        return SmartNum.valueOf(integralDouble);
+    }
+
+    @Benchmark
+    public SmartNum promoteFractionalDouble() {
+        return SmartNum.valueOf(fractionalDouble);
+    }
+
+    @Benchmark
+    public SmartNum promoteInexactDouble() {
+        return SmartNum.valueOf(inexactDouble);
+    }
+}
@@ -0,0 +1,91 @@
+package linalg.bench;
+
+import linalg.MatrixManipulator;
+import linalg.TwoDMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Solving random systems of linear equations. The solvers reduce the matrix in place,
+ * so every invocation gets a fresh copy of the system, which isn't measured.
+ * Exact systems are much slower, so they are measured with smaller sizes than double systems
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class SolveGaussBenchmark {
+
+    @State(Scope.Thread)
+    public static class ExactSystem {
+
+        @Param({"10", "25", "50"})
+        private int size;
+
+        @Param({"1.0", "0.1"})
+        private double density;
+
+        @Param({"int", "fraction"})
+        private String type;
+
+        private TwoDMatrix original;
+        private TwoDMatrix matrix;
+
+        @Setup(Level.Trial)
+        public void create() {
+            original = Matrices.random(size, size + 1, density, type, new Random(size));
+        }
+
+        @Setup(Level.Invocation)
+        public void copy() {
+            matrix = original.copy();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DoubleSystem {
+
+        @Param({"50", "100", "200"})
+        private int size;
+
+        @Param({"1.0", "0.1"})
+        private double density;
+
+        private TwoDMatrix original;
+        private TwoDMatrix matrix;
+
+        @Setup(Level.Trial)
+        public void create() {
+            original = Matrices.random(size, size + 1, density, "double", new Random(size));
+        }
+
+        @Setup(Level.Invocation)
+        public void copy() {
+            matrix = original.copy();
+        }
+    }
+
+    @Benchmark
+    public TwoDMatrix solveGaussExact(ExactSystem system) {
+        return MatrixManipulator.solveGauss(system.matrix);
+    }
+
+    @Benchmark
+    public TwoDMatrix solveGaussDouble(DoubleSystem system) {
+        return MatrixManipulator.solveGauss(system.matrix);
+    }
+}
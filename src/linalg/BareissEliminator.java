@@ -0,0 +1,291 @@
+package linalg;
+
+import java.math.BigInteger;
+
+/**
+ * Fraction-free Gauss-Jordan elimination (Bareiss) for exact matrices, bringing a matrix into reduced row echelon form.
+ * <p>
+ * Rows with fractions are first multiplied by the least common multiple of their denominators, which doesn't change
+ * the solutions, so only integers are left. In every step all other rows are updated by
+ * a[i][j] = (p * a[i][j] - a[i][k] * a[k][j]) / q, where p is the new pivot and q the one of the step before.
+ * By Sylvester's identity every intermediate value is a minor of the input, so the division is always exact and
+ * the numbers only grow like determinants instead of the products of denominators of the usual elimination.
+ * Values are stored as longs and only moved to BigIntegers when they overflow.
+ * After the last step every pivot equals the last one, fractions are only created when the rows are divided by it at the end.
+ * <p>
+ * The result has the same layout as the one of {@link GaussEliminator}: pivot rows sorted by pivot column,
+ * zero rows deleted, but one row is kept.
+ */
+public class BareissEliminator {
+
+    private final TwoDMatrix matrix;
+    private final boolean augmented;
+    private final int rows;
+    private final int columns;
+    private final long[][] values;
+    // A row array is only created once a value of the row doesn't fit into a long, a cell is promoted if its entry is set
+    private final BigInteger[][] bigValues;
+    private int[] pivotColumns;
+    private int rank = -1;
+    private int deletedRows;
+
+    /**
+     * Constructor for an eliminator working on an augmented coefficient matrix, where the last column holds the results
+     * of the equations and therefore never contains a pivot
+     *
+     * @param matrix Matrix to reduce, will be changed
+     * @throws IllegalArgumentException if the matrix contains values that aren't exact
+     */
+    public BareissEliminator(TwoDMatrix matrix) {
+        this(matrix, true);
+    }
+
+    /**
+     * Constructor for an eliminator
+     *
+     * @param matrix    Matrix to reduce, will be changed
+     * @param augmented True if the last column holds the results of the equations and can't contain a pivot
+     * @throws IllegalArgumentException if the matrix contains values that aren't exact
+     */
+    public BareissEliminator(TwoDMatrix matrix, boolean augmented) {
+        if (!matrix.isExact()) throw new IllegalArgumentException("Fraction-free elimination needs exact values");
+        this.matrix = matrix;
+        this.augmented = augmented;
+        this.rows = matrix.numberOfRows();
+        this.columns = matrix.numberOfColumns();
+        this.values = new long[rows][columns];
+        this.bigValues = new BigInteger[rows][];
+        for (int row = 0; row < rows; row++) loadRow(row);
+    }
+
+    /**
+     * Brings the matrix into reduced row echelon form: every pivot is 1 and the only non-zero element in its column.
+     * Rows without pivot are moved to the bottom, the ones that are zero are deleted.
+     * A zero matrix keeps one zero row.
+     *
+     * @return The reduced matrix (the same object that was given to the constructor)
+     * @throws IllegalStateException if the elimination has already been run
+     */
+    public TwoDMatrix eliminate() {
+        if (rank >= 0) throw new IllegalStateException("The matrix has already been eliminated");
+        int pivotColumnLimit = augmented ? columns - 1 : columns;
+        pivotColumns = new int[Math.min(rows, pivotColumnLimit)];
+
+        int pivotRow = 0;
+        // Pivot of the step before, the divisor of all updates. Stored like the values
+        long previous = 1;
+        BigInteger bigPrevious = null;
+        for (int column = 0; column < pivotColumnLimit && pivotRow < rows; column++) {
+            int bestRow = findPivotRow(pivotRow, column);
+            // No pivot in this column, the variable is free
+            if (bestRow < 0) continue;
+            swapRows(pivotRow, bestRow);
+
+            for (int row = 0; row < rows; row++) {
+                if (row != pivotRow) updateRow(row, pivotRow, column, previous, bigPrevious);
+            }
+            if (isPromoted(pivotRow, column)) {
+                bigPrevious = bigValues[pivotRow][column];
+            } else {
+                previous = values[pivotRow][column];
+                bigPrevious = null;
+            }
+            pivotColumns[pivotRow++] = column;
+        }
+        rank = pivotRow;
+        if (rank < pivotColumns.length) {
+            int[] shortened = new int[rank];
+            System.arraycopy(pivotColumns, 0, shortened, 0, rank);
+            pivotColumns = shortened;
+        }
+
+        storeResult(bigPrevious != null ? bigPrevious : BigInteger.valueOf(previous));
+        return matrix;
+    }
+
+    /**
+     * Function to get the rank of the coefficient part of the matrix
+     *
+     * @return Rank, which is the number of pivots
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public int getRank() {
+        checkEliminated();
+        return rank;
+    }
+
+    /**
+     * Function to get the columns of the pivots. The pivot of row i is in column getPivotColumns()[i]
+     *
+     * @return Pivot column of every row that has a pivot
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public int[] getPivotColumns() {
+        checkEliminated();
+        return pivotColumns.clone();
+    }
+
+    /**
+     * Function to get the number of rows that became zero and were deleted
+     *
+     * @return Number of deleted rows
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public int getDeletedRows() {
+        checkEliminated();
+        return deletedRows;
+    }
+
+    /**
+     * Copies a row into the integer arrays, multiplied by the least common multiple of its denominators
+     */
+    private void loadRow(int row) {
+        Frac[] fractions = new Frac[columns];
+        BigInteger multiple = BigInteger.ONE;
+        for (int column = 0; column < columns; column++) {
+            fractions[column] = matrix.get(row, column).toFrac();
+            if (!fractions[column].isInteger()) {
+                BigInteger denominator = fractions[column].getBigDenominator();
+                multiple = multiple.divide(multiple.gcd(denominator)).multiply(denominator);
+            }
+        }
+        for (int column = 0; column < columns; column++) {
+            Frac value = fractions[column];
+            if (multiple.equals(BigInteger.ONE) && value.fitsLong()) {
+                values[row][column] = value.getLongNumerator();
+            } else {
+                store(row, column, multiple.divide(value.getBigDenominator()).multiply(value.getBigNumerator()));
+            }
+        }
+    }
+
+    /**
+     * Searches the row with the smallest non-zero value in the given column, which keeps the following values small
+     *
+     * @return ID of the pivot row or -1 if all elements are zero
+     */
+    private int findPivotRow(int firstRow, int column) {
+        int bestRow = -1;
+        int bestBits = Integer.MAX_VALUE;
+        long bestMagnitude = Long.MAX_VALUE;
+        for (int row = firstRow; row < rows; row++) {
+            if (isPromoted(row, column)) {
+                int bits = bigValues[row][column].bitLength();
+                if (bits < bestBits) {
+                    bestRow = row;
+                    bestBits = bits;
+                }
+                continue;
+            }
+            long value = values[row][column];
+            if (value == 0) continue;
+            // Long.MIN_VALUE stays negative, which only makes it a better choice than it is
+            long magnitude = Math.abs(value);
+            if (bestBits > 64 || magnitude < bestMagnitude) {
+                bestRow = row;
+                bestBits = 64;
+                bestMagnitude = magnitude;
+            }
+        }
+        return bestRow;
+    }
+
+    /**
+     * Applies one Bareiss step to a row: a[row][j] = (p * a[row][j] - a[row][column] * a[pivotRow][j]) / previous
+     */
+    private void updateRow(int row, int pivotRow, int column, long previous, BigInteger bigPrevious) {
+        boolean longFactors = bigPrevious == null && !isPromoted(pivotRow, column) && !isPromoted(row, column);
+        long pivot = values[pivotRow][column];
+        long factor = values[row][column];
+        // With a zero factor and an unchanged pivot the row stays the same
+        if (longFactors && factor == 0 && pivot == previous) return;
+        long[] target = values[row];
+        long[] source = values[pivotRow];
+        for (int current = 0; current < columns; current++) {
+            if (current == column) continue;
+            if (longFactors && !isPromoted(row, current) && !isPromoted(pivotRow, current)) {
+                try {
+                    long value = Math.subtractExact(Math.multiplyExact(pivot, target[current]), Math.multiplyExact(factor, source[current]));
+                    // Long.MIN_VALUE / -1 would overflow
+                    if (value != Long.MIN_VALUE || previous != -1) {
+                        target[current] = value / previous;
+                        continue;
+                    }
+                } catch (ArithmeticException e) {
+                    // Overflow, calculate again with BigIntegers
+                }
+            }
+            BigInteger value = get(pivotRow, column).multiply(get(row, current)).subtract(get(row, column).multiply(get(pivotRow, current)));
+            store(row, current, value.divide(bigPrevious != null ? bigPrevious : BigInteger.valueOf(previous)));
+        }
+        store(row, column, BigInteger.ZERO);
+    }
+
+    /**
+     * Divides the rows by the last pivot, writes them into the matrix and deletes the zero rows
+     */
+    private void storeResult(BigInteger divisor) {
+        boolean[] rowsToDelete = new boolean[rows];
+        for (int row = 0; row < rows; row++) {
+            boolean zero = true;
+            for (int column = 0; column < columns; column++) {
+                BigInteger value = get(row, column);
+                if (value.signum() != 0) zero = false;
+                matrix.set(row, column, toSmartNum(value, divisor));
+            }
+            if (zero && row >= rank) {
+                rowsToDelete[row] = true;
+                deletedRows++;
+            }
+        }
+        // Keep one row, so the matrix still has its columns
+        if (deletedRows == rows) {
+            rowsToDelete[0] = false;
+            deletedRows--;
+        }
+        matrix.deleteRows(rowsToDelete);
+    }
+
+    private static SmartNum toSmartNum(BigInteger numerator, BigInteger denominator) {
+        if (numerator.signum() == 0) return SmartNum.ZERO;
+        if (numerator.bitLength() < 64 && denominator.bitLength() < 64) {
+            return SmartNum.valueOf(new Frac(numerator.longValue(), denominator.longValue()));
+        }
+        return SmartNum.valueOf(new Frac(numerator, denominator));
+    }
+
+    private void swapRows(int first, int second) {
+        if (first == second) return;
+        long[] temp = values[first];
+        values[first] = values[second];
+        values[second] = temp;
+        BigInteger[] bigTemp = bigValues[first];
+        bigValues[first] = bigValues[second];
+        bigValues[second] = bigTemp;
+    }
+
+    private boolean isPromoted(int row, int column) {
+        return bigValues[row] != null && bigValues[row][column] != null;
+    }
+
+    private BigInteger get(int row, int column) {
+        return isPromoted(row, column) ? bigValues[row][column] : BigInteger.valueOf(values[row][column]);
+    }
+
+    /**
+     * Stores a value as long if it fits, otherwise as BigInteger
+     */
+    private void store(int row, int column, BigInteger value) {
+        if (value.bitLength() < 64) {
+            values[row][column] = value.longValue();
+            if (bigValues[row] != null) bigValues[row][column] = null;
+        } else {
+            if (bigValues[row] == null) bigValues[row] = new BigInteger[columns];
+            bigValues[row][column] = value;
+        }
+    }
+
+    private void checkEliminated() {
+        if (rank < 0) throw new IllegalStateException("The matrix hasn't been eliminated yet");
+    }
+}
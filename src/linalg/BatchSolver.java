@@ -0,0 +1,159 @@
+package linalg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Solves many independent systems of linear equations concurrently.
+ * The systems are split into chunks of consecutive systems, every chunk is one task on the executor.
+ * This keeps the overhead per system small, as small systems take only a few microseconds to solve.
+ * Any executor can be used, for example a fixed thread pool or, on newer JDKs, {@code Executors.newVirtualThreadPerTaskExecutor()}.
+ * <p>
+ * Failures are reported per system in its {@link Result}, a failing system doesn't affect the others.
+ */
+public class BatchSolver {
+
+    private final Executor executor;
+    private final int chunkSize;
+
+    /**
+     * Constructor for a solver running on the common ForkJoinPool
+     */
+    public BatchSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for a solver choosing the chunk size by the number of systems and processors
+     *
+     * @param executor Executor the chunks are run on
+     */
+    public BatchSolver(Executor executor) {
+        this(executor, 0);
+    }
+
+    /**
+     * Constructor for a solver with a fixed chunk size
+     *
+     * @param executor  Executor the chunks are run on
+     * @param chunkSize Number of systems solved by one task, 0 to choose it by the number of systems and processors
+     * @throws IllegalArgumentException if the chunk size is negative
+     */
+    public BatchSolver(Executor executor, int chunkSize) {
+        if (chunkSize < 0) throw new IllegalArgumentException("Chunk size must not be negative");
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Solves all systems, see {@link MatrixManipulator#solve(TwoDMatrix)}. The matrices are reduced in place.
+     * Returns when all systems have been solved
+     *
+     * @param matrices Augmented coefficient matrices to solve
+     * @return One result per matrix, in the order of the input
+     */
+    public List<Result> solveAll(Collection<TwoDMatrix> matrices) {
+        TwoDMatrix[] systems = matrices.toArray(new TwoDMatrix[0]);
+        Result[] results = new Result[systems.length];
+        int chunk = chunkSize > 0 ? chunkSize : defaultChunkSize(systems.length);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        for (int first = 0; first < systems.length; first += chunk) {
+            int start = first;
+            int end = Math.min(first + chunk, systems.length);
+            tasks.add(CompletableFuture.runAsync(() -> solveChunk(systems, results, start, end), executor));
+        }
+        CompletableFuture.allOf(tasks.toArray(CompletableFuture<?>[]::new)).join();
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Solves all systems of a stream, see {@link #solveAll(Collection)}
+     *
+     * @param matrices Augmented coefficient matrices to solve
+     * @return One result per matrix, in the order of the stream
+     */
+    public List<Result> solveAll(Stream<TwoDMatrix> matrices) {
+        return solveAll(matrices.toList());
+    }
+
+    private static void solveChunk(TwoDMatrix[] systems, Result[] results, int first, int end) {
+        for (int index = first; index < end; index++) {
+            try {
+                results[index] = new Result(index, MatrixManipulator.solve(systems[index]), null);
+            } catch (RuntimeException e) {
+                results[index] = new Result(index, null, e);
+            }
+        }
+    }
+
+    /**
+     * About four chunks per processor, so fast threads can take over work of slow ones
+     */
+    private static int defaultChunkSize(int systems) {
+        int tasks = 4 * Runtime.getRuntime().availableProcessors();
+        return Math.max(1, (systems + tasks - 1) / tasks);
+    }
+
+    /**
+     * Result of one system of the batch
+     */
+    public static final class Result {
+
+        private final int index;
+        private final Solution solution;
+        private final RuntimeException error;
+
+        private Result(int index, Solution solution, RuntimeException error) {
+            this.index = index;
+            this.solution = solution;
+            this.error = error;
+        }
+
+        /**
+         * Function to get the position of the system in the input
+         *
+         * @return Index of the system
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Function to check if solving the system succeeded. The system may still have no solution, see {@link Solution#getType()}
+         *
+         * @return True if there is a Solution, false if solving failed
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        /**
+         * Function to get the solution of the system
+         *
+         * @return Solution or null if solving failed
+         */
+        public Solution getSolution() {
+            return solution;
+        }
+
+        /**
+         * Function to get the reason why solving failed
+         *
+         * @return Exception thrown while solving or null if the system has been solved
+         */
+        public RuntimeException getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return isSuccess() ? "Result " + index + ": " + solution : "Result " + index + " failed: " + error;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package linalg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary file format for matrices, which can be written and read at disk speed without any formatting or parsing.
+ * A file starts with a header of 16 bytes:
+ * <pre>
+ * bytes 0-3   magic number "LAMX"
+ * byte  4     version, currently 1
+ * byte  5     element type, see {@link ElementType}
+ * bytes 6-7   reserved, zero
+ * bytes 8-11  number of rows
+ * bytes 12-15 number of columns
+ * </pre>
+ * It is followed by the elements in row-major order. All numbers are stored little-endian.
+ * Files are read by mapping them into memory, see {@link MappedMatrix}.
+ */
+public final class BinaryMatrixFile {
+
+    /**
+     * Size of the header in bytes. The elements start at this offset
+     */
+    public static final int HEADER_SIZE = 16;
+
+    static final int MAGIC = 0x584D414C; // "LAMX" read little-endian
+    static final byte VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Type of the elements stored in a file
+     */
+    public enum ElementType {
+        /**
+         * Integers, stored as one 64-bit integer per element
+         */
+        INT(8),
+        /**
+         * Fractions, stored as 64-bit numerator followed by 64-bit denominator per element
+         */
+        RATIONAL(16),
+        /**
+         * Doubles, stored as one 64-bit IEEE 754 value per element
+         */
+        DOUBLE(8);
+
+        private final int size;
+
+        ElementType(int size) {
+            this.size = size;
+        }
+
+        /**
+         * Function to get the size of one element in the file
+         *
+         * @return Size in bytes
+         */
+        public int size() {
+            return size;
+        }
+    }
+
+    private BinaryMatrixFile() {
+    }
+
+    /**
+     * Writes a matrix into a file, which is overwritten if it exists.
+     * The element type is INT if all values are integers, RATIONAL if all are exact and DOUBLE otherwise
+     *
+     * @param path   Path of the file
+     * @param matrix Matrix to write
+     * @throws IOException         When an error while writing occurs
+     * @throws ArithmeticException if an exact value doesn't fit into longs
+     */
+    public static void write(String path, TwoDMatrix matrix) throws IOException {
+        ElementType type = ElementType.INT;
+        for (int row = 0; row < matrix.numberOfRows() && type != ElementType.DOUBLE; row++) {
+            for (int column = 0; column < matrix.numberOfColumns(); column++) {
+                SmartNum value = matrix.get(row, column);
+                if (!value.isExact()) {
+                    type = ElementType.DOUBLE;
+                    break;
+                }
+                if (type == ElementType.INT && value.getDenominator() != 1) type = ElementType.RATIONAL;
+            }
+        }
+        int rows = matrix.numberOfRows();
+        int columns = matrix.numberOfColumns();
+        try (Writer writer = new Writer(path, type, rows, columns)) {
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    switch (type) {
+                        case INT -> writer.putLong(matrix.getNumerator(row, column));
+                        case RATIONAL -> writer.putRational(matrix.getNumerator(row, column), matrix.getDenominator(row, column));
+                        case DOUBLE -> writer.putDouble(matrix.getDouble(row, column));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a double matrix into a file with element type DOUBLE. The file is overwritten if it exists
+     *
+     * @param path   Path of the file
+     * @param matrix Matrix to write
+     * @throws IOException When an error while writing occurs
+     */
+    public static void write(String path, DenseDoubleMatrix matrix) throws IOException {
+        double[] data = matrix.data();
+        int size = matrix.numberOfRows() * matrix.numberOfColumns();
+        try (Writer writer = new Writer(path, ElementType.DOUBLE, matrix.numberOfRows(), matrix.numberOfColumns())) {
+            for (int i = 0; i < size; i++) writer.putDouble(data[i]);
+        }
+    }
+
+    /**
+     * Writes a rational matrix into a file with element type RATIONAL. The file is overwritten if it exists
+     *
+     * @param path   Path of the file
+     * @param matrix Matrix to write
+     * @throws IOException         When an error while writing occurs
+     * @throws ArithmeticException if a value doesn't fit into longs
+     */
+    public static void write(String path, RationalMatrix matrix) throws IOException {
+        int rows = matrix.numberOfRows();
+        int columns = matrix.numberOfColumns();
+        try (Writer writer = new Writer(path, ElementType.RATIONAL, rows, columns)) {
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    writer.putRational(matrix.getNumerator(row, column), matrix.getDenominator(row, column));
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a matrix file by mapping it into memory. The elements aren't copied onto the heap
+     *
+     * @param path Path of the file
+     * @return The mapped matrix
+     * @throws IOException When the file can't be read or isn't a valid matrix file
+     */
+    public static MappedMatrix open(String path) throws IOException {
+        return MappedMatrix.open(Path.of(path));
+    }
+
+    /**
+     * Writes the header and the elements through a buffer into a file channel
+     */
+    static final class Writer implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        Writer(String path, ElementType type, int rows, int columns) throws IOException {
+            channel = FileChannel.open(Path.of(path), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.putInt(MAGIC).put(VERSION).put((byte) type.ordinal()).putShort((short) 0).putInt(rows).putInt(columns);
+        }
+
+        void putLong(long value) throws IOException {
+            if (buffer.remaining() < Long.BYTES) flush();
+            buffer.putLong(value);
+        }
+
+        void putDouble(double value) throws IOException {
+            if (buffer.remaining() < Double.BYTES) flush();
+            buffer.putDouble(value);
+        }
+
+        void putRational(long numerator, long denominator) throws IOException {
+            if (buffer.remaining() < 2 * Long.BYTES) flush();
+            buffer.putLong(numerator).putLong(denominator);
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                flush();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
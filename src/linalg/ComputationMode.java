@@ -0,0 +1,15 @@
+package linalg;
+
+/**
+ * The number types a calculation on matrices can be done with
+ */
+public enum ComputationMode {
+    /**
+     * Calculations are done with SmartNums, so integers and fractions stay exact
+     */
+    EXACT,
+    /**
+     * Calculations are done with primitive doubles, which is much faster but can introduce rounding errors
+     */
+    DOUBLE
+}
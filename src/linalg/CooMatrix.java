@@ -0,0 +1,139 @@
+package linalg;
+
+import java.util.Arrays;
+
+/**
+ * Sparse matrix in coordinate format, used to assemble a matrix element by element.
+ * Elements can be added in any order, elements at the same position are summed up when converting to {@link CsrMatrix}.
+ */
+public class CooMatrix {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int rows;
+    private final int columns;
+    private int[] rowIndices = new int[INITIAL_CAPACITY];
+    private int[] columnIndices = new int[INITIAL_CAPACITY];
+    private SmartNum[] values = new SmartNum[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Constructor for an empty matrix, which means all elements are zero
+     *
+     * @param rows    Number of rows
+     * @param columns Number of columns
+     */
+    public CooMatrix(int rows, int columns) {
+        if (rows < 0 || columns < 0) throw new IllegalArgumentException("Dimensions must not be negative");
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Function for getting the number of rows
+     *
+     * @return Number of rows
+     */
+    public int numberOfRows() {
+        return rows;
+    }
+
+    /**
+     * Function for getting the number of columns
+     *
+     * @return Number of columns
+     */
+    public int numberOfColumns() {
+        return columns;
+    }
+
+    /**
+     * Function for getting the number of added elements, including duplicates
+     *
+     * @return Number of added elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a value to the element at a position. Zeros are ignored
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @param value  Value to add
+     */
+    public void add(int row, int column, SmartNum value) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + column + ") out of bounds for " + rows + "x" + columns);
+        }
+        if (value.isZero()) return;
+        if (size == values.length) {
+            int capacity = Math.max(INITIAL_CAPACITY, size * 2);
+            rowIndices = Arrays.copyOf(rowIndices, capacity);
+            columnIndices = Arrays.copyOf(columnIndices, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        rowIndices[size] = row;
+        columnIndices[size] = column;
+        values[size++] = value;
+    }
+
+    /**
+     * Adds an integer to the element at a position. Zeros are ignored
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @param value  Value to add
+     */
+    public void add(int row, int column, int value) {
+        add(row, column, SmartNum.valueOf(value));
+    }
+
+    /**
+     * Converts the matrix into compressed sparse row format. Elements at the same position are summed up,
+     * elements that become zero are left out
+     *
+     * @return CsrMatrix with the same values
+     */
+    public CsrMatrix toCsr() {
+        // Counting sort by row, the order inside a row is kept
+        int[] rowPointers = new int[rows + 1];
+        for (int i = 0; i < size; i++) rowPointers[rowIndices[i] + 1]++;
+        for (int row = 0; row < rows; row++) rowPointers[row + 1] += rowPointers[row];
+        int[] next = Arrays.copyOf(rowPointers, rows);
+        int[] sortedColumns = new int[size];
+        SmartNum[] sortedValues = new SmartNum[size];
+        for (int i = 0; i < size; i++) {
+            int position = next[rowIndices[i]]++;
+            sortedColumns[position] = columnIndices[i];
+            sortedValues[position] = values[i];
+        }
+
+        // Sort every row by column and merge duplicates
+        int[] resultPointers = new int[rows + 1];
+        int[] resultColumns = new int[size];
+        SmartNum[] resultValues = new SmartNum[size];
+        int count = 0;
+        Integer[] order = new Integer[0];
+        for (int row = 0; row < rows; row++) {
+            int start = rowPointers[row];
+            int length = rowPointers[row + 1] - start;
+            if (order.length < length) order = new Integer[length];
+            for (int i = 0; i < length; i++) order[i] = start + i;
+            Arrays.sort(order, 0, length, (a, b) -> Integer.compare(sortedColumns[a], sortedColumns[b]));
+            int i = 0;
+            while (i < length) {
+                int column = sortedColumns[order[i]];
+                SmartNum sum = sortedValues[order[i++]];
+                while (i < length && sortedColumns[order[i]] == column) sum = sum.add(sortedValues[order[i++]]);
+                if (!sum.isZero()) {
+                    resultColumns[count] = column;
+                    resultValues[count++] = sum;
+                }
+            }
+            resultPointers[row + 1] = count;
+        }
+        return new CsrMatrix(rows, columns, resultPointers, Arrays.copyOf(resultColumns, count), Arrays.copyOf(resultValues, count));
+    }
+}
@@ -0,0 +1,148 @@
+package linalg;
+
+import java.util.Arrays;
+
+/**
+ * Sparse matrix in compressed sparse row format. Only the elements that aren't zero are stored:
+ * the elements of row r are at the positions [rowPointers[r], rowPointers[r + 1]) of columnIndices and values,
+ * sorted by column. CsrMatrices aren't changed after they have been created, use {@link CooMatrix} to assemble one.
+ */
+public class CsrMatrix {
+
+    private final int rows;
+    private final int columns;
+    private final int[] rowPointers;
+    private final int[] columnIndices;
+    private final SmartNum[] values;
+
+    /**
+     * Constructor for a sparse matrix from a TwoDMatrix, zeros are left out
+     *
+     * @param matrix TwoDMatrix to convert
+     */
+    public CsrMatrix(TwoDMatrix matrix) {
+        rows = matrix.numberOfRows();
+        columns = matrix.numberOfColumns();
+        rowPointers = new int[rows + 1];
+        int count = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) if (!matrix.isZero(row, column)) count++;
+        }
+        columnIndices = new int[count];
+        values = new SmartNum[count];
+        count = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                if (matrix.isZero(row, column)) continue;
+                columnIndices[count] = column;
+                values[count++] = matrix.get(row, column);
+            }
+            rowPointers[row + 1] = count;
+        }
+    }
+
+    /**
+     * Constructor for a sparse matrix from its arrays, which are taken over without copying
+     *
+     * @param rows          Number of rows
+     * @param columns       Number of columns
+     * @param rowPointers   Start of every row in the other arrays, followed by the number of elements
+     * @param columnIndices Column of every element, sorted inside each row
+     * @param values        Value of every element, none of them zero
+     */
+    CsrMatrix(int rows, int columns, int[] rowPointers, int[] columnIndices, SmartNum[] values) {
+        this.rows = rows;
+        this.columns = columns;
+        this.rowPointers = rowPointers;
+        this.columnIndices = columnIndices;
+        this.values = values;
+    }
+
+    /**
+     * Function for getting the number of rows
+     *
+     * @return Number of rows
+     */
+    public int numberOfRows() {
+        return rows;
+    }
+
+    /**
+     * Function for getting the number of columns
+     *
+     * @return Number of columns
+     */
+    public int numberOfColumns() {
+        return columns;
+    }
+
+    /**
+     * Function for getting the number of stored elements, which are all elements that aren't zero
+     *
+     * @return Number of non-zero elements
+     */
+    public int nonZeros() {
+        return values.length;
+    }
+
+    /**
+     * Method to get a value in the matrix at a specific position. The column is searched with a binary search
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Value at the given position
+     */
+    public SmartNum get(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + column + ") out of bounds for " + rows + "x" + columns);
+        }
+        int position = Arrays.binarySearch(columnIndices, rowPointers[row], rowPointers[row + 1], column);
+        return position >= 0 ? values[position] : SmartNum.ZERO;
+    }
+
+    /**
+     * Function for getting the number of non-zero elements in a row
+     *
+     * @param row ID of the target row
+     * @return Number of non-zero elements
+     */
+    public int nonZeros(int row) {
+        return rowPointers[row + 1] - rowPointers[row];
+    }
+
+    /**
+     * Converting the matrix into a dense TwoDMatrix
+     *
+     * @return TwoDMatrix with the same values
+     */
+    public TwoDMatrix toTwoDMatrix() {
+        SmartNum[][] matrix = new SmartNum[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            Arrays.fill(matrix[row], SmartNum.ZERO);
+            for (int i = rowPointers[row]; i < rowPointers[row + 1]; i++) matrix[row][columnIndices[i]] = values[i];
+        }
+        return new TwoDMatrix(matrix);
+    }
+
+    /**
+     * Converting the matrix into a string, in the same format as {@link TwoDMatrix#toString()}
+     *
+     * @return String with the matrix
+     */
+    @Override
+    public String toString() {
+        return toTwoDMatrix().toString();
+    }
+
+    int[] rowPointers() {
+        return rowPointers;
+    }
+
+    int[] columnIndices() {
+        return columnIndices;
+    }
+
+    SmartNum[] values() {
+        return values;
+    }
+}
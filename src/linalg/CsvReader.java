@@ -0,0 +1,194 @@
+package linalg;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Loader for matrices stored in csv files, values separated by commas and rows by new lines.
+ * The file is read in a single pass through a FileChannel and every value is parsed directly from the bytes.
+ * Integers, decimal numbers and fractions ("n/m") are recognized without creating Strings or throwing exceptions,
+ * only other notations (like "1e5") and values that don't fit into longs take a slower path.
+ * The values are passed to a {@link MatrixBuilder}, so every storage backend can be created directly.
+ */
+public class CsvReader<M> {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final MatrixBuilder<M> builder;
+    private byte[] token = new byte[32];
+    private int tokenLength;
+    private boolean tokenEnded; // True if whitespace followed the value, only more whitespace may come
+    private int valuesInRow;
+    private int columns = -1;
+    private int rows;
+    private long line = 1;
+
+    private CsvReader(MatrixBuilder<M> builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Method to read a matrix from a csv file
+     *
+     * @param path    Path of the csv file
+     * @param builder Builder creating the matrix, see {@link MatrixBuilder#forTwoDMatrix()} and the other factories
+     * @param <M>     Type of the created matrix
+     * @return The matrix
+     * @throws IOException              When an error while reading occurs
+     * @throws NumberFormatException    if a value isn't a number
+     * @throws IllegalArgumentException if the rows have different lengths
+     */
+    public static <M> M read(String path, MatrixBuilder<M> builder) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            return read(channel, builder);
+        }
+    }
+
+    /**
+     * Method to read a matrix in csv format from a channel. The channel isn't closed
+     *
+     * @param channel Channel to read from until its end
+     * @param builder Builder creating the matrix
+     * @param <M>     Type of the created matrix
+     * @return The matrix
+     * @throws IOException              When an error while reading occurs
+     * @throws NumberFormatException    if a value isn't a number
+     * @throws IllegalArgumentException if the rows have different lengths
+     */
+    public static <M> M read(ReadableByteChannel channel, MatrixBuilder<M> builder) throws IOException {
+        return new CsvReader<>(builder).parse(channel);
+    }
+
+    private M parse(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        while (channel.read(buffer) != -1) {
+            int end = buffer.position();
+            for (int i = 0; i < end; i++) {
+                byte current = bytes[i];
+                switch (current) {
+                    case ',' -> endValue();
+                    case '\n' -> endLine();
+                    case ' ', '\t', '\r' -> tokenEnded = tokenLength > 0;
+                    default -> append(current);
+                }
+            }
+            buffer.clear();
+        }
+        endLine();
+        return builder.build(rows, Math.max(columns, 0));
+    }
+
+    private void append(byte current) {
+        if (tokenEnded) throw new NumberFormatException("Missing comma after \"" + tokenString() + "\" in line " + line);
+        if (tokenLength == token.length) token = Arrays.copyOf(token, tokenLength * 2);
+        token[tokenLength++] = current;
+    }
+
+    private void endValue() {
+        if (tokenLength == 0) throw new NumberFormatException("Missing value in line " + line);
+        parseToken();
+        valuesInRow++;
+        tokenLength = 0;
+        tokenEnded = false;
+    }
+
+    private void endLine() {
+        // Empty lines are skipped
+        if (tokenLength > 0 || valuesInRow > 0) {
+            endValue();
+            if (columns < 0) columns = valuesInRow;
+            if (valuesInRow != columns) {
+                throw new IllegalArgumentException("Line " + line + " has " + valuesInRow + " values, expected " + columns);
+            }
+            rows++;
+            valuesInRow = 0;
+        }
+        line++;
+    }
+
+    /**
+     * Parses the current token and passes it to the builder.
+     * Digits are accumulated into longs, decimal numbers are kept as digits and number of digits after the point
+     */
+    private void parseToken() {
+        int i = 0;
+        boolean negative = token[0] == '-';
+        if (negative || token[0] == '+') i++;
+
+        long value = 0;
+        boolean overflow = false;
+        int digits = 0;
+        for (; i < tokenLength && isDigit(token[i]); i++, digits++) {
+            int digit = token[i] - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) overflow = true;
+            else value = value * 10 + digit;
+        }
+
+        if (i == tokenLength) {
+            if (digits == 0) throw invalidValue();
+            if (overflow) builder.addBigFraction(new BigInteger(tokenString()), BigInteger.ONE);
+            else builder.addInteger(negative ? -value : value);
+            return;
+        }
+
+        if (token[i] == '.') {
+            int scale = 0;
+            for (i++; i < tokenLength && isDigit(token[i]); i++, scale++) {
+                int digit = token[i] - '0';
+                if (value > (Long.MAX_VALUE - digit) / 10) overflow = true;
+                else value = value * 10 + digit;
+            }
+            if (i == tokenLength && digits + scale > 0 && !overflow) {
+                builder.addDecimal(negative ? -value : value, scale);
+                return;
+            }
+        } else if (token[i] == '/' && digits > 0) {
+            int denominatorStart = ++i;
+            boolean negativeDenominator = i < tokenLength && token[i] == '-';
+            if (negativeDenominator || (i < tokenLength && token[i] == '+')) i++;
+            long denominator = 0;
+            int denominatorDigits = 0;
+            for (; i < tokenLength && isDigit(token[i]); i++, denominatorDigits++) {
+                int digit = token[i] - '0';
+                if (denominator > (Long.MAX_VALUE - digit) / 10) overflow = true;
+                else denominator = denominator * 10 + digit;
+            }
+            if (i != tokenLength || denominatorDigits == 0) throw invalidValue();
+            if (overflow) {
+                String text = tokenString();
+                int slash = denominatorStart - 1;
+                builder.addBigFraction(new BigInteger(text.substring(0, slash)), new BigInteger(text.substring(denominatorStart)));
+            } else {
+                builder.addFraction(negative ? -value : value, negativeDenominator ? -denominator : denominator);
+            }
+            return;
+        }
+
+        // Other notations and decimal numbers with too many digits
+        try {
+            builder.addDouble(Double.parseDouble(tokenString()));
+        } catch (NumberFormatException e) {
+            throw invalidValue();
+        }
+    }
+
+    private static boolean isDigit(byte current) {
+        return current >= '0' && current <= '9';
+    }
+
+    private String tokenString() {
+        return new String(token, 0, tokenLength, StandardCharsets.ISO_8859_1);
+    }
+
+    private NumberFormatException invalidValue() {
+        return new NumberFormatException("Invalid value \"" + tokenString() + "\" in line " + line);
+    }
+}
@@ -0,0 +1,180 @@
+package linalg;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Export of matrices into csv files, values separated by commas and every row terminated by a new line.
+ * Rows are formatted into reused buffers and written as blocks. For large matrices the blocks are formatted
+ * in parallel on the common ForkJoinPool, while they are still written in order by the calling thread.
+ */
+public final class CsvWriter {
+
+    /**
+     * Number of cells from which on the blocks are formatted in parallel
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private static final int BLOCK_CELLS = 1 << 14;
+
+    /**
+     * Appends one row of a matrix, without the line break
+     */
+    private interface RowFormatter {
+        void appendRow(int row, StringBuilder target);
+    }
+
+    private CsvWriter() {
+    }
+
+    /**
+     * Writes a matrix into a csv file
+     *
+     * @param path   Path of the csv file
+     * @param matrix Matrix to write
+     * @param append True to append to the file, false to overwrite it
+     * @throws IOException When an error while writing occurs
+     */
+    public static void write(String path, TwoDMatrix matrix, boolean append) throws IOException {
+        int columns = matrix.numberOfColumns();
+        write(path, matrix.numberOfRows(), columns, append, (row, target) -> {
+            for (int column = 0; column < columns; column++) {
+                if (column != 0) target.append(',');
+                matrix.get(row, column).appendTo(target);
+            }
+        });
+    }
+
+    /**
+     * Writes a double matrix into a csv file
+     *
+     * @param path   Path of the csv file
+     * @param matrix Matrix to write
+     * @param append True to append to the file, false to overwrite it
+     * @throws IOException When an error while writing occurs
+     */
+    public static void write(String path, DenseDoubleMatrix matrix, boolean append) throws IOException {
+        double[] data = matrix.data();
+        int columns = matrix.numberOfColumns();
+        write(path, matrix.numberOfRows(), columns, append, (row, target) -> {
+            int start = row * columns;
+            for (int column = 0; column < columns; column++) {
+                if (column != 0) target.append(',');
+                target.append(data[start + column]);
+            }
+        });
+    }
+
+    /**
+     * Writes a rational matrix into a csv file, fractions are written as "n/m"
+     *
+     * @param path   Path of the csv file
+     * @param matrix Matrix to write
+     * @param append True to append to the file, false to overwrite it
+     * @throws IOException When an error while writing occurs
+     */
+    public static void write(String path, RationalMatrix matrix, boolean append) throws IOException {
+        int columns = matrix.numberOfColumns();
+        write(path, matrix.numberOfRows(), columns, append, (row, target) -> {
+            for (int column = 0; column < columns; column++) {
+                if (column != 0) target.append(',');
+                if (matrix.isPromoted(row, column)) {
+                    target.append(matrix.getBigNumerator(row, column));
+                    if (!matrix.getBigDenominator(row, column).equals(BigInteger.ONE)) {
+                        target.append('/').append(matrix.getBigDenominator(row, column));
+                    }
+                } else {
+                    target.append(matrix.getNumerator(row, column));
+                    long denominator = matrix.getDenominator(row, column);
+                    if (denominator != 1) target.append('/').append(denominator);
+                }
+            }
+        });
+    }
+
+    private static void write(String path, int rows, int columns, boolean append, RowFormatter formatter) throws IOException {
+        StandardOpenOption mode = append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        try (Writer writer = Files.newBufferedWriter(Path.of(path), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode)) {
+            int blockRows = Math.max(1, BLOCK_CELLS / Math.max(columns, 1));
+            if ((long) rows * columns < PARALLEL_THRESHOLD) {
+                writeSequential(writer, rows, blockRows, formatter);
+            } else {
+                writeParallel(writer, rows, blockRows, formatter);
+            }
+        }
+    }
+
+    private static void writeSequential(Writer writer, int rows, int blockRows, RowFormatter formatter) throws IOException {
+        StringBuilder block = new StringBuilder();
+        char[] buffer = new char[0];
+        for (int first = 0; first < rows; first += blockRows) {
+            formatBlock(formatter, block, first, Math.min(first + blockRows, rows));
+            buffer = writeBlock(writer, block, buffer);
+        }
+    }
+
+    /**
+     * Formats the blocks on the common pool. At most window blocks are in flight, each of them owns one of the
+     * StringBuilders, which is reused as soon as its block has been written
+     */
+    private static void writeParallel(Writer writer, int rows, int blockRows, RowFormatter formatter) throws IOException {
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int window = 2 * pool.getParallelism();
+        StringBuilder[] blocks = new StringBuilder[window];
+        for (int i = 0; i < window; i++) blocks[i] = new StringBuilder();
+        ArrayDeque<CompletableFuture<StringBuilder>> pending = new ArrayDeque<>();
+        char[] buffer = new char[0];
+
+        int blockCount = (rows + blockRows - 1) / blockRows;
+        int submitted = 0;
+        for (int written = 0; written < blockCount; written++) {
+            while (submitted < blockCount && submitted - written < window) {
+                StringBuilder block = blocks[submitted % window];
+                int first = submitted * blockRows;
+                int end = Math.min(first + blockRows, rows);
+                pending.add(CompletableFuture.supplyAsync(() -> formatBlock(formatter, block, first, end), pool));
+                submitted++;
+            }
+            StringBuilder block;
+            try {
+                block = pending.remove().join();
+            } catch (CompletionException e) {
+                pending.forEach(future -> future.cancel(false));
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+            buffer = writeBlock(writer, block, buffer);
+        }
+    }
+
+    private static StringBuilder formatBlock(RowFormatter formatter, StringBuilder block, int first, int end) {
+        block.setLength(0);
+        for (int row = first; row < end; row++) {
+            formatter.appendRow(row, block);
+            block.append('\n');
+        }
+        return block;
+    }
+
+    /**
+     * Copies the block into the reused char buffer and writes it
+     *
+     * @return The buffer, which has been enlarged if the block didn't fit
+     */
+    private static char[] writeBlock(Writer writer, StringBuilder block, char[] buffer) throws IOException {
+        int length = block.length();
+        if (buffer.length < length) buffer = new char[Math.max(length, buffer.length * 2)];
+        block.getChars(0, length, buffer, 0);
+        writer.write(buffer, 0, length);
+        return buffer;
+    }
+}
@@ -0,0 +1,322 @@
+package linalg;
+
+import java.io.IOException;
+
+/**
+ * Object to operate with two-dimensional matrices of doubles.
+ * All values are stored in one contiguous row-major array, so a cell only takes 8 bytes and rows can be iterated cache friendly.
+ */
+public class DenseDoubleMatrix {
+
+    private double[] data;
+    private int rows;
+    private int columns;
+
+    /**
+     * Constructor for a matrix with the given dimensions, filled with zeros
+     *
+     * @param rows    Number of rows
+     * @param columns Number of columns
+     */
+    public DenseDoubleMatrix(int rows, int columns) {
+        if (rows < 0 || columns < 0) throw new IllegalArgumentException("Dimensions must not be negative");
+        this.data = new double[Math.multiplyExact(rows, columns)];
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Constructor for a matrix from a given 2D-Array. The values are copied
+     *
+     * @param matrix 2D-Array of doubles containing the matrix, all rows have to be of the same length
+     */
+    public DenseDoubleMatrix(double[][] matrix) {
+        this(matrix.length, matrix.length == 0 ? 0 : matrix[0].length);
+        for (int row = 0; row < rows; row++) {
+            if (matrix[row].length != columns) throw new IllegalArgumentException("All rows must have the same length");
+            System.arraycopy(matrix[row], 0, data, row * columns, columns);
+        }
+    }
+
+    /**
+     * Constructor for a matrix from a TwoDMatrix. Every value is converted to its (approximated) double value
+     *
+     * @param matrix TwoDMatrix to convert
+     */
+    public DenseDoubleMatrix(TwoDMatrix matrix) {
+        this(matrix.numberOfRows(), matrix.numberOfColumns());
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                data[row * columns + column] = matrix.getDouble(row, column);
+            }
+        }
+    }
+
+    /**
+     * Constructor for a matrix that wraps an existing row-major array without copying it
+     *
+     * @param data    Row-major array with at least rows * columns values
+     * @param rows    Number of rows
+     * @param columns Number of columns
+     */
+    DenseDoubleMatrix(double[] data, int rows, int columns) {
+        if (data.length < (long) rows * columns) throw new IllegalArgumentException("Array is too small for the dimensions");
+        this.data = data;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Function for getting the number of rows
+     *
+     * @return Number of rows
+     */
+    public int numberOfRows() {
+        return rows;
+    }
+
+    /**
+     * Function for getting the number of columns
+     *
+     * @return Number of columns
+     */
+    public int numberOfColumns() {
+        return columns;
+    }
+
+    /**
+     * This method updates a value inside the matrix
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @param value  New value
+     */
+    public void set(int row, int column, double value) {
+        data[index(row, column)] = value;
+    }
+
+    /**
+     * Method to get a value in the matrix at a specific position
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Value at the given position
+     */
+    public double get(int row, int column) {
+        return data[index(row, column)];
+    }
+
+    /**
+     * Function to delete a row. The following rows are moved up inside the existing array
+     *
+     * @param row ID of the target row
+     */
+    public void deleteRow(int row) {
+        if (row < 0 || row >= rows) throw new IndexOutOfBoundsException("Row " + row + " out of bounds for " + rows + " rows");
+        System.arraycopy(data, (row + 1) * columns, data, row * columns, (rows - row - 1) * columns);
+        rows--;
+    }
+
+    /**
+     * Function to delete a column. The remaining values are compacted inside the existing array
+     *
+     * @param column ID of the target column
+     */
+    public void deleteColumn(int column) {
+        if (column < 0 || column >= columns) throw new IndexOutOfBoundsException("Column " + column + " out of bounds for " + columns + " columns");
+        int newColumns = columns - 1;
+        for (int row = 0; row < rows; row++) {
+            int source = row * columns;
+            int target = row * newColumns;
+            System.arraycopy(data, source, data, target, column);
+            System.arraycopy(data, source + column + 1, data, target + column, newColumns - column);
+        }
+        columns = newColumns;
+    }
+
+    /**
+     * Checks if a row at a given index in the matrix is zero
+     *
+     * @param rowIndex Index of the to checking row
+     * @return True if all elements are zero
+     */
+    public boolean isRowZero(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= rows) throw new IndexOutOfBoundsException("Row " + rowIndex + " out of bounds for " + rows + " rows");
+        return RowOps.isZero(data, rowIndex * columns, columns);
+    }
+
+    /**
+     * Swaps two rows
+     *
+     * @param first  ID of the first row
+     * @param second ID of the second row
+     */
+    public void swapRows(int first, int second) {
+        if (first < 0 || first >= rows || second < 0 || second >= rows) {
+            throw new IndexOutOfBoundsException("Rows " + first + " and " + second + " out of bounds for " + rows + " rows");
+        }
+        if (first != second) RowOps.swap(data, first * columns, data, second * columns, columns);
+    }
+
+    /**
+     * Function to calculate the rank by Gaussian elimination with partial pivoting on a copy of the matrix.
+     * Elements whose magnitude is at most {@link OutOfCoreEliminator#RELATIVE_TOLERANCE} times the largest element
+     * are treated as zero, so rounding errors don't create pivots
+     *
+     * @return Rank, the number of linearly independent rows
+     */
+    public int rank() {
+        double[] copy = new double[rows * columns];
+        System.arraycopy(data, 0, copy, 0, copy.length);
+        double largest = 0;
+        for (double value : copy) largest = Math.max(largest, Math.abs(value));
+        double tolerance = largest * OutOfCoreEliminator.RELATIVE_TOLERANCE;
+
+        int pivotRow = 0;
+        for (int column = 0; column < columns && pivotRow < rows; column++) {
+            int bestRow = -1;
+            double bestMagnitude = tolerance;
+            for (int row = pivotRow; row < rows; row++) {
+                double magnitude = Math.abs(copy[row * columns + column]);
+                if (magnitude > bestMagnitude) {
+                    bestRow = row;
+                    bestMagnitude = magnitude;
+                }
+            }
+            if (bestRow < 0) continue;
+            if (bestRow != pivotRow) RowOps.swap(copy, pivotRow * columns, copy, bestRow * columns, columns);
+
+            // Only the elements right of the pivot column are needed later
+            int pivotOffset = pivotRow * columns + column;
+            int length = columns - column - 1;
+            for (int row = pivotRow + 1; row < rows; row++) {
+                double factor = copy[row * columns + column] / copy[pivotOffset];
+                if (factor != 0) RowOps.axpy(-factor, copy, pivotOffset + 1, copy, row * columns + column + 1, length);
+            }
+            pivotRow++;
+        }
+        return pivotRow;
+    }
+
+    /**
+     * Function to calculate the Frobenius norm, the square root of the sum of all squared elements
+     *
+     * @return Frobenius norm
+     */
+    public double frobeniusNorm() {
+        double sum = 0;
+        for (int row = 0; row < rows; row++) sum += RowOps.dot(data, row * columns, data, row * columns, columns);
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Write the matrix into a csv file, values separated by commas. An existing file is overwritten
+     *
+     * @param path Path of the csv file
+     * @throws IOException When an error while writing occurs
+     */
+    public void exportToCsv(String path) throws IOException {
+        exportToCsv(path, false);
+    }
+
+    /**
+     * Write the matrix into a csv file, values separated by commas. See {@link CsvWriter}
+     *
+     * @param path   Path of the csv file
+     * @param append True to append the matrix to an existing file, false to overwrite it
+     * @throws IOException When an error while writing occurs
+     */
+    public void exportToCsv(String path, boolean append) throws IOException {
+        CsvWriter.write(path, this, append);
+    }
+
+    /**
+     * Write the matrix into a binary file, which is overwritten if it exists. See {@link BinaryMatrixFile}
+     *
+     * @param path Path of the file
+     * @throws IOException When an error while writing occurs
+     */
+    public void exportToBinary(String path) throws IOException {
+        BinaryMatrixFile.write(path, this);
+    }
+
+    /**
+     * Multiplies this matrix with another one, see {@link MatrixMultiplier}
+     *
+     * @param other Right factor, needs as many rows as this matrix has columns
+     * @return The product this * other
+     * @throws IllegalArgumentException if the dimensions don't match
+     */
+    public DenseDoubleMatrix multiply(DenseDoubleMatrix other) {
+        return new MatrixMultiplier().multiply(this, other);
+    }
+
+    /**
+     * Multiplies this matrix with another one with the Strassen-Winograd algorithm, see {@link StrassenMultiplier}.
+     * Faster than {@link #multiply(DenseDoubleMatrix)} for large matrices.
+     *
+     * @param other Right factor, needs as many rows as this matrix has columns
+     * @return The product this * other
+     * @throws IllegalArgumentException if the dimensions don't match
+     */
+    public DenseDoubleMatrix multiplyStrassen(DenseDoubleMatrix other) {
+        return new StrassenMultiplier().multiply(this, other);
+    }
+
+    /**
+     * Converting the matrix into a TwoDMatrix of SmartNums
+     *
+     * @return TwoDMatrix with the same values
+     */
+    public TwoDMatrix toTwoDMatrix() {
+        SmartNum[][] matrix = new SmartNum[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                matrix[row][column] = SmartNum.valueOf(data[row * columns + column]);
+            }
+        }
+        return new TwoDMatrix(matrix);
+    }
+
+    /**
+     * Converting the matrix into a string (values separated by whitespaces, rows by new lines and round brackets)
+     *
+     * @return String with the matrix
+     */
+    @Override
+    public String toString() {
+        StringBuilder returnString = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            returnString.append("(");
+            for (int column = 0; column < columns; column++) {
+                if (column != 0) returnString.append(" ");
+                returnString.append(data[row * columns + column]);
+            }
+            returnString.append(")\n");
+        }
+        return returnString.toString();
+    }
+
+    /**
+     * Returns the backing row-major array. Row r starts at r * numberOfColumns()
+     *
+     * @return Backing array, which may be longer than rows * columns
+     */
+    double[] data() {
+        return data;
+    }
+
+    /**
+     * Calculates the position of a cell inside the backing array
+     *
+     * @param row    ID of the target row
+     * @param column ID of the target column
+     * @return Index inside the backing array
+     */
+    private int index(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + column + ") out of bounds for " + rows + "x" + columns);
+        }
+        return row * columns + column;
+    }
+}
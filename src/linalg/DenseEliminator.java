@@ -0,0 +1,243 @@
+package linalg;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gauss-Jordan elimination of a double matrix in place, the primitive counterpart of {@link GaussEliminator}.
+ * The last column holds the results of the equations and never contains a pivot. Pivots are chosen by partial pivoting,
+ * elements whose magnitude is at most {@link OutOfCoreEliminator#RELATIVE_TOLERANCE} times the largest coefficient
+ * are treated as zero. Rows that became zero are removed at the end, but one row is kept.
+ * Like the GaussEliminator, the rows can be updated in parallel on a ForkJoinPool with the same result.
+ */
+class DenseEliminator {
+
+    private final DenseDoubleMatrix matrix;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private int[] pivotColumns;
+    private int rank = -1;
+    private int deletedRows;
+    private boolean metrics;
+    // Only counted while metrics are enabled
+    private final LongAdder rowUpdates = new LongAdder();
+    private final long[] phaseNanos = new long[4];
+
+    /**
+     * Constructor for an eliminator that updates the rows sequentially
+     *
+     * @param matrix Augmented matrix to reduce, will be changed
+     */
+    DenseEliminator(DenseDoubleMatrix matrix) {
+        this(matrix, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor for an eliminator that updates the rows in parallel, if the matrix has at least parallelThreshold rows
+     *
+     * @param matrix            Augmented matrix to reduce, will be changed
+     * @param pool              Pool the row updates are calculated on
+     * @param parallelThreshold Minimal number of rows for the parallel path, smaller matrices are reduced sequentially
+     */
+    DenseEliminator(DenseDoubleMatrix matrix, ForkJoinPool pool, int parallelThreshold) {
+        this.matrix = matrix;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Brings the matrix into reduced row echelon form: every pivot is 1 and the only non-zero element in its column
+     *
+     * @return The reduced matrix (the same object that was given to the constructor)
+     * @throws IllegalStateException if the elimination has already been run
+     */
+    DenseDoubleMatrix eliminate() {
+        if (rank >= 0) throw new IllegalStateException("The matrix has already been eliminated");
+        double[] data = matrix.data();
+        int rows = matrix.numberOfRows();
+        int columns = matrix.numberOfColumns();
+        double largest = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns - 1; column++) largest = Math.max(largest, Math.abs(data[row * columns + column]));
+        }
+        double tolerance = largest * OutOfCoreEliminator.RELATIVE_TOLERANCE;
+        pivotColumns = new int[Math.max(0, Math.min(rows, columns - 1))];
+
+        boolean parallel = pool != null && rows >= parallelThreshold;
+        // Each task should get a few rows, but there should be more tasks than threads for load balancing
+        int grain = parallel ? Math.max(1, rows / (4 * pool.getParallelism())) : rows;
+
+        // Read once, so the disabled path costs only this check per phase
+        metrics = SolverMetrics.isEnabled();
+        SolveEvent event = metrics ? new SolveEvent() : null;
+        if (metrics) event.begin();
+        long time = metrics ? System.nanoTime() : 0;
+
+        int pivotRow = 0;
+        for (int column = 0; column < columns - 1 && pivotRow < rows; column++) {
+            int bestRow = -1;
+            double bestMagnitude = tolerance;
+            for (int row = pivotRow; row < rows; row++) {
+                double magnitude = Math.abs(data[row * columns + column]);
+                if (magnitude > bestMagnitude) {
+                    bestRow = row;
+                    bestMagnitude = magnitude;
+                }
+            }
+            if (bestRow < 0) {
+                // No pivot in this column, the variable is free. Remove the rounding errors, so the rows can become zero
+                for (int row = pivotRow; row < rows; row++) data[row * columns + column] = 0;
+                if (metrics) time = lap(SolveEvent.PIVOT_SEARCH, time);
+                continue;
+            }
+            matrix.swapRows(pivotRow, bestRow);
+            if (metrics) time = lap(SolveEvent.PIVOT_SEARCH, time);
+
+            // Only the elements from the pivot column on can be non-zero
+            int pivotOffset = pivotRow * columns + column;
+            RowOps.scale(1 / data[pivotOffset], data, pivotOffset, columns - column);
+            data[pivotOffset] = 1;
+            if (metrics) time = lap(SolveEvent.NORMALIZATION, time);
+            if (parallel) {
+                pool.invoke(new RowUpdate(pivotRow, column, 0, rows, grain));
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    if (row != pivotRow) eliminateRow(row, pivotRow, column);
+                }
+            }
+            if (metrics) time = lap(SolveEvent.ROW_UPDATE, time);
+            pivotColumns[pivotRow++] = column;
+        }
+        rank = pivotRow;
+        if (rank < pivotColumns.length) {
+            int[] shortened = new int[rank];
+            System.arraycopy(pivotColumns, 0, shortened, 0, rank);
+            pivotColumns = shortened;
+        }
+
+        compact(tolerance);
+        if (metrics) {
+            lap(SolveEvent.COMPACTION, time);
+            SolverMetrics.recordSolve(rank, rowUpdates.sum(), deletedRows, phaseNanos);
+            event.finish(rows, columns, rank, deletedRows, parallel, phaseNanos);
+        }
+        return matrix;
+    }
+
+    /**
+     * Function to get the rank of the coefficient part of the matrix
+     *
+     * @return Rank, which is the number of pivots
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    int getRank() {
+        checkEliminated();
+        return rank;
+    }
+
+    /**
+     * Function to get the columns of the pivots. The pivot of row i is in column getPivotColumns()[i]
+     *
+     * @return Pivot column of every row that has a pivot
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    int[] getPivotColumns() {
+        checkEliminated();
+        return pivotColumns.clone();
+    }
+
+    /**
+     * Function to get the number of rows that became zero and were deleted
+     *
+     * @return Number of deleted rows
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    int getDeletedRows() {
+        checkEliminated();
+        return deletedRows;
+    }
+
+    /**
+     * Subtracts the normalized pivot row from a row, so the row becomes zero in the pivot column
+     */
+    private void eliminateRow(int row, int pivotRow, int column) {
+        double[] data = matrix.data();
+        int columns = matrix.numberOfColumns();
+        int offset = row * columns + column;
+        double factor = data[offset];
+        if (factor == 0) return;
+        if (metrics) rowUpdates.increment();
+        RowOps.axpy(-factor, data, pivotRow * columns + column, data, offset, columns - column);
+        data[offset] = 0;
+    }
+
+    /**
+     * Deletes the rows without pivot whose result is at most the tolerance. Their coefficients are zero already
+     * and they are at the bottom of the matrix. One row is kept, so the matrix still has its columns
+     */
+    private void compact(double tolerance) {
+        double[] data = matrix.data();
+        int columns = matrix.numberOfColumns();
+        for (int row = matrix.numberOfRows() - 1; row >= rank; row--) {
+            int result = row * columns + columns - 1;
+            if (Math.abs(data[result]) > tolerance) continue;
+            if (matrix.numberOfRows() > 1) {
+                matrix.deleteRow(row);
+                deletedRows++;
+            } else {
+                data[result] = 0;
+            }
+        }
+    }
+
+    /**
+     * Adds the time since start to a phase
+     *
+     * @return The current time, which is the start of the next phase
+     */
+    private long lap(int phase, long start) {
+        long now = System.nanoTime();
+        phaseNanos[phase] += now - start;
+        return now;
+    }
+
+    private void checkEliminated() {
+        if (rank < 0) throw new IllegalStateException("The matrix hasn't been eliminated yet");
+    }
+
+    /**
+     * Task eliminating the pivot column from the rows [firstRow, endRow). The rows only read the pivot row,
+     * which isn't changed during the update, and write to themselves, so they are independent of each other
+     */
+    private class RowUpdate extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int pivotRow;
+        private final int column;
+        private final int firstRow;
+        private final int endRow;
+        private final int grain;
+
+        RowUpdate(int pivotRow, int column, int firstRow, int endRow, int grain) {
+            this.pivotRow = pivotRow;
+            this.column = column;
+            this.firstRow = firstRow;
+            this.endRow = endRow;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (endRow - firstRow > grain) {
+                int middle = (firstRow + endRow) >>> 1;
+                invokeAll(new RowUpdate(pivotRow, column, firstRow, middle, grain), new RowUpdate(pivotRow, column, middle, endRow, grain));
+                return;
+            }
+            for (int row = firstRow; row < endRow; row++) {
+                if (row != pivotRow) eliminateRow(row, pivotRow, column);
+            }
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package linalg;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import static linalg.MathHelper.gcd;
 
 /**
- * Class to do calculations with fractions
+ * Class to do calculations with fractions.
+ * Numerator and denominator are stored as longs, calculations are checked for overflows.
+ * A fraction that doesn't fit into longs anymore is stored as BigIntegers instead, until it becomes small enough again.
+ * The fraction is always canceled and the denominator is always positive.
  */
 public class Frac {
 
-    private int numerator;
-    private int denominator;
     private static final Pattern PATTERN = Pattern.compile("-?\\d+\\/-?\\d+\\s*", Pattern.CASE_INSENSITIVE);
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+    // Counts how often a fraction left the int range or the long range through a calculation, only while SolverMetrics are enabled
+    private static final LongAdder LONG_PROMOTIONS = new LongAdder();
+    private static final LongAdder BIG_INTEGER_PROMOTIONS = new LongAdder();
+
+    private long numerator;
+    private long denominator;
+    // Only set if the fraction doesn't fit into longs, numerator and denominator are meaningless in that case
+    private BigInteger bigNumerator;
+    private BigInteger bigDenominator;
 
     /**
      * Constructor for Frac via numerator and denominator
@@ -20,10 +36,27 @@ public class Frac {
      * @param denominator Denominator of the fraction
      */
     public Frac(int numerator, int denominator) {
+        this((long) numerator, (long) denominator);
+    }
+
+    /**
+     * Constructor for Frac via numerator and denominator
+     * @param numerator Numerator of the fraction
+     * @param denominator Denominator of the fraction
+     */
+    public Frac(long numerator, long denominator) {
         if (denominator == 0) throw new ArithmeticException("Division by zero");
-        this.numerator = numerator;
-        this.denominator = denominator;
-        this.cancel();
+        setCanceled(numerator, denominator);
+    }
+
+    /**
+     * Constructor for Frac via numerator and denominator
+     * @param numerator Numerator of the fraction
+     * @param denominator Denominator of the fraction
+     */
+    public Frac(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) throw new ArithmeticException("Division by zero");
+        setCanceled(numerator, denominator);
     }
 
     /**
@@ -43,8 +76,19 @@ public class Frac {
         Frac tempFrac = parseFrac(fractionString);
         numerator = tempFrac.numerator;
         denominator = tempFrac.denominator;
-        if (denominator == 0) throw new ArithmeticException("Division by zero");
-        this.cancel();
+        bigNumerator = tempFrac.bigNumerator;
+        bigDenominator = tempFrac.bigDenominator;
+    }
+
+    /**
+     * Copy constructor
+     * @param other Frac to copy
+     */
+    private Frac(Frac other) {
+        numerator = other.numerator;
+        denominator = other.denominator;
+        bigNumerator = other.bigNumerator;
+        bigDenominator = other.bigDenominator;
     }
 
     /**
@@ -58,36 +102,91 @@ public class Frac {
         if(!matcher.matches()){
             throw new NumberFormatException("Not a valid fraction");
         }
-        String[] parts = s.split("/");
-        if(Integer.parseInt(parts[1]) == 0 && Integer.parseInt(parts[0]) != 0) { //Fraction can be 0/0 but not 1/0
+        String[] parts = s.trim().split("/");
+        BigInteger parsedNumerator = new BigInteger(parts[0]);
+        BigInteger parsedDenominator = new BigInteger(parts[1]);
+        if(parsedDenominator.signum() == 0 && parsedNumerator.signum() != 0) { //Fraction can be 0/0 but not 1/0
             throw new ArithmeticException("Division by zero");
         }
-        return new Frac(Integer.parseInt(parts[0]),Integer.parseInt(parts[1]));
+        return new Frac(parsedNumerator, parsedDenominator);
     }
 
     /**
      * Function to get the numerator
      * @return Numerator of the fraction
+     * @throws ArithmeticException if the numerator doesn't fit into an int
      */
     public int getNumerator() {
-        return numerator;
+        return Math.toIntExact(getLongNumerator());
     }
 
     /**
      * Function to get the denominator
      * @return Denominator of the fraction
+     * @throws ArithmeticException if the denominator doesn't fit into an int
      */
     public int getDenominator() {
+        return Math.toIntExact(getLongDenominator());
+    }
+
+    /**
+     * Function to get the numerator
+     * @return Numerator of the fraction
+     * @throws ArithmeticException if the numerator doesn't fit into a long
+     */
+    public long getLongNumerator() {
+        if (bigNumerator != null) throw new ArithmeticException("Numerator exceeds the range of long");
+        return numerator;
+    }
+
+    /**
+     * Function to get the denominator
+     * @return Denominator of the fraction
+     * @throws ArithmeticException if the denominator doesn't fit into a long
+     */
+    public long getLongDenominator() {
+        if (bigNumerator != null) throw new ArithmeticException("Denominator exceeds the range of long");
         return denominator;
     }
 
+    /**
+     * Function to get the numerator, no matter how large it is
+     * @return Numerator of the fraction
+     */
+    public BigInteger getBigNumerator() {
+        return (bigNumerator != null) ? bigNumerator : BigInteger.valueOf(numerator);
+    }
+
+    /**
+     * Function to get the denominator, no matter how large it is
+     * @return Denominator of the fraction
+     */
+    public BigInteger getBigDenominator() {
+        return (bigNumerator != null) ? bigDenominator : BigInteger.valueOf(denominator);
+    }
+
+    /**
+     * Checking if numerator and denominator both fit into an int
+     * @return True if the fraction can be represented with ints
+     */
+    public boolean fitsInt() {
+        return bigNumerator == null && (int) numerator == numerator && (int) denominator == denominator;
+    }
+
+    /**
+     * Checking if numerator and denominator both fit into a long
+     * @return True if the fraction can be represented with longs
+     */
+    public boolean fitsLong() {
+        return bigNumerator == null;
+    }
+
     /**
      * Finding the greatest common divisor of the fraction to reduce it as much as possible
      */
     public void cancel() {
-        int gcd = gcd(this.numerator, this.denominator);
-        numerator = numerator / gcd;
-        denominator = denominator / gcd;
+        if (bigNumerator != null) setCanceled(bigNumerator, bigDenominator);
+        else setCanceled(numerator, denominator);
     }
 
     /**
@@ -96,7 +195,21 @@ public class Frac {
      */
     @Override
     public String toString() {
-        return (isInteger())? String.valueOf(numerator) : String.format("%s/%s", numerator, denominator);
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    /**
+     * Appends the fraction in the same format as {@link #toString()}, without creating a String
+     * @param target StringBuilder to append to
+     * @return The given StringBuilder
+     */
+    StringBuilder appendTo(StringBuilder target) {
+        if (bigNumerator != null) {
+            target.append(bigNumerator);
+            return (isInteger())? target : target.append('/').append(bigDenominator);
+        }
+        target.append(numerator);
+        return (isInteger())? target : target.append('/').append(denominator);
     }
 
     /**
@@ -105,7 +218,7 @@ public class Frac {
      */
     @Override
     public Frac clone() {
-        return new Frac(numerator, denominator);
+        return new Frac(this);
     }
 
     /**
@@ -113,8 +226,7 @@ public class Frac {
      * @return True if the fraction is an integer
      */
     public boolean isInteger() {
-        cancel();
-        return denominator == 1;
+        return (bigNumerator == null)? denominator == 1 : bigDenominator.equals(BigInteger.ONE);
     }
 
     /**
@@ -122,10 +234,19 @@ public class Frac {
      * @return The reversed/inverted fraction
      */
     public Frac invert() {
+        if (bigNumerator != null) {
+            setCanceled(bigDenominator, bigNumerator);
+            return this;
+        }
         if (numerator == 0) throw new ArithmeticException("Division by zero");
-        int oldDenominator = denominator;
-        denominator = numerator;
-        numerator = oldDenominator;
+        long oldDenominator = denominator;
+        if (numerator < 0) {
+            denominator = -numerator;
+            numerator = -oldDenominator;
+        } else {
+            denominator = numerator;
+            numerator = oldDenominator;
+        }
         return this;
     }
 
@@ -135,9 +256,19 @@ public class Frac {
      * @return Result of the multiplication
      */
     public Frac mult(Frac other) {
-        denominator *= other.denominator;
-        numerator *= other.numerator;
-        cancel();
+        if (bigNumerator == null && other.bigNumerator == null) {
+            try {
+                // Cancel crosswise before multiplying, so the result is already canceled and stays small
+                long gcd1 = gcd(numerator, other.denominator);
+                long gcd2 = gcd(other.numerator, denominator);
+                setResult(Math.multiplyExact(numerator / gcd1, other.numerator / gcd2),
+                        Math.multiplyExact(denominator / gcd2, other.denominator / gcd1));
+                return this;
+            } catch (ArithmeticException e) {
+                // Overflow, calculate again with BigIntegers
+            }
+        }
+        setBigResult(getBigNumerator().multiply(other.getBigNumerator()), getBigDenominator().multiply(other.getBigDenominator()));
         return this;
     }
 
@@ -157,10 +288,25 @@ public class Frac {
      * @throws ArithmeticException if the second fraction is equal to 0
      */
     public Frac divide(Frac other) {
-        if (other.numerator == 0) throw new ArithmeticException("Division by zero");
-        Frac calcOther = new Frac(other.getNumerator(), other.getDenominator());
-        mult(calcOther.invert());
-        cancel();
+        if (other.isZero()) throw new ArithmeticException("Division by zero");
+        if (bigNumerator == null && other.bigNumerator == null) {
+            try {
+                // Cancel crosswise before multiplying with the inverted fraction
+                long gcd1 = gcd(numerator, other.numerator);
+                long gcd2 = gcd(other.denominator, denominator);
+                long newNumerator = Math.multiplyExact(numerator / gcd1, other.denominator / gcd2);
+                long newDenominator = Math.multiplyExact(denominator / gcd2, other.numerator / gcd1);
+                if (newDenominator < 0) {
+                    newNumerator = Math.negateExact(newNumerator);
+                    newDenominator = Math.negateExact(newDenominator);
+                }
+                setResult(newNumerator, newDenominator);
+                return this;
+            } catch (ArithmeticException e) {
+                // Overflow, calculate again with BigIntegers
+            }
+        }
+        setBigResult(getBigNumerator().multiply(other.getBigDenominator()), getBigDenominator().multiply(other.getBigNumerator()));
         return this;
     }
 
@@ -181,9 +327,17 @@ public class Frac {
      * @return Result of the addition
      */
     public Frac add(Frac other) {
-        numerator = other.getDenominator() * numerator + other.getNumerator() * denominator;
-        denominator = denominator * other.getDenominator();
-        cancel();
+        if (bigNumerator == null && other.bigNumerator == null) {
+            try {
+                addCanceled(numerator, other.numerator, other.denominator);
+                return this;
+            } catch (ArithmeticException e) {
+                // Overflow, calculate again with BigIntegers
+            }
+        }
+        BigInteger otherDenominator = other.getBigDenominator();
+        setBigResult(otherDenominator.multiply(getBigNumerator()).add(other.getBigNumerator().multiply(getBigDenominator())),
+                getBigDenominator().multiply(otherDenominator));
         return this;
     }
 
@@ -202,9 +356,17 @@ public class Frac {
      * @return Result of the subtraction
      */
     public Frac subtract(Frac other) {
-        numerator = other.getDenominator() * numerator - other.getNumerator() * denominator;
-        denominator = denominator * other.getDenominator();
-        cancel();
+        if (bigNumerator == null && other.bigNumerator == null) {
+            try {
+                addCanceled(numerator, Math.negateExact(other.numerator), other.denominator);
+                return this;
+            } catch (ArithmeticException e) {
+                // Overflow, calculate again with BigIntegers
+            }
+        }
+        BigInteger otherDenominator = other.getBigDenominator();
+        setBigResult(otherDenominator.multiply(getBigNumerator()).subtract(other.getBigNumerator().multiply(getBigDenominator())),
+                getBigDenominator().multiply(otherDenominator));
         return this;
     }
 
@@ -222,6 +384,126 @@ public class Frac {
      * @return The decimal value
      */
     public double approx() {
+        if (bigNumerator != null) {
+            return new BigDecimal(bigNumerator).divide(new BigDecimal(bigDenominator), MathContext.DECIMAL64).doubleValue();
+        }
         return ((double) numerator / (double) denominator);
     }
+
+    /**
+     * Checking if the fraction is zero
+     * @return True if the numerator is zero
+     */
+    public boolean isZero() {
+        return bigNumerator == null && numerator == 0;
+    }
+
+    /**
+     * Function to get how often the result of a calculation didn't fit into ints anymore and had to be stored as longs
+     * @return Number of promotions to long while metrics were enabled, since the last reset
+     */
+    public static long getLongPromotions() {
+        return LONG_PROMOTIONS.sum();
+    }
+
+    /**
+     * Function to get how often the result of a calculation didn't fit into longs anymore and had to be stored as BigIntegers
+     * @return Number of promotions to BigInteger while metrics were enabled, since the last reset
+     */
+    public static long getBigIntegerPromotions() {
+        return BIG_INTEGER_PROMOTIONS.sum();
+    }
+
+    /**
+     * Resets the promotion counters to zero
+     */
+    public static void resetPromotionCounters() {
+        LONG_PROMOTIONS.reset();
+        BIG_INTEGER_PROMOTIONS.reset();
+    }
+
+    /**
+     * Adds otherNumerator / otherDenominator to thisNumerator / denominator in longs.
+     * Only the gcd of both denominators is used for the common denominator and for canceling the result,
+     * as both fractions are already canceled (Knuth, TAOCP 4.5.1)
+     *
+     * @throws ArithmeticException if the calculation overflows
+     */
+    private void addCanceled(long thisNumerator, long otherNumerator, long otherDenominator) {
+        long gcd1 = gcd(denominator, otherDenominator);
+        if (gcd1 == 1) {
+            setResult(Math.addExact(Math.multiplyExact(thisNumerator, otherDenominator), Math.multiplyExact(otherNumerator, denominator)),
+                    Math.multiplyExact(denominator, otherDenominator));
+            return;
+        }
+        long sum = Math.addExact(Math.multiplyExact(thisNumerator, otherDenominator / gcd1), Math.multiplyExact(otherNumerator, denominator / gcd1));
+        long gcd2 = gcd(sum, gcd1);
+        setResult(sum / gcd2, Math.multiplyExact(denominator / gcd1, otherDenominator / gcd2));
+    }
+
+    /**
+     * Stores the already canceled result of a calculation and counts it, if the fraction left the int range with it
+     * and metrics are collected
+     */
+    private void setResult(long numerator, long denominator) {
+        if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+            setBigResult(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+            return;
+        }
+        boolean wasInt = SolverMetrics.isEnabled() && fitsInt();
+        this.numerator = numerator;
+        this.denominator = denominator;
+        bigNumerator = null;
+        bigDenominator = null;
+        if (wasInt && !fitsInt()) LONG_PROMOTIONS.increment();
+    }
+
+    /**
+     * Stores the result of a calculation with BigIntegers and counts it, if the fraction left the long range with it
+     * and metrics are collected
+     */
+    private void setBigResult(BigInteger numerator, BigInteger denominator) {
+        boolean wasLong = SolverMetrics.isEnabled() && bigNumerator == null;
+        setCanceled(numerator, denominator);
+        if (wasLong && bigNumerator != null) BIG_INTEGER_PROMOTIONS.increment();
+    }
+
+    /**
+     * Cancels the given fraction and stores it, so that the denominator is positive
+     */
+    private void setCanceled(long numerator, long denominator) {
+        if (denominator == 0) throw new ArithmeticException("Division by zero");
+        if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+            // Can't be negated in longs
+            setCanceled(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+            return;
+        }
+        long gcd = gcd(numerator, denominator);
+        if (denominator < 0) gcd = -gcd;
+        this.numerator = numerator / gcd;
+        this.denominator = denominator / gcd;
+        bigNumerator = null;
+        bigDenominator = null;
+    }
+
+    /**
+     * Cancels the given fraction and stores it, so that the denominator is positive. It is stored as longs if possible
+     */
+    private void setCanceled(BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) throw new ArithmeticException("Division by zero");
+        BigInteger gcd = numerator.gcd(denominator);
+        if (SolverMetrics.isEnabled()) SolverMetrics.BIG_INTEGER_GCDS.increment();
+        if (denominator.signum() < 0) gcd = gcd.negate();
+        numerator = numerator.divide(gcd);
+        denominator = denominator.divide(gcd);
+        if (numerator.bitLength() < 64 && denominator.bitLength() < 64 && !numerator.equals(LONG_MIN)) {
+            this.numerator = numerator.longValue();
+            this.denominator = denominator.longValue();
+            bigNumerator = null;
+            bigDenominator = null;
+        } else {
+            bigNumerator = numerator;
+            bigDenominator = denominator;
+        }
+    }
 }
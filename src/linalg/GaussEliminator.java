@@ -0,0 +1,322 @@
+package linalg;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Gauss-Jordan elimination that brings a matrix into reduced row echelon form in place.
+ * Pivots are chosen by partial pivoting (the element with the largest magnitude in the column) and rows are swapped in place.
+ * Values that aren't exact are treated as zero if their magnitude is at most {@link OutOfCoreEliminator#RELATIVE_TOLERANCE}
+ * times the largest coefficient, so rounding errors don't create pivots.
+ * Rows that become zero are only collected during the elimination and removed all at once at the end.
+ * For large matrices the rows can be updated in parallel on a ForkJoinPool. Every row is calculated the same way
+ * in both cases, so the result is identical to the sequential one.
+ */
+public class GaussEliminator {
+
+    /**
+     * Number of rows from which on the parallel eliminator updates the rows in parallel
+     */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
+    private final TwoDMatrix matrix;
+    private final boolean augmented;
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    private int[] pivotColumns;
+    private int rank = -1;
+    private int deletedRows;
+    private double tolerance;
+    private boolean metrics;
+    // Only counted while metrics are enabled
+    private final LongAdder rowUpdates = new LongAdder();
+    private final long[] phaseNanos = new long[4];
+
+    /**
+     * Constructor for an eliminator working on an augmented coefficient matrix, where the last column holds the results
+     * of the equations and therefore never contains a pivot
+     *
+     * @param matrix Matrix to reduce, will be changed
+     */
+    public GaussEliminator(TwoDMatrix matrix) {
+        this(matrix, true);
+    }
+
+    /**
+     * Constructor for an eliminator
+     *
+     * @param matrix    Matrix to reduce, will be changed
+     * @param augmented True if the last column holds the results of the equations and can't contain a pivot
+     */
+    public GaussEliminator(TwoDMatrix matrix, boolean augmented) {
+        this(matrix, augmented, null, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructor for an eliminator that updates the rows in parallel, if the matrix has at least parallelThreshold rows
+     *
+     * @param matrix            Matrix to reduce, will be changed
+     * @param augmented         True if the last column holds the results of the equations and can't contain a pivot
+     * @param pool              Pool the row updates are calculated on
+     * @param parallelThreshold Minimal number of rows for the parallel path, smaller matrices are reduced sequentially
+     */
+    public GaussEliminator(TwoDMatrix matrix, boolean augmented, ForkJoinPool pool, int parallelThreshold) {
+        this.matrix = matrix;
+        this.augmented = augmented;
+        this.pool = pool;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Brings the matrix into reduced row echelon form: every pivot is 1 and the only non-zero element in its column.
+     * Rows without pivot are moved to the bottom, the ones that are zero are deleted.
+     * A zero matrix keeps one zero row.
+     *
+     * @return The reduced matrix (the same object that was given to the constructor)
+     * @throws IllegalStateException if the elimination has already been run
+     */
+    public TwoDMatrix eliminate() {
+        if (rank >= 0) throw new IllegalStateException("The matrix has already been eliminated");
+        int rows = matrix.numberOfRows();
+        int columns = matrix.numberOfColumns();
+        int pivotColumnLimit = augmented ? columns - 1 : columns;
+        pivotColumns = new int[Math.min(rows, pivotColumnLimit)];
+        tolerance = largestMagnitude(pivotColumnLimit) * OutOfCoreEliminator.RELATIVE_TOLERANCE;
+
+        boolean parallel = pool != null && rows >= parallelThreshold;
+        // Each task should get a few rows, but there should be more tasks than threads for load balancing
+        int grain = parallel ? Math.max(1, rows / (4 * pool.getParallelism())) : rows;
+
+        // Read once, so the disabled path costs only this check per phase
+        metrics = SolverMetrics.isEnabled();
+        SolveEvent event = metrics ? new SolveEvent() : null;
+        if (metrics) event.begin();
+        long time = metrics ? System.nanoTime() : 0;
+
+        int pivotRow = 0;
+        for (int column = 0; column < pivotColumnLimit && pivotRow < rows; column++) {
+            int bestRow = findPivotRow(pivotRow, column);
+            if (metrics) time = lap(SolveEvent.PIVOT_SEARCH, time);
+            // No pivot in this column, the variable is free
+            if (bestRow < 0) continue;
+            matrix.swapRows(pivotRow, bestRow);
+
+            normalizePivotRow(pivotRow, column);
+            if (metrics) time = lap(SolveEvent.NORMALIZATION, time);
+            if (parallel) {
+                pool.invoke(new RowUpdate(pivotRow, column, 0, rows, grain));
+            } else {
+                for (int row = 0; row < rows; row++) {
+                    if (row != pivotRow) eliminateRow(row, pivotRow, column);
+                }
+            }
+            if (metrics) time = lap(SolveEvent.ROW_UPDATE, time);
+            pivotColumns[pivotRow++] = column;
+        }
+        rank = pivotRow;
+        if (rank < pivotColumns.length) {
+            int[] shortened = new int[rank];
+            System.arraycopy(pivotColumns, 0, shortened, 0, rank);
+            pivotColumns = shortened;
+        }
+
+        compact();
+        if (metrics) {
+            lap(SolveEvent.COMPACTION, time);
+            SolverMetrics.recordSolve(rank, rowUpdates.sum(), deletedRows, phaseNanos);
+            event.finish(rows, columns, rank, deletedRows, parallel, phaseNanos);
+        }
+        return matrix;
+    }
+
+    /**
+     * Function to get the rank of the coefficient part of the matrix
+     *
+     * @return Rank, which is the number of pivots
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public int getRank() {
+        checkEliminated();
+        return rank;
+    }
+
+    /**
+     * Function to get the columns of the pivots. The pivot of row i is in column getPivotColumns()[i]
+     *
+     * @return Pivot column of every row that has a pivot
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public int[] getPivotColumns() {
+        checkEliminated();
+        return pivotColumns.clone();
+    }
+
+    /**
+     * Function to get the number of rows that became zero and were deleted
+     *
+     * @return Number of deleted rows
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public int getDeletedRows() {
+        checkEliminated();
+        return deletedRows;
+    }
+
+    /**
+     * Function to get the magnitude up to which values that aren't exact are treated as zero
+     *
+     * @return Tolerance derived from the largest coefficient
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    double getTolerance() {
+        checkEliminated();
+        return tolerance;
+    }
+
+    /**
+     * Checks if a value is zero or a rounding error, which is a value that isn't exact and at most the tolerance
+     *
+     * @param value     Value to check
+     * @param tolerance Largest magnitude of a rounding error
+     * @return True if the value has to be treated as zero
+     */
+    static boolean isNegligible(SmartNum value, double tolerance) {
+        return value.isZero() || (!value.isExact() && Math.abs(value.toDouble()) <= tolerance);
+    }
+
+    /**
+     * Function to get the largest magnitude of the coefficients, the values in the columns that may contain pivots
+     */
+    private double largestMagnitude(int pivotColumnLimit) {
+        double largest = 0;
+        for (int row = 0; row < matrix.numberOfRows(); row++) {
+            for (int column = 0; column < pivotColumnLimit; column++) largest = Math.max(largest, Math.abs(matrix.getDouble(row, column)));
+        }
+        return largest;
+    }
+
+    /**
+     * Searches the row with the element of the largest magnitude in the given column, starting at a row.
+     * If there is no pivot, the rounding errors in the column are set to zero, so the rows can become zero
+     *
+     * @param firstRow First row that may be used as pivot row
+     * @param column   Column of the pivot
+     * @return ID of the pivot row or -1 if all elements are zero
+     */
+    private int findPivotRow(int firstRow, int column) {
+        int bestRow = -1;
+        double bestMagnitude = -1;
+        for (int row = firstRow; row < matrix.numberOfRows(); row++) {
+            SmartNum value = matrix.get(row, column);
+            if (isNegligible(value, tolerance)) continue;
+            double magnitude = Math.abs(value.toDouble());
+            if (magnitude > bestMagnitude) {
+                bestRow = row;
+                bestMagnitude = magnitude;
+            }
+        }
+        if (bestRow < 0) {
+            for (int row = firstRow; row < matrix.numberOfRows(); row++) matrix.set(row, column, SmartNum.ZERO);
+        }
+        return bestRow;
+    }
+
+    /**
+     * Divides the pivot row by the pivot, so the pivot becomes 1. All elements left of the pivot are zero already
+     */
+    private void normalizePivotRow(int pivotRow, int column) {
+        SmartNum pivot = matrix.get(pivotRow, column);
+        matrix.set(pivotRow, column, SmartNum.ONE);
+        for (int current = column + 1; current < matrix.numberOfColumns(); current++) {
+            if (!matrix.isZero(pivotRow, current)) matrix.set(pivotRow, current, matrix.get(pivotRow, current).divide(pivot));
+        }
+    }
+
+    /**
+     * Subtracts the normalized pivot row from a row, so the row becomes zero in the pivot column
+     */
+    private void eliminateRow(int row, int pivotRow, int column) {
+        if (matrix.isZero(row, column)) return;
+        if (metrics) rowUpdates.increment();
+        SmartNum factor = matrix.get(row, column);
+        matrix.set(row, column, SmartNum.ZERO);
+        for (int current = column + 1; current < matrix.numberOfColumns(); current++) {
+            if (matrix.isZero(pivotRow, current)) continue;
+            matrix.set(row, current, matrix.get(row, current).subtract(factor.mult(matrix.get(pivotRow, current))));
+        }
+    }
+
+    /**
+     * Deletes all rows without pivot that are zero. These can only be at the bottom of the matrix.
+     * Their coefficients are zero already, a rounding error as result of the equation is set to zero as well
+     */
+    private void compact() {
+        int rows = matrix.numberOfRows();
+        int last = matrix.numberOfColumns() - 1;
+        boolean[] rowsToDelete = new boolean[rows];
+        for (int row = rank; row < rows; row++) {
+            if (augmented && isNegligible(matrix.get(row, last), tolerance)) matrix.set(row, last, SmartNum.ZERO);
+            if (matrix.isRowZero(row)) {
+                rowsToDelete[row] = true;
+                deletedRows++;
+            }
+        }
+        // Keep one row, so the matrix still has its columns
+        if (deletedRows == rows) {
+            rowsToDelete[0] = false;
+            deletedRows--;
+        }
+        matrix.deleteRows(rowsToDelete);
+    }
+
+    /**
+     * Adds the time since start to a phase
+     *
+     * @return The current time, which is the start of the next phase
+     */
+    private long lap(int phase, long start) {
+        long now = System.nanoTime();
+        phaseNanos[phase] += now - start;
+        return now;
+    }
+
+    private void checkEliminated() {
+        if (rank < 0) throw new IllegalStateException("The matrix hasn't been eliminated yet");
+    }
+
+    /**
+     * Task eliminating the pivot column from the rows [firstRow, endRow). The rows only read the pivot row,
+     * which isn't changed during the update, and write to themselves, so they are independent of each other
+     */
+    private class RowUpdate extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int pivotRow;
+        private final int column;
+        private final int firstRow;
+        private final int endRow;
+        private final int grain;
+
+        RowUpdate(int pivotRow, int column, int firstRow, int endRow, int grain) {
+            this.pivotRow = pivotRow;
+            this.column = column;
+            this.firstRow = firstRow;
+            this.endRow = endRow;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (endRow - firstRow > grain) {
+                int middle = (firstRow + endRow) >>> 1;
+                invokeAll(new RowUpdate(pivotRow, column, firstRow, middle, grain), new RowUpdate(pivotRow, column, middle, endRow, grain));
+                return;
+            }
+            for (int row = firstRow; row < endRow; row++) {
+                if (row != pivotRow) eliminateRow(row, pivotRow, column);
+            }
+        }
+    }
+}
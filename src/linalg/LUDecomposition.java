@@ -0,0 +1,505 @@
+package linalg;
+
+import java.util.Arrays;
+
+/**
+ * LU decomposition with partial pivoting of a square matrix: P * A = L * U,
+ * where L is a lower triangular matrix with ones on the diagonal, U an upper triangular matrix and P a permutation of the rows.
+ * The matrix is factored once, afterwards every right-hand side is solved by forward and back substitution in O(n^2).
+ */
+public class LUDecomposition {
+
+    private final ComputationMode mode;
+    private final int size;
+    private final int[] permutation;
+    // Largest absolute column sum of the factored matrix, needed for the condition estimate
+    private double oneNorm;
+    private boolean singular;
+    private boolean oddPermutation;
+
+    // L and U share one matrix, the ones on the diagonal of L are not stored. Only one of both is used, depending on the mode
+    private SmartNum[][] exactLU;
+    private double[] doubleLU;
+
+    /**
+     * Constructor that factors a matrix with exact SmartNum calculations
+     *
+     * @param matrix Square matrix to factor, is not changed
+     */
+    public LUDecomposition(TwoDMatrix matrix) {
+        this(matrix, ComputationMode.EXACT);
+    }
+
+    /**
+     * Constructor that factors a matrix
+     *
+     * @param matrix Square matrix to factor, is not changed
+     * @param mode   Number type the factorization and all solutions are calculated with
+     * @throws IllegalArgumentException if the matrix isn't square
+     */
+    public LUDecomposition(TwoDMatrix matrix, ComputationMode mode) {
+        if (matrix.numberOfRows() != matrix.numberOfColumns()) {
+            throw new IllegalArgumentException("Only square matrices can be decomposed");
+        }
+        this.mode = mode;
+        this.size = matrix.numberOfRows();
+        this.permutation = new int[size];
+        for (int i = 0; i < size; i++) permutation[i] = i;
+        switch (mode) {
+            case EXACT -> factorExact(matrix);
+            case DOUBLE -> {
+                double[] values = new DenseDoubleMatrix(matrix).data();
+                this.oneNorm = oneNorm(values, size);
+                factorDouble(values);
+            }
+        }
+    }
+
+    /**
+     * Constructor that factors a double matrix with double calculations
+     *
+     * @param matrix Square matrix to factor, is not changed
+     * @throws IllegalArgumentException if the matrix isn't square
+     */
+    public LUDecomposition(DenseDoubleMatrix matrix) {
+        if (matrix.numberOfRows() != matrix.numberOfColumns()) {
+            throw new IllegalArgumentException("Only square matrices can be decomposed");
+        }
+        this.mode = ComputationMode.DOUBLE;
+        this.size = matrix.numberOfRows();
+        this.permutation = new int[size];
+        for (int i = 0; i < size; i++) permutation[i] = i;
+        double[] copy = new double[size * size];
+        System.arraycopy(matrix.data(), 0, copy, 0, copy.length);
+        this.oneNorm = oneNorm(copy, size);
+        factorDouble(copy);
+    }
+
+    /**
+     * Function to get the number type this decomposition calculates with
+     *
+     * @return The computation mode
+     */
+    public ComputationMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Checks if the factored matrix is singular, which means it has no inverse and systems with it have no unique solution
+     *
+     * @return True if a pivot is zero
+     */
+    public boolean isSingular() {
+        return singular;
+    }
+
+    /**
+     * Function to get the row permutation: row i of P * A is row getPermutation()[i] of A
+     *
+     * @return The permutation
+     */
+    public int[] getPermutation() {
+        return permutation.clone();
+    }
+
+    /**
+     * Function to get the determinant, which is the product of the diagonal of U with the sign of the permutation
+     *
+     * @return Determinant, exact in exact mode
+     */
+    public SmartNum determinant() {
+        if (singular) return SmartNum.ZERO;
+        if (mode == ComputationMode.DOUBLE) {
+            double determinant = oddPermutation ? -1 : 1;
+            for (int k = 0; k < size; k++) determinant *= doubleLU[k * size + k];
+            return SmartNum.valueOf(determinant);
+        }
+        SmartNum determinant = oddPermutation ? SmartNum.MINUS_ONE : SmartNum.ONE;
+        for (int k = 0; k < size; k++) determinant = determinant.mult(exactLU[k][k]);
+        return determinant;
+    }
+
+    /**
+     * Function to get the inverse by solving for all columns of the identity matrix.
+     * In double mode a matrix that is singular in double precision is rejected as well, see {@link #isNearlySingular()}
+     *
+     * @return The inverse as a new matrix
+     * @throws ArithmeticException if the matrix is singular or, in double mode, nearly singular
+     */
+    public TwoDMatrix inverse() {
+        if (mode == ComputationMode.DOUBLE && !singular && isNearlySingular()) {
+            throw new ArithmeticException("Matrix is nearly singular, condition estimate " + conditionEstimate());
+        }
+        SmartNum[][] identity = new SmartNum[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) identity[row][column] = (row == column) ? SmartNum.ONE : SmartNum.ZERO;
+        }
+        return solve(new TwoDMatrix(identity));
+    }
+
+    /**
+     * Estimates the condition number ||A|| * ||A^-1|| in the 1-norm with the algorithm of Hager and Higham.
+     * It needs a few substitutions with the factors in O(n^2) instead of the O(n^3) for the inverse and is mostly exact,
+     * but can underestimate the condition. Solutions lose about log10 of it decimal digits of precision in double mode
+     *
+     * @return Estimated condition number, infinity if the matrix is singular
+     */
+    public double conditionEstimate() {
+        if (singular) return Double.POSITIVE_INFINITY;
+        double norm = oneNorm;
+        if (size == 0 || norm == 0) return 0;
+        return norm * inverseOneNorm();
+    }
+
+    /**
+     * Checks if the matrix is singular or so badly conditioned that double calculations with it are meaningless,
+     * which is the case if the condition estimate reaches 1 / {@link Math#ulp(double) ulp(1)}
+     *
+     * @return True if the matrix is singular in double precision
+     */
+    public boolean isNearlySingular() {
+        return conditionEstimate() * Math.ulp(1d) >= 1;
+    }
+
+    /**
+     * Function to get the lower triangular factor L, with ones on the diagonal
+     *
+     * @return L as a new matrix
+     */
+    public TwoDMatrix getL() {
+        SmartNum[][] l = new SmartNum[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                if (column < row) l[row][column] = element(row, column);
+                else l[row][column] = (column == row) ? SmartNum.ONE : SmartNum.ZERO;
+            }
+        }
+        return new TwoDMatrix(l);
+    }
+
+    /**
+     * Function to get the upper triangular factor U
+     *
+     * @return U as a new matrix
+     */
+    public TwoDMatrix getU() {
+        SmartNum[][] u = new SmartNum[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                u[row][column] = (column >= row) ? element(row, column) : SmartNum.ZERO;
+            }
+        }
+        return new TwoDMatrix(u);
+    }
+
+    /**
+     * Solves the system A * x = b for one right-hand side
+     *
+     * @param rhs Right-hand side b, one value per row
+     * @return Solution x
+     * @throws ArithmeticException      if the matrix is singular
+     * @throws IllegalArgumentException if the right-hand side has the wrong length
+     */
+    public SmartNum[] solve(SmartNum[] rhs) {
+        if (rhs.length != size) throw new IllegalArgumentException("Right-hand side must have " + size + " values");
+        SmartNum[][] columns = new SmartNum[size][1];
+        for (int row = 0; row < size; row++) columns[row][0] = rhs[row];
+        TwoDMatrix solution = solve(new TwoDMatrix(columns));
+        SmartNum[] result = new SmartNum[size];
+        for (int row = 0; row < size; row++) result[row] = solution.get(row, 0);
+        return result;
+    }
+
+    /**
+     * Solves the system A * x = b for one right-hand side with double calculations, no matter which mode the decomposition has
+     *
+     * @param rhs Right-hand side b, one value per row
+     * @return Solution x
+     * @throws ArithmeticException      if the matrix is singular
+     * @throws IllegalArgumentException if the right-hand side has the wrong length
+     */
+    public double[] solve(double[] rhs) {
+        if (rhs.length != size) throw new IllegalArgumentException("Right-hand side must have " + size + " values");
+        double[] x = new double[size];
+        for (int row = 0; row < size; row++) x[row] = rhs[permutation[row]];
+        substituteDouble(x, 1);
+        return x;
+    }
+
+    /**
+     * Solves the system A * X = B for many right-hand sides at once. Every column of B is one right-hand side
+     *
+     * @param rhs Matrix B with one right-hand side per column
+     * @return Matrix X with the solution of each right-hand side in the same column
+     * @throws ArithmeticException      if the matrix is singular
+     * @throws IllegalArgumentException if the right-hand sides don't have one row per row of the factored matrix
+     */
+    public TwoDMatrix solve(TwoDMatrix rhs) {
+        if (rhs.numberOfRows() != size) throw new IllegalArgumentException("Right-hand sides must have " + size + " rows");
+        if (singular) throw new ArithmeticException("Matrix is singular");
+        int count = rhs.numberOfColumns();
+        if (mode == ComputationMode.DOUBLE) {
+            double[] x = new double[size * count];
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < count; column++) {
+                    x[row * count + column] = rhs.getDouble(permutation[row], column);
+                }
+            }
+            substituteDouble(x, count);
+            return new DenseDoubleMatrix(x, size, count).toTwoDMatrix();
+        }
+
+        SmartNum[][] x = new SmartNum[size][count];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < count; column++) x[row][column] = rhs.get(permutation[row], column);
+        }
+        // Forward substitution with L, whose diagonal is one
+        for (int row = 1; row < size; row++) {
+            for (int k = 0; k < row; k++) {
+                SmartNum factor = exactLU[row][k];
+                if (factor.isZero()) continue;
+                for (int column = 0; column < count; column++) {
+                    if (!x[k][column].isZero()) x[row][column] = x[row][column].subtract(factor.mult(x[k][column]));
+                }
+            }
+        }
+        // Back substitution with U
+        for (int row = size - 1; row >= 0; row--) {
+            for (int k = row + 1; k < size; k++) {
+                SmartNum factor = exactLU[row][k];
+                if (factor.isZero()) continue;
+                for (int column = 0; column < count; column++) {
+                    if (!x[k][column].isZero()) x[row][column] = x[row][column].subtract(factor.mult(x[k][column]));
+                }
+            }
+            SmartNum pivot = exactLU[row][row];
+            for (int column = 0; column < count; column++) x[row][column] = x[row][column].divide(pivot);
+        }
+        return new TwoDMatrix(x);
+    }
+
+    /**
+     * Solves the system A * X = B for many right-hand sides at once with double calculations, no matter which mode the decomposition has.
+     * Every column of B is one right-hand side
+     *
+     * @param rhs Matrix B with one right-hand side per column
+     * @return Matrix X with the solution of each right-hand side in the same column
+     * @throws ArithmeticException      if the matrix is singular
+     * @throws IllegalArgumentException if the right-hand sides don't have one row per row of the factored matrix
+     */
+    public DenseDoubleMatrix solve(DenseDoubleMatrix rhs) {
+        if (rhs.numberOfRows() != size) throw new IllegalArgumentException("Right-hand sides must have " + size + " rows");
+        int count = rhs.numberOfColumns();
+        double[] x = new double[size * count];
+        for (int row = 0; row < size; row++) System.arraycopy(rhs.data(), permutation[row] * count, x, row * count, count);
+        substituteDouble(x, count);
+        return new DenseDoubleMatrix(x, size, count);
+    }
+
+    /**
+     * Factors the matrix with SmartNums. The 1-norm is summed up while the matrix is copied
+     */
+    private void factorExact(TwoDMatrix matrix) {
+        exactLU = new SmartNum[size][size];
+        double[] sums = new double[size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                exactLU[row][column] = matrix.get(row, column);
+                sums[column] += Math.abs(exactLU[row][column].toDouble());
+            }
+        }
+        for (double sum : sums) oneNorm = Math.max(oneNorm, sum);
+        for (int k = 0; k < size; k++) {
+            // Partial pivoting: the element with the largest magnitude becomes the pivot
+            int pivotRow = -1;
+            double bestMagnitude = -1;
+            for (int row = k; row < size; row++) {
+                if (exactLU[row][k].isZero()) continue;
+                double magnitude = Math.abs(exactLU[row][k].toDouble());
+                if (magnitude > bestMagnitude) {
+                    pivotRow = row;
+                    bestMagnitude = magnitude;
+                }
+            }
+            if (pivotRow < 0) {
+                singular = true;
+                continue;
+            }
+            swap(k, pivotRow);
+            SmartNum[] temp = exactLU[k];
+            exactLU[k] = exactLU[pivotRow];
+            exactLU[pivotRow] = temp;
+
+            SmartNum pivot = exactLU[k][k];
+            for (int row = k + 1; row < size; row++) {
+                if (exactLU[row][k].isZero()) continue;
+                SmartNum factor = exactLU[row][k].divide(pivot);
+                exactLU[row][k] = factor;
+                for (int column = k + 1; column < size; column++) {
+                    if (!exactLU[k][column].isZero()) {
+                        exactLU[row][column] = exactLU[row][column].subtract(factor.mult(exactLU[k][column]));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Factors a row-major double matrix in place
+     */
+    private void factorDouble(double[] lu) {
+        doubleLU = lu;
+        for (int k = 0; k < size; k++) {
+            int pivotRow = k;
+            double bestMagnitude = Math.abs(lu[k * size + k]);
+            for (int row = k + 1; row < size; row++) {
+                double magnitude = Math.abs(lu[row * size + k]);
+                if (magnitude > bestMagnitude) {
+                    pivotRow = row;
+                    bestMagnitude = magnitude;
+                }
+            }
+            if (bestMagnitude == 0d) {
+                singular = true;
+                continue;
+            }
+            if (pivotRow != k) {
+                swap(k, pivotRow);
+                RowOps.swap(lu, k * size, lu, pivotRow * size, size);
+            }
+
+            double pivot = lu[k * size + k];
+            for (int row = k + 1; row < size; row++) {
+                double factor = lu[row * size + k] / pivot;
+                lu[row * size + k] = factor;
+                if (factor == 0d) continue;
+                RowOps.axpy(-factor, lu, k * size + k + 1, lu, row * size + k + 1, size - k - 1);
+            }
+        }
+    }
+
+    /**
+     * Forward and back substitution in doubles for count right-hand sides, stored row-major in x and already permuted
+     */
+    private void substituteDouble(double[] x, int count) {
+        if (singular) throw new ArithmeticException("Matrix is singular");
+        double[] lu = luAsDoubles();
+        for (int row = 1; row < size; row++) {
+            for (int k = 0; k < row; k++) {
+                double factor = lu[row * size + k];
+                if (factor == 0d) continue;
+                RowOps.axpy(-factor, x, k * count, x, row * count, count);
+            }
+        }
+        for (int row = size - 1; row >= 0; row--) {
+            for (int k = row + 1; k < size; k++) {
+                double factor = lu[row * size + k];
+                if (factor == 0d) continue;
+                RowOps.axpy(-factor, x, k * count, x, row * count, count);
+            }
+            double pivot = lu[row * size + row];
+            for (int column = 0; column < count; column++) x[row * count + column] /= pivot;
+        }
+    }
+
+    /**
+     * Estimates ||A^-1|| in the 1-norm without calculating the inverse (Hager's method with Higham's extra test vector).
+     * Starting with a vector x, y = A^-1 * x and z = A^-T * sign(y) are calculated. As long as z shows a unit vector
+     * that gives a larger ||A^-1 * x||, x becomes that unit vector
+     */
+    private double inverseOneNorm() {
+        double[] x = new double[size];
+        Arrays.fill(x, 1d / size);
+        double estimate = 0;
+        int previousIndex = -1;
+        for (int iteration = 0; iteration < 5; iteration++) {
+            double[] y = solve(x);
+            double norm = 0;
+            for (double value : y) norm += Math.abs(value);
+            if (norm <= estimate) break;
+            estimate = norm;
+
+            double[] z = new double[size];
+            for (int i = 0; i < size; i++) z[i] = (y[i] >= 0) ? 1 : -1;
+            solveTransposed(z);
+            int index = 0;
+            for (int i = 1; i < size; i++) if (Math.abs(z[i]) > Math.abs(z[index])) index = i;
+            // Stop if no unit vector promises a larger value
+            if (index == previousIndex || Math.abs(z[index]) <= RowOps.dot(z, 0, x, 0, size)) break;
+            Arrays.fill(x, 0);
+            x[index] = 1;
+            previousIndex = index;
+        }
+
+        // Alternating vector that catches the cases where the iteration above gets stuck
+        for (int i = 0; i < size; i++) x[i] = ((i % 2 == 0) ? 1 : -1) * (1 + (size > 1 ? (double) i / (size - 1) : 0));
+        double[] y = solve(x);
+        double norm = 0;
+        for (double value : y) norm += Math.abs(value);
+        return Math.max(estimate, 2 * norm / (3 * size));
+    }
+
+    /**
+     * Solves A^T * y = b in place with double calculations. With P * A = L * U, A^T = U^T * L^T * P,
+     * so the substitutions run with U^T first, then with L^T, and the permutation is reversed at the end
+     */
+    private void solveTransposed(double[] b) {
+        double[] lu = luAsDoubles();
+        // Forward substitution with U^T
+        for (int row = 0; row < size; row++) {
+            double sum = b[row];
+            for (int k = 0; k < row; k++) sum -= lu[k * size + row] * b[k];
+            b[row] = sum / lu[row * size + row];
+        }
+        // Back substitution with L^T, whose diagonal is one
+        for (int row = size - 1; row >= 0; row--) {
+            double sum = b[row];
+            for (int k = row + 1; k < size; k++) sum -= lu[k * size + row] * b[k];
+            b[row] = sum;
+        }
+        double[] w = b.clone();
+        for (int row = 0; row < size; row++) b[permutation[row]] = w[row];
+    }
+
+    /**
+     * Largest absolute column sum of a square row-major matrix
+     */
+    private static double oneNorm(double[] values, int size) {
+        double[] sums = new double[size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) sums[column] += Math.abs(values[row * size + column]);
+        }
+        double norm = 0;
+        for (double sum : sums) norm = Math.max(norm, sum);
+        return norm;
+    }
+
+    /**
+     * Returns the factors as doubles. In exact mode they are converted once and kept
+     */
+    private double[] luAsDoubles() {
+        if (doubleLU == null) {
+            double[] lu = new double[size * size];
+            for (int row = 0; row < size; row++) {
+                for (int column = 0; column < size; column++) lu[row * size + column] = exactLU[row][column].toDouble();
+            }
+            doubleLU = lu;
+        }
+        return doubleLU;
+    }
+
+    private SmartNum element(int row, int column) {
+        return (exactLU != null) ? exactLU[row][column] : SmartNum.valueOf(doubleLU[row * size + column]);
+    }
+
+    /**
+     * Records a swap of two rows in the permutation. Every swap changes the sign of the determinant
+     */
+    private void swap(int first, int second) {
+        if (first == second) return;
+        int temp = permutation[first];
+        permutation[first] = permutation[second];
+        permutation[second] = temp;
+        oddPermutation = !oddPermutation;
+    }
+}
@@ -0,0 +1,234 @@
+package linalg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import linalg.BinaryMatrixFile.ElementType;
+
+/**
+ * Read-only matrix that is backed by a file in the {@link BinaryMatrixFile} format mapped into memory.
+ * The elements stay in the page cache of the operating system and are only read when they are accessed.
+ * Files larger than 2 GB are mapped in several chunks. Chunks always start at a multiple of the element size,
+ * so no element is split between two chunks.
+ */
+public class MappedMatrix {
+
+    private static final int CHUNK_SHIFT = 30;
+    private static final long CHUNK_SIZE = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private final ByteBuffer[] chunks;
+    private final ElementType type;
+    private final int rows;
+    private final int columns;
+
+    private MappedMatrix(ByteBuffer[] chunks, ElementType type, int rows, int columns) {
+        this.chunks = chunks;
+        this.type = type;
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Maps a matrix file into memory. The file can be closed afterwards, the mapping stays valid
+     *
+     * @param path Path of the file
+     * @return The mapped matrix
+     * @throws IOException When the file can't be read or isn't a valid matrix file
+     */
+    static MappedMatrix open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < BinaryMatrixFile.HEADER_SIZE) throw new IOException("Not a matrix file: " + path);
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, BinaryMatrixFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != BinaryMatrixFile.MAGIC) throw new IOException("Not a matrix file: " + path);
+            if (header.get(4) != BinaryMatrixFile.VERSION) throw new IOException("Unsupported version " + header.get(4) + ": " + path);
+            int typeId = header.get(5);
+            if (typeId < 0 || typeId >= ElementType.values().length) throw new IOException("Unknown element type " + typeId + ": " + path);
+            ElementType type = ElementType.values()[typeId];
+            int rows = header.getInt(8);
+            int columns = header.getInt(12);
+            if (rows < 0 || columns < 0) throw new IOException("Invalid dimensions " + rows + "x" + columns + ": " + path);
+
+            long end = BinaryMatrixFile.HEADER_SIZE + (long) rows * columns * type.size();
+            if (size < end) throw new IOException("File is too short for a " + rows + "x" + columns + " matrix: " + path);
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((end + CHUNK_SIZE - 1) >>> CHUNK_SHIFT)];
+            for (int i = 0; i < chunks.length; i++) {
+                long start = (long) i << CHUNK_SHIFT;
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(CHUNK_SIZE, end - start));
+                chunks[i] = chunk.order(ByteOrder.LITTLE_ENDIAN);
+            }
+            return new MappedMatrix(chunks, type, rows, columns);
+        }
+    }
+
+    /**
+     * Function to get the type of the stored elements
+     *
+     * @return Element type
+     */
+    public ElementType getElementType() {
+        return type;
+    }
+
+    /**
+     * Function for getting the number of rows
+     *
+     * @return Number of rows
+     */
+    public int numberOfRows() {
+        return rows;
+    }
+
+    /**
+     * Function for getting the number of columns
+     *
+     * @return Number of columns
+     */
+    public int numberOfColumns() {
+        return columns;
+    }
+
+    /**
+     * Method to get a value in the matrix at a specific position
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Value at the given position
+     */
+    public SmartNum get(int row, int column) {
+        long offset = offset(row, column);
+        return switch (type) {
+            case INT -> SmartNum.valueOf(readLong(offset));
+            case RATIONAL -> SmartNum.valueOf(new Frac(readLong(offset), readLong(offset + Long.BYTES)));
+            case DOUBLE -> SmartNum.valueOf(Double.longBitsToDouble(readLong(offset)));
+        };
+    }
+
+    /**
+     * Method to get a value in the matrix at a specific position as a double
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Value at the given position as a double
+     */
+    public double getDouble(int row, int column) {
+        long offset = offset(row, column);
+        return switch (type) {
+            case INT -> readLong(offset);
+            case RATIONAL -> (double) readLong(offset) / readLong(offset + Long.BYTES);
+            case DOUBLE -> Double.longBitsToDouble(readLong(offset));
+        };
+    }
+
+    /**
+     * Method to get the numerator of a value in the matrix at a specific position
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Numerator of the value at the given position
+     * @throws ArithmeticException if the matrix stores doubles
+     */
+    public long getNumerator(int row, int column) {
+        if (type == ElementType.DOUBLE) throw new ArithmeticException("Value is not exact");
+        return readLong(offset(row, column));
+    }
+
+    /**
+     * Method to get the denominator of a value in the matrix at a specific position
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Denominator of the value at the given position
+     * @throws ArithmeticException if the matrix stores doubles
+     */
+    public long getDenominator(int row, int column) {
+        if (type == ElementType.DOUBLE) throw new ArithmeticException("Value is not exact");
+        if (type == ElementType.INT) return 1;
+        return readLong(offset(row, column) + Long.BYTES);
+    }
+
+    /**
+     * Passes all elements in row-major order to a builder, which creates a matrix on the heap
+     *
+     * @param builder Builder creating the matrix, see {@link MatrixBuilder#forTwoDMatrix()} and the other factories
+     * @param <M>     Type of the created matrix
+     * @return The matrix
+     */
+    public <M> M load(MatrixBuilder<M> builder) {
+        long offset = BinaryMatrixFile.HEADER_SIZE;
+        long size = (long) rows * columns;
+        for (long i = 0; i < size; i++, offset += type.size()) {
+            switch (type) {
+                case INT -> builder.addInteger(readLong(offset));
+                case RATIONAL -> builder.addFraction(readLong(offset), readLong(offset + Long.BYTES));
+                case DOUBLE -> builder.addDouble(Double.longBitsToDouble(readLong(offset)));
+            }
+        }
+        return builder.build(rows, columns);
+    }
+
+    /**
+     * Copies the matrix onto the heap as TwoDMatrix
+     *
+     * @return TwoDMatrix with the same values
+     */
+    public TwoDMatrix toTwoDMatrix() {
+        return load(MatrixBuilder.forTwoDMatrix());
+    }
+
+    /**
+     * Copies the matrix onto the heap as DenseDoubleMatrix
+     *
+     * @return DenseDoubleMatrix with the same values
+     */
+    public DenseDoubleMatrix toDenseDoubleMatrix() {
+        if (type != ElementType.DOUBLE) return load(MatrixBuilder.forDenseDoubleMatrix());
+        // Doubles are copied chunk by chunk with bulk transfers
+        double[] data = new double[Math.multiplyExact(rows, columns)];
+        long offset = BinaryMatrixFile.HEADER_SIZE;
+        int copied = 0;
+        while (copied < data.length) {
+            ByteBuffer chunk = chunks[(int) (offset >>> CHUNK_SHIFT)].duplicate().order(ByteOrder.LITTLE_ENDIAN);
+            chunk.position((int) (offset & CHUNK_MASK));
+            int count = Math.min(chunk.remaining() / Double.BYTES, data.length - copied);
+            chunk.asDoubleBuffer().get(data, copied, count);
+            copied += count;
+            offset += (long) count * Double.BYTES;
+        }
+        return new DenseDoubleMatrix(data, rows, columns);
+    }
+
+    /**
+     * Copies the matrix onto the heap as RationalMatrix
+     *
+     * @return RationalMatrix with the same values
+     * @throws IllegalArgumentException if the matrix contains a value that can only be represented as double
+     */
+    public RationalMatrix toRationalMatrix() {
+        return load(MatrixBuilder.forRationalMatrix());
+    }
+
+    private long readLong(long offset) {
+        return chunks[(int) (offset >>> CHUNK_SHIFT)].getLong((int) (offset & CHUNK_MASK));
+    }
+
+    /**
+     * Calculates the position of a cell inside the file
+     *
+     * @param row    ID of the target row
+     * @param column ID of the target column
+     * @return Offset of the cell in bytes
+     */
+    private long offset(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + column + ") out of bounds for " + rows + "x" + columns);
+        }
+        return BinaryMatrixFile.HEADER_SIZE + ((long) row * columns + column) * type.size();
+    }
+}
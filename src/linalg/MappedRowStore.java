@@ -0,0 +1,98 @@
+package linalg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writable double matrix in the {@link BinaryMatrixFile} format, mapped into memory row by row.
+ * The file is mapped in chunks of whole rows, so a row never spans two mappings and can be copied with one bulk transfer.
+ * All transferred bytes are counted.
+ */
+class MappedRowStore implements AutoCloseable {
+
+    private static final long MAX_CHUNK_BYTES = 1L << 30;
+
+    private final FileChannel channel;
+    private final DoubleBuffer[] chunks;
+    private final int rowsPerChunk;
+    private final int rows;
+    private final int columns;
+    private long bytesRead;
+    private long bytesWritten;
+
+    /**
+     * Creates a new file for a rows x columns double matrix. An existing file is overwritten
+     *
+     * @param path    Path of the file
+     * @param rows    Number of rows
+     * @param columns Number of columns
+     * @throws IOException When the file can't be created
+     */
+    MappedRowStore(Path path, int rows, int columns) throws IOException {
+        this.rows = rows;
+        this.columns = columns;
+        long rowBytes = (long) Math.max(columns, 1) * Double.BYTES;
+        rowsPerChunk = (int) Math.max(1, MAX_CHUNK_BYTES / rowBytes);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        ByteBuffer header = ByteBuffer.allocate(BinaryMatrixFile.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(BinaryMatrixFile.MAGIC).put(BinaryMatrixFile.VERSION).put((byte) BinaryMatrixFile.ElementType.DOUBLE.ordinal())
+                .putShort((short) 0).putInt(rows).putInt(columns).flip();
+        while (header.hasRemaining()) channel.write(header);
+
+        chunks = new DoubleBuffer[(rows + rowsPerChunk - 1) / rowsPerChunk];
+        for (int i = 0; i < chunks.length; i++) {
+            long firstRow = (long) i * rowsPerChunk;
+            long chunkRows = Math.min(rowsPerChunk, rows - firstRow);
+            long start = BinaryMatrixFile.HEADER_SIZE + firstRow * columns * Double.BYTES;
+            chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE, start, chunkRows * columns * Double.BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+    }
+
+    int numberOfRows() {
+        return rows;
+    }
+
+    int numberOfColumns() {
+        return columns;
+    }
+
+    /**
+     * Copies rows [firstRow, endRow) into an array, row after row
+     */
+    void readRows(int firstRow, int endRow, double[] target) {
+        for (int row = firstRow; row < endRow; row++) {
+            chunks[row / rowsPerChunk].get((row % rowsPerChunk) * columns, target, (row - firstRow) * columns, columns);
+        }
+        bytesRead += (long) (endRow - firstRow) * columns * Double.BYTES;
+    }
+
+    /**
+     * Copies rows [firstRow, endRow) from an array, row after row, into the file
+     */
+    void writeRows(int firstRow, int endRow, double[] source) {
+        for (int row = firstRow; row < endRow; row++) {
+            chunks[row / rowsPerChunk].put((row % rowsPerChunk) * columns, source, (row - firstRow) * columns, columns);
+        }
+        bytesWritten += (long) (endRow - firstRow) * columns * Double.BYTES;
+    }
+
+    long getBytesRead() {
+        return bytesRead;
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -6,15 +6,59 @@ package linalg;
 public class MathHelper {
 
     /**
-     * Function to calculate the greatest common divisor
+     * Function to calculate the greatest common divisor with the binary gcd algorithm (Stein's algorithm).
+     * The result is never negative, except for gcd(Integer.MIN_VALUE, 0) and gcd(Integer.MIN_VALUE, Integer.MIN_VALUE),
+     * where 2^31 can't be represented and Integer.MIN_VALUE is returned.
      *
      * @param a First integer to calculate from
      * @param b Second integer to calculate from
      * @return Greatest common divisor
      */
     public static int gcd(int a, int b) {
+        // Integer.MIN_VALUE stays negative, but is read as 2^31 by the unsigned shifts below
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if (a == 0) return b;
         if (b == 0) return a;
-        return gcd(b, a % b);
+        // Common factors of two are removed once and added again at the end
+        int shift = Integer.numberOfTrailingZeros(a | b);
+        a >>>= Integer.numberOfTrailingZeros(a);
+        do {
+            b >>>= Integer.numberOfTrailingZeros(b);
+            // Both are odd now, their difference is even. min and abs avoid unpredictable branches
+            int difference = b - a;
+            a = Math.min(a, b);
+            b = Math.abs(difference);
+        } while (b != 0);
+        return a << shift;
+    }
+
+    /**
+     * Function to calculate the greatest common divisor of two longs with the binary gcd algorithm (Stein's algorithm).
+     * The result is never negative, except for gcd(Long.MIN_VALUE, 0) and gcd(Long.MIN_VALUE, Long.MIN_VALUE),
+     * where 2^63 can't be represented and Long.MIN_VALUE is returned.
+     *
+     * @param a First long to calculate from
+     * @param b Second long to calculate from
+     * @return Greatest common divisor
+     */
+    public static long gcd(long a, long b) {
+        // Long.MIN_VALUE stays negative, but is read as 2^63 by the unsigned shifts below
+        a = Math.abs(a);
+        b = Math.abs(b);
+        if (a == 0) return b;
+        if (b == 0) return a;
+        // Common factors of two are removed once and added again at the end
+        int shift = Long.numberOfTrailingZeros(a | b);
+        a >>>= Long.numberOfTrailingZeros(a);
+        do {
+            b >>>= Long.numberOfTrailingZeros(b);
+            // Both are odd now, their difference is even. min and abs avoid unpredictable branches
+            long difference = b - a;
+            a = Math.min(a, b);
+            b = Math.abs(difference);
+        } while (b != 0);
+        return a << shift;
     }
 
 }
@@ -0,0 +1,88 @@
+package linalg;
+
+import java.math.BigInteger;
+
+/**
+ * Receiver for the values of a matrix that is read element by element, row after row (for example by {@link CsvReader}).
+ * Every storage backend has its own builder, so a matrix can be created directly without going through SmartNums.
+ *
+ * @param <M> Type of the created matrix
+ */
+public interface MatrixBuilder<M> {
+
+    /**
+     * Adds an integer as the next value
+     *
+     * @param value The value
+     */
+    void addInteger(long value);
+
+    /**
+     * Adds a fraction as the next value. The fraction doesn't have to be canceled
+     *
+     * @param numerator   Numerator of the value
+     * @param denominator Denominator of the value
+     */
+    void addFraction(long numerator, long denominator);
+
+    /**
+     * Adds a decimal number as the next value, which is unscaled / 10^scale
+     *
+     * @param unscaled All digits of the number without the decimal point
+     * @param scale    Number of digits after the decimal point
+     */
+    void addDecimal(long unscaled, int scale);
+
+    /**
+     * Adds an integer or fraction that doesn't fit into longs as the next value
+     *
+     * @param numerator   Numerator of the value
+     * @param denominator Denominator of the value
+     */
+    void addBigFraction(BigInteger numerator, BigInteger denominator);
+
+    /**
+     * Adds a value that can only be represented as double as the next value
+     *
+     * @param value The value
+     */
+    void addDouble(double value);
+
+    /**
+     * Creates the matrix out of all added values
+     *
+     * @param rows    Number of rows
+     * @param columns Number of columns, rows * columns values have been added
+     * @return The matrix
+     */
+    M build(int rows, int columns);
+
+    /**
+     * Function to get a builder for a TwoDMatrix. The values become the same SmartNums as with {@link SmartNum#SmartNum(String)},
+     * except for integers outside the int range: they stay exact and become fractions like with {@link SmartNum#valueOf(long)}
+     * (or BigInteger fractions if they don't fit into a long), while SmartNum(String) turns them into doubles
+     *
+     * @return New builder
+     */
+    static MatrixBuilder<TwoDMatrix> forTwoDMatrix() {
+        return new MatrixBuilders.SmartNumBuilder();
+    }
+
+    /**
+     * Function to get a builder for a DenseDoubleMatrix
+     *
+     * @return New builder
+     */
+    static MatrixBuilder<DenseDoubleMatrix> forDenseDoubleMatrix() {
+        return new MatrixBuilders.DoubleBuilder();
+    }
+
+    /**
+     * Function to get a builder for a RationalMatrix. Values that can only be represented as double are rejected
+     *
+     * @return New builder
+     */
+    static MatrixBuilder<RationalMatrix> forRationalMatrix() {
+        return new MatrixBuilders.RationalBuilder();
+    }
+}
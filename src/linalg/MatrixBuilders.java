@@ -0,0 +1,215 @@
+package linalg;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Implementations of {@link MatrixBuilder} for the storage backends. All of them collect the values in growing arrays,
+ * because the dimensions are only known once everything has been read.
+ */
+final class MatrixBuilders {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long EXACT_DOUBLE_LIMIT = 1L << 53;
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[23];
+    private static final long[] LONG_POWERS_OF_TEN = new long[19];
+
+    static {
+        DOUBLE_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < DOUBLE_POWERS_OF_TEN.length; i++) DOUBLE_POWERS_OF_TEN[i] = DOUBLE_POWERS_OF_TEN[i - 1] * 10;
+        LONG_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+    }
+
+    private MatrixBuilders() {
+    }
+
+    /**
+     * Converts a decimal number into the nearest double, which is the same result as Double.parseDouble.
+     * If both the digits and the power of ten are exact doubles, a single division is correctly rounded.
+     *
+     * @param unscaled All digits of the number without the decimal point
+     * @param scale    Number of digits after the decimal point
+     * @return The nearest double
+     */
+    static double decimalToDouble(long unscaled, int scale) {
+        if (scale < DOUBLE_POWERS_OF_TEN.length && Math.abs(unscaled) <= EXACT_DOUBLE_LIMIT) {
+            return unscaled / DOUBLE_POWERS_OF_TEN[scale];
+        }
+        return new BigDecimal(BigInteger.valueOf(unscaled), scale).doubleValue();
+    }
+
+    /**
+     * Builder creating a TwoDMatrix of SmartNums
+     */
+    static final class SmartNumBuilder implements MatrixBuilder<TwoDMatrix> {
+
+        private SmartNum[] values = new SmartNum[INITIAL_CAPACITY];
+        private int size;
+
+        @Override
+        public void addInteger(long value) {
+            add(SmartNum.valueOf(value));
+        }
+
+        @Override
+        public void addFraction(long numerator, long denominator) {
+            add(SmartNum.valueOf(new Frac(numerator, denominator)));
+        }
+
+        @Override
+        public void addDecimal(long unscaled, int scale) {
+            add(SmartNum.valueOf(decimalToDouble(unscaled, scale)));
+        }
+
+        @Override
+        public void addBigFraction(BigInteger numerator, BigInteger denominator) {
+            add(SmartNum.valueOf(new Frac(numerator, denominator)));
+        }
+
+        @Override
+        public void addDouble(double value) {
+            add(SmartNum.valueOf(value));
+        }
+
+        @Override
+        public TwoDMatrix build(int rows, int columns) {
+            SmartNum[][] matrix = new SmartNum[rows][];
+            for (int row = 0; row < rows; row++) matrix[row] = Arrays.copyOfRange(values, row * columns, (row + 1) * columns);
+            return new TwoDMatrix(matrix);
+        }
+
+        private void add(SmartNum value) {
+            if (size == values.length) values = Arrays.copyOf(values, newCapacity(size));
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Builder creating a DenseDoubleMatrix, which wraps the collected array without copying it
+     */
+    static final class DoubleBuilder implements MatrixBuilder<DenseDoubleMatrix> {
+
+        private double[] values = new double[INITIAL_CAPACITY];
+        private int size;
+
+        @Override
+        public void addInteger(long value) {
+            add(value);
+        }
+
+        @Override
+        public void addFraction(long numerator, long denominator) {
+            if (denominator == 0) throw new ArithmeticException("Division by zero");
+            add((double) numerator / denominator);
+        }
+
+        @Override
+        public void addDecimal(long unscaled, int scale) {
+            add(decimalToDouble(unscaled, scale));
+        }
+
+        @Override
+        public void addBigFraction(BigInteger numerator, BigInteger denominator) {
+            add(new Frac(numerator, denominator).approx());
+        }
+
+        @Override
+        public void addDouble(double value) {
+            add(value);
+        }
+
+        @Override
+        public DenseDoubleMatrix build(int rows, int columns) {
+            return new DenseDoubleMatrix(values, rows, columns);
+        }
+
+        private void add(double value) {
+            if (size == values.length) values = Arrays.copyOf(values, newCapacity(size));
+            values[size++] = value;
+        }
+    }
+
+    /**
+     * Builder creating a RationalMatrix. Values that don't fit into longs are collected separately
+     */
+    static final class RationalBuilder implements MatrixBuilder<RationalMatrix> {
+
+        private long[] numerators = new long[INITIAL_CAPACITY];
+        private long[] denominators = new long[INITIAL_CAPACITY];
+        private int size;
+        private int[] bigIndices = new int[0];
+        private BigInteger[] bigNumerators = new BigInteger[0];
+        private BigInteger[] bigDenominators = new BigInteger[0];
+        private int bigSize;
+
+        @Override
+        public void addInteger(long value) {
+            add(value, 1);
+        }
+
+        @Override
+        public void addFraction(long numerator, long denominator) {
+            if (denominator == 0) throw new ArithmeticException("Division by zero");
+            add(numerator, denominator);
+        }
+
+        @Override
+        public void addDecimal(long unscaled, int scale) {
+            if (scale < LONG_POWERS_OF_TEN.length) {
+                add(unscaled, LONG_POWERS_OF_TEN[scale]);
+            } else {
+                addBigFraction(BigInteger.valueOf(unscaled), BigInteger.TEN.pow(scale));
+            }
+        }
+
+        @Override
+        public void addBigFraction(BigInteger numerator, BigInteger denominator) {
+            if (denominator.signum() == 0) throw new ArithmeticException("Division by zero");
+            if (bigSize == bigIndices.length) {
+                int capacity = Math.max(8, bigSize * 2);
+                bigIndices = Arrays.copyOf(bigIndices, capacity);
+                bigNumerators = Arrays.copyOf(bigNumerators, capacity);
+                bigDenominators = Arrays.copyOf(bigDenominators, capacity);
+            }
+            bigIndices[bigSize] = size;
+            bigNumerators[bigSize] = numerator;
+            bigDenominators[bigSize++] = denominator;
+            add(0, 1);
+        }
+
+        @Override
+        public void addDouble(double value) {
+            SmartNum exact = SmartNum.valueOf(value);
+            if (!exact.isExact()) throw new IllegalArgumentException("Only exact values can be stored in a RationalMatrix");
+            add(exact.getNumerator(), exact.getDenominator());
+        }
+
+        @Override
+        public RationalMatrix build(int rows, int columns) {
+            RationalMatrix matrix = new RationalMatrix(rows, columns);
+            for (int i = 0; i < size; i++) {
+                if (numerators[i] != 0) matrix.set(i / columns, i % columns, numerators[i], denominators[i]);
+            }
+            for (int i = 0; i < bigSize; i++) {
+                matrix.set(bigIndices[i] / columns, bigIndices[i] % columns, bigNumerators[i], bigDenominators[i]);
+            }
+            return matrix;
+        }
+
+        private void add(long numerator, long denominator) {
+            if (size == numerators.length) {
+                numerators = Arrays.copyOf(numerators, newCapacity(size));
+                denominators = Arrays.copyOf(denominators, numerators.length);
+            }
+            numerators[size] = numerator;
+            denominators[size++] = denominator;
+        }
+    }
+
+    private static int newCapacity(int size) {
+        if (size >= Integer.MAX_VALUE - 8) throw new OutOfMemoryError("Matrix is too large");
+        return (int) Math.min(Integer.MAX_VALUE - 8L, size * 2L);
+    }
+}
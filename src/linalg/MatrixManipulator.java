@@ -1,91 +1,247 @@
 package linalg;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Collection of manipulations for matrices
  */
 public class MatrixManipulator {
 
     /**
-     * Method to solve a system of linear equations represented as coefficient matrix via the gauss algorithm
+     * Method to solve a system of linear equations represented as augmented coefficient matrix via the gauss algorithm.
+     * The matrix is brought into reduced row echelon form in place by a {@link GaussEliminator}, using partial pivoting,
+     * and the solution is read off it. A matrix of doubles and integers is reduced with primitive doubles instead,
+     * like {@link #solveGauss(DenseDoubleMatrix)}.
+     *
+     * @param matrix Matrix to solve, will be changed
+     * @return Solution with its type, the particular solution and the null space basis
+     */
+    public static Solution solve(TwoDMatrix matrix) {
+        if (isDoubleSystem(matrix)) {
+            DenseEliminator eliminator = new DenseEliminator(new DenseDoubleMatrix(matrix));
+            copyBack(eliminator.eliminate(), matrix);
+            return Solution.of(matrix, eliminator.getPivotColumns());
+        }
+        GaussEliminator eliminator = new GaussEliminator(matrix);
+        TwoDMatrix reduced = eliminator.eliminate();
+        return Solution.of(reduced, eliminator.getPivotColumns(), eliminator.getTolerance());
+    }
+
+    /**
+     * Method to solve a system of linear equations like {@link #solve(TwoDMatrix)}, updating the rows in parallel
+     * on the common ForkJoinPool if the matrix has at least {@link GaussEliminator#DEFAULT_PARALLEL_THRESHOLD} rows.
+     * A matrix of doubles and integers is reduced with primitive doubles as well
+     *
+     * @param matrix Matrix to solve, will be changed
+     * @return Solution with its type, the particular solution and the null space basis
+     */
+    public static Solution solveParallel(TwoDMatrix matrix) {
+        if (isDoubleSystem(matrix)) {
+            DenseEliminator eliminator = parallelDenseEliminator(matrix);
+            copyBack(eliminator.eliminate(), matrix);
+            return Solution.of(matrix, eliminator.getPivotColumns());
+        }
+        GaussEliminator eliminator = new GaussEliminator(matrix, true, ForkJoinPool.commonPool(), GaussEliminator.DEFAULT_PARALLEL_THRESHOLD);
+        TwoDMatrix reduced = eliminator.eliminate();
+        return Solution.of(reduced, eliminator.getPivotColumns(), eliminator.getTolerance());
+    }
+
+    /**
+     * Method to solve an exact system of linear equations like {@link #solve(TwoDMatrix)}, but with the fraction-free
+     * elimination of a {@link BareissEliminator}. All intermediate values are integers, which mostly stay in longs,
+     * fractions are only created for the result
+     *
+     * @param matrix Matrix to solve, will be changed
+     * @return Solution with its type, the particular solution and the null space basis
+     * @throws IllegalArgumentException if the matrix contains values that aren't exact
+     */
+    public static Solution solveFractionFree(TwoDMatrix matrix) {
+        BareissEliminator eliminator = new BareissEliminator(matrix);
+        TwoDMatrix reduced = eliminator.eliminate();
+        return Solution.of(reduced, eliminator.getPivotColumns());
+    }
+
+    /**
+     * Method to solve an exact system of linear equations modulo many primes in parallel, see {@link ModularSolver}.
+     * This avoids growing fractions during the elimination and is the fastest exact way for large systems
+     *
+     * @param matrix Matrix to solve, isn't changed
+     * @return Solution with its type, the particular solution and the null space basis
+     * @throws IllegalArgumentException if the matrix contains values that aren't exact
+     */
+    public static Solution solveModular(TwoDMatrix matrix) {
+        return new ModularSolver().solve(matrix);
+    }
+
+    /**
+     * Method to solve a system of linear equations represented as coefficient matrix via the gauss algorithm.
+     * The matrix is brought into reduced row echelon form in place by a {@link GaussEliminator}, using partial pivoting.
+     * A matrix of doubles and integers is reduced with primitive doubles instead, like {@link #solveGauss(DenseDoubleMatrix)}.
+     * Rows that became zero are deleted. Use {@link #solve(TwoDMatrix)} to find out if and how many solutions there are.
      *
      * @param matrix Matrix to solve
-     * @return Solved matrix or null if the matrix has no solutions
+     * @return Solved matrix
      */
     public static TwoDMatrix solveGauss(TwoDMatrix matrix) {
-        try {
-            // maxDiag is the maximal number, over which can be iterated without leaving the matrix
-            int maxDiag = Math.min(matrix.numberOfColumns() - 1, matrix.numberOfRows());
-            int movingFactor = 0; // It is possible, that the pivot might be 0. That's why movingFactor
-            // Iterating over the matrix
-            for (int diagPosition = 0; diagPosition < maxDiag; diagPosition++) {
-
-                SmartNum pivot;
-
-                // Getting the pivot element which should be the first element in the given row that isn't 0
-                // TODO: Sort matrix before
-                do {
-                    pivot = matrix.get(diagPosition, diagPosition + movingFactor);
-                    if (pivot.isZero() && movingFactor < matrix.numberOfColumns() - 3) movingFactor++;
-                    else break;
-                } while (pivot.isZero());
-                // When the whole line is zero, continue
-                // TODO: Here should the line already been deleted
-                if (pivot.isZero()) continue;
-
-                // Iterating over all other rows
-                for (int row = 0; row < matrix.numberOfRows(); row++) {
-
-                    if (row == diagPosition) {
-                        continue;
-                    }
-
-                    // Factor which will be used to make all elements above and below the pivot zero
-                    SmartNum factor = new SmartNum(-1).mult(matrix.get(row, diagPosition + movingFactor)).divide(pivot);
-                    // Going over the row and adding the line of the pivot to the current with the factor
-                    for (int column = 0; column < matrix.numberOfColumns(); column++) {
-                        SmartNum currentManipulator = matrix.get(diagPosition, column).mult(factor);
-                        SmartNum target = matrix.get(row, column);
-                        target.add(currentManipulator);
-                        matrix.set(row, column, target);
-                    }
-
-                    // If the line is zero after the calculations, the line has to be deleted
-                    if (matrix.isRowZero(row)) {
-                        matrix.deleteRow(row);
-                        // As the matrix has changed, the algorithm has to be started again, to prevent issues
-                        return solveGauss(matrix);
-                    }
+        if (isDoubleSystem(matrix)) {
+            copyBack(new DenseEliminator(new DenseDoubleMatrix(matrix)).eliminate(), matrix);
+            return matrix;
+        }
+        return new GaussEliminator(matrix).eliminate();
+    }
+
+    /**
+     * Method to solve a system of linear equations represented as coefficient matrix via the gauss algorithm,
+     * updating the rows in parallel on the common ForkJoinPool if the matrix has at least
+     * {@link GaussEliminator#DEFAULT_PARALLEL_THRESHOLD} rows. The result is the same as the one of {@link #solveGauss(TwoDMatrix)},
+     * a matrix of doubles and integers is reduced with primitive doubles as well.
+     *
+     * @param matrix Matrix to solve
+     * @return Solved matrix
+     */
+    public static TwoDMatrix solveGaussParallel(TwoDMatrix matrix) {
+        if (isDoubleSystem(matrix)) {
+            copyBack(parallelDenseEliminator(matrix).eliminate(), matrix);
+            return matrix;
+        }
+        return new GaussEliminator(matrix, true, ForkJoinPool.commonPool(), GaussEliminator.DEFAULT_PARALLEL_THRESHOLD).eliminate();
+    }
+
+    /**
+     * Method to solve many independent systems of linear equations concurrently on an executor, see {@link BatchSolver}.
+     * Failures are reported in the result of the system instead of being printed
+     *
+     * @param matrices Matrices to solve, will be changed
+     * @param executor Executor the systems are solved on
+     * @return One result per matrix, in the order of the input
+     */
+    public static List<BatchSolver.Result> solveGaussBatch(Collection<TwoDMatrix> matrices, Executor executor) {
+        return new BatchSolver(executor).solveAll(matrices);
+    }
+
+    /**
+     * Method to solve a sparse system of linear equations via the gauss algorithm, see {@link SparseEliminator}.
+     * Only the elements that aren't zero are processed, the pivots are chosen to keep the fill-in small.
+     *
+     * @param matrix Matrix to solve, isn't changed
+     * @return Solved matrix
+     */
+    public static CsrMatrix solveGauss(CsrMatrix matrix) {
+        return new SparseEliminator(matrix).eliminate();
+    }
+
+    /**
+     * Method to solve a system of linear equations that doesn't fit into the heap, see {@link OutOfCoreEliminator}.
+     * The coefficient matrix is read from a binary file and the reduced matrix is written to another one,
+     * only two panels of rows are kept in the heap. The calculation is done with doubles.
+     *
+     * @param inputPath  Path of the binary file with the matrix to solve, see {@link BinaryMatrixFile}
+     * @param resultPath Path of the binary file the solved matrix is written to
+     * @param panelRows  Number of rows that are loaded into the heap at once
+     * @return Solved matrix, mapped from the result file
+     * @throws IOException When an error while reading or writing occurs
+     */
+    public static MappedMatrix solveGaussOutOfCore(String inputPath, String resultPath, int panelRows) throws IOException {
+        return new OutOfCoreEliminator(panelRows, true).eliminate(BinaryMatrixFile.open(inputPath), resultPath);
+    }
+
+    /**
+     * Method to solve a system of linear equations represented as double coefficient matrix via the gauss algorithm.
+     * Pivots are chosen by partial pivoting, elements whose magnitude is at most {@link OutOfCoreEliminator#RELATIVE_TOLERANCE}
+     * times the largest coefficient are treated as zero. The matrix is reduced in place, rows that became zero are removed
+     * at the end, but one row is kept.
+     *
+     * @param matrix Matrix to solve
+     * @return The same matrix in reduced row echelon form
+     */
+    public static DenseDoubleMatrix solveGauss(DenseDoubleMatrix matrix) {
+        return new DenseEliminator(matrix).eliminate();
+    }
+
+    /**
+     * Checks if a matrix contains doubles, but no fractions. Its reduced form only consists of doubles and integers,
+     * so it can be calculated with primitive doubles without boxing every intermediate value
+     */
+    private static boolean isDoubleSystem(TwoDMatrix matrix) {
+        boolean inexact = false;
+        for (int row = 0; row < matrix.numberOfRows(); row++) {
+            for (int column = 0; column < matrix.numberOfColumns(); column++) {
+                SmartNum value = matrix.get(row, column);
+                if (!value.isExact()) {
+                    inexact = true;
+                } else if (!value.isInteger()) {
+                    return false;
                 }
             }
+        }
+        return inexact;
+    }
+
+    /**
+     * Creates an eliminator for a copy of the matrix in doubles, which updates the rows on the common ForkJoinPool
+     */
+    private static DenseEliminator parallelDenseEliminator(TwoDMatrix matrix) {
+        return new DenseEliminator(new DenseDoubleMatrix(matrix), ForkJoinPool.commonPool(), GaussEliminator.DEFAULT_PARALLEL_THRESHOLD);
+    }
 
-            // Matrix has been brought as close to a "diagonal" form as possible
-            // Now divide all lines by the first element != 0, so it is prettier
-            for (int diagPosition = 0; diagPosition < maxDiag; diagPosition++) {
-                SmartNum pivot;
-                movingFactor = 0;
-
-                // Getting the pivot element
-                do {
-                    pivot = matrix.get(diagPosition, diagPosition + movingFactor);
-                    if (pivot.isZero() && movingFactor < matrix.numberOfColumns() - 3) movingFactor++;
-                    else break;
-                } while (pivot.isZero());
-                // If all elements are zero, continue (should not be possible)
-                if (pivot.isZero()) continue;
-
-                // Set pivot to 1 and divide all following numbers by the pivot
-                matrix.set(diagPosition, diagPosition + movingFactor, new SmartNum(1));
-                for (int column = diagPosition + movingFactor + 1; column < matrix.numberOfColumns(); column++) {
-                    matrix.set(diagPosition, column, matrix.get(diagPosition, column).divide(pivot));
+    /**
+     * Writes a reduced double matrix back into the matrix it was created from and deletes the rows it doesn't have anymore
+     */
+    private static void copyBack(DenseDoubleMatrix reduced, TwoDMatrix matrix) {
+        int columns = reduced.numberOfColumns();
+        double[] data = reduced.data();
+        boolean[] rowsToDelete = new boolean[matrix.numberOfRows()];
+        for (int row = 0; row < matrix.numberOfRows(); row++) {
+            if (row >= reduced.numberOfRows()) {
+                rowsToDelete[row] = true;
+                continue;
+            }
+            for (int column = 0; column < columns; column++) matrix.set(row, column, SmartNum.valueOf(data[row * columns + column]));
+        }
+        matrix.deleteRows(rowsToDelete);
+    }
+
+    /**
+     * Method to solve a system of linear equations represented as exact coefficient matrix via the gauss algorithm.
+     * The matrix is reduced in place, rows that became zero are removed at the end, but one row is kept.
+     *
+     * @param matrix Matrix to solve
+     * @return The same matrix in reduced row echelon form
+     */
+    public static RationalMatrix solveGauss(RationalMatrix matrix) {
+        int rows = matrix.numberOfRows();
+        int pivotRow = 0;
+        // The last column holds the results of the equations and can't contain a pivot
+        for (int column = 0; column < matrix.numberOfColumns() - 1 && pivotRow < rows; column++) {
+            int row = pivotRow;
+            while (row < rows && matrix.isZero(row, column)) row++;
+            // No pivot in this column, the variable is free
+            if (row == rows) continue;
+            matrix.swapRows(pivotRow, row);
+
+            // Divide the pivot row by the pivot, so the pivot is 1 and the factors for the other rows are just their values
+            matrix.scaleRow(pivotRow, matrix.getBigDenominator(pivotRow, column), matrix.getBigNumerator(pivotRow, column));
+            for (int other = 0; other < rows; other++) {
+                if (other == pivotRow || matrix.isZero(other, column)) continue;
+                if (matrix.isPromoted(other, column)) {
+                    matrix.addMultipleOfRow(other, pivotRow, matrix.getBigNumerator(other, column).negate(), matrix.getBigDenominator(other, column));
+                } else {
+                    matrix.addMultipleOfRow(other, pivotRow, -matrix.getNumerator(other, column), matrix.getDenominator(other, column));
                 }
             }
-            return matrix;
-        } catch (ArithmeticException e) {
-            // As there has been an Arithmetic Exception, the matrix has either no solutions or (more likely) this implementation
-            // of the algorithm has still some bugs
-            System.out.println("The matrix has no solutions!");
-            return null;
+            pivotRow++;
+        }
+
+        // All rows without pivot are at the bottom now, remove the ones that are zero. One row is kept,
+        // so the matrix still has its columns
+        for (int row = rows - 1; row >= pivotRow; row--) {
+            if (matrix.isRowZero(row) && matrix.numberOfRows() > 1) matrix.deleteRow(row);
         }
+        return matrix;
     }
 
 }
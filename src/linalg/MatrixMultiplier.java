@@ -0,0 +1,189 @@
+package linalg;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Matrix multiplication that splits the result into panels of rows, which are calculated in parallel on a ForkJoinPool.
+ * Double matrices are multiplied tile by tile, so the parts of both operands that are used together stay in the cache.
+ */
+public class MatrixMultiplier {
+
+    /**
+     * Tile size that is used if none is given
+     */
+    public static final int DEFAULT_TILE_SIZE = 64;
+
+    private final int tileSize;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for a multiplier with the default tile size, running on the common pool
+     */
+    public MatrixMultiplier() {
+        this(DEFAULT_TILE_SIZE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for a multiplier
+     *
+     * @param tileSize Number of rows and columns of a tile, also the number of rows of the smallest row panel
+     * @param pool     Pool the row panels are calculated on
+     * @throws IllegalArgumentException if the tile size isn't positive
+     */
+    public MatrixMultiplier(int tileSize, ForkJoinPool pool) {
+        if (tileSize < 1) throw new IllegalArgumentException("Tile size must be positive");
+        this.tileSize = tileSize;
+        this.pool = pool;
+    }
+
+    /**
+     * Multiplies two matrices. If both only contain exact values, the result is calculated exactly with SmartNums,
+     * otherwise with doubles.
+     *
+     * @param left  Left factor with n columns
+     * @param right Right factor with n rows
+     * @return The product left * right
+     * @throws IllegalArgumentException if the dimensions don't match
+     */
+    public TwoDMatrix multiply(TwoDMatrix left, TwoDMatrix right) {
+        checkDimensions(left.numberOfColumns(), right.numberOfRows());
+        if (left.isExact() && right.isExact()) {
+            SmartNum[][] result = new SmartNum[left.numberOfRows()][right.numberOfColumns()];
+            pool.invoke(new ExactPanel(left, right, result, 0, result.length));
+            return new TwoDMatrix(result);
+        }
+        return multiply(new DenseDoubleMatrix(left), new DenseDoubleMatrix(right)).toTwoDMatrix();
+    }
+
+    /**
+     * Multiplies two double matrices
+     *
+     * @param left  Left factor with n columns
+     * @param right Right factor with n rows
+     * @return The product left * right
+     * @throws IllegalArgumentException if the dimensions don't match
+     */
+    public DenseDoubleMatrix multiply(DenseDoubleMatrix left, DenseDoubleMatrix right) {
+        checkDimensions(left.numberOfColumns(), right.numberOfRows());
+        DenseDoubleMatrix result = new DenseDoubleMatrix(left.numberOfRows(), right.numberOfColumns());
+        pool.invoke(new DoublePanel(left, right, result, 0, left.numberOfRows()));
+        return result;
+    }
+
+    /**
+     * Adds the rows [firstRow, endRow) of the product of two row-major double arrays to c, tile by tile
+     *
+     * @param a        Left factor with inner columns
+     * @param b        Right factor with inner rows and the given number of columns
+     * @param c        Result with the given number of columns
+     * @param inner    Number of columns of a
+     * @param columns  Number of columns of b and c
+     * @param firstRow First row that is calculated
+     * @param endRow   Row after the last row that is calculated
+     * @param tileSize Number of rows and columns of a tile
+     */
+    static void multiplyRows(double[] a, double[] b, double[] c, int inner, int columns, int firstRow, int endRow, int tileSize) {
+        for (int innerStart = 0; innerStart < inner; innerStart += tileSize) {
+            int innerEnd = Math.min(innerStart + tileSize, inner);
+            for (int columnStart = 0; columnStart < columns; columnStart += tileSize) {
+                int columnEnd = Math.min(columnStart + tileSize, columns);
+                for (int row = firstRow; row < endRow; row++) {
+                    int cRow = row * columns;
+                    int aRow = row * inner;
+                    for (int k = innerStart; k < innerEnd; k++) {
+                        double factor = a[aRow + k];
+                        if (factor == 0d) continue;
+                        RowOps.axpy(factor, b, k * columns + columnStart, c, cRow + columnStart, columnEnd - columnStart);
+                    }
+                }
+            }
+        }
+    }
+
+    static void checkDimensions(int leftColumns, int rightRows) {
+        if (leftColumns != rightRows) {
+            throw new IllegalArgumentException("Left matrix has " + leftColumns + " columns, but right matrix has " + rightRows + " rows");
+        }
+    }
+
+    /**
+     * Task calculating the rows [firstRow, endRow) of a double product. Larger panels are split in halves
+     */
+    private class DoublePanel extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final DenseDoubleMatrix left;
+        private final DenseDoubleMatrix right;
+        private final DenseDoubleMatrix result;
+        private final int firstRow;
+        private final int endRow;
+
+        DoublePanel(DenseDoubleMatrix left, DenseDoubleMatrix right, DenseDoubleMatrix result, int firstRow, int endRow) {
+            this.left = left;
+            this.right = right;
+            this.result = result;
+            this.firstRow = firstRow;
+            this.endRow = endRow;
+        }
+
+        @Override
+        protected void compute() {
+            if (endRow - firstRow > tileSize) {
+                int middle = (firstRow + endRow) >>> 1;
+                invokeAll(new DoublePanel(left, right, result, firstRow, middle), new DoublePanel(left, right, result, middle, endRow));
+                return;
+            }
+            multiplyRows(left.data(), right.data(), result.data(), left.numberOfColumns(), right.numberOfColumns(), firstRow, endRow, tileSize);
+        }
+    }
+
+    /**
+     * Task calculating the rows [firstRow, endRow) of an exact product. Larger panels are split in halves
+     */
+    private class ExactPanel extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TwoDMatrix left;
+        private final TwoDMatrix right;
+        private final SmartNum[][] result;
+        private final int firstRow;
+        private final int endRow;
+
+        ExactPanel(TwoDMatrix left, TwoDMatrix right, SmartNum[][] result, int firstRow, int endRow) {
+            this.left = left;
+            this.right = right;
+            this.result = result;
+            this.firstRow = firstRow;
+            this.endRow = endRow;
+        }
+
+        @Override
+        protected void compute() {
+            // Exact calculations are expensive, so smaller panels are enough to keep all threads busy
+            int panelSize = Math.max(1, tileSize / 8);
+            if (endRow - firstRow > panelSize) {
+                int middle = (firstRow + endRow) >>> 1;
+                invokeAll(new ExactPanel(left, right, result, firstRow, middle), new ExactPanel(left, right, result, middle, endRow));
+                return;
+            }
+            int inner = left.numberOfColumns();
+            int columns = right.numberOfColumns();
+            for (int row = firstRow; row < endRow; row++) {
+                SmartNum[] resultRow = result[row];
+                Arrays.fill(resultRow, SmartNum.ZERO);
+                for (int k = 0; k < inner; k++) {
+                    SmartNum factor = left.get(row, k);
+                    if (factor.isZero()) continue;
+                    for (int column = 0; column < columns; column++) {
+                        SmartNum value = right.get(k, column);
+                        if (!value.isZero()) resultRow[column] = resultRow[column].add(factor.mult(value));
+                    }
+                }
+            }
+        }
+    }
+}
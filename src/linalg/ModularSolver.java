@@ -0,0 +1,410 @@
+package linalg;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Exact solver for systems of linear equations that calculates modulo many 31-bit primes instead of with fractions.
+ * <p>
+ * Rows with fractions are multiplied by the least common multiple of their denominators, so the system has integer
+ * coefficients. For every prime the reduced row echelon form is calculated modulo the prime with long arithmetic,
+ * the primes of a batch run in parallel. The images of all primes with the same pivot columns are combined with the
+ * Chinese Remainder Theorem and the fractions are found by rational reconstruction. Primes that divide certain minors
+ * give images with fewer or later pivots, these "unlucky" primes are recognized by their pivot columns and left out.
+ * The reconstructed solution is verified with exact integer arithmetic, if that fails more primes are added.
+ * <p>
+ * Inconsistent systems are detected modulo the primes as well, but confirmed by a {@link BareissEliminator},
+ * as the images alone can't prove them.
+ */
+public class ModularSolver {
+
+    private static final int MIN_BATCH = 4;
+    private static final List<Integer> PRIMES = new ArrayList<>();
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for a solver running the primes on the common ForkJoinPool
+     */
+    public ModularSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for a solver
+     *
+     * @param pool Pool the eliminations modulo the primes are run on
+     */
+    public ModularSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Solves a system of linear equations exactly
+     *
+     * @param matrix Augmented coefficient matrix, is not changed
+     * @return Solution with its type, the particular solution and the null space basis
+     * @throws IllegalArgumentException if the matrix contains values that aren't exact
+     */
+    public Solution solve(TwoDMatrix matrix) {
+        if (!matrix.isExact()) throw new IllegalArgumentException("Modular solving needs exact values");
+        BigInteger[][] coefficients = integerRows(matrix);
+        int columns = matrix.numberOfColumns();
+
+        List<Image> images = new ArrayList<>();
+        int primesUsed = 0;
+        BigInteger modulus = BigInteger.ONE;
+        BigInteger[][] residues = null;
+        while (true) {
+            int batch = Math.max(Math.max(MIN_BATCH, pool.getParallelism()), primesUsed / 2);
+            List<Image> batchImages = reduceModPrimes(coefficients, columns, primesUsed, batch);
+            primesUsed += batch;
+
+            // Keep only the images with the most pivots and, among those, the earliest pivot columns
+            for (Image image : batchImages) {
+                int comparison = images.isEmpty() ? 1 : compare(image.pivotColumns, images.get(0).pivotColumns);
+                if (comparison > 0) {
+                    images.clear();
+                    modulus = BigInteger.ONE;
+                    residues = null;
+                }
+                if (comparison >= 0) images.add(image);
+            }
+            int[] pivotColumns = images.get(0).pivotColumns;
+            if (pivotColumns.length > 0 && pivotColumns[pivotColumns.length - 1] == columns - 1) {
+                return confirmInconsistent(matrix);
+            }
+            // The pivot columns are unit columns, only the other ones have to be reconstructed
+            int[] otherColumns = otherColumns(pivotColumns, columns);
+
+            // Combine the new images with the ones before
+            for (Image image : images) {
+                if (image.combined) continue;
+                residues = combine(residues, modulus, image, otherColumns);
+                modulus = modulus.multiply(BigInteger.valueOf(image.prime));
+                image.combined = true;
+            }
+
+            Frac[][] reduced = reconstruct(residues, modulus);
+            if (reduced != null && verify(coefficients, reduced, pivotColumns, otherColumns)) {
+                return Solution.of(toMatrix(reduced, pivotColumns, otherColumns, columns), pivotColumns);
+            }
+        }
+    }
+
+    /**
+     * Multiplies every row with the least common multiple of its denominators
+     */
+    private static BigInteger[][] integerRows(TwoDMatrix matrix) {
+        int rows = matrix.numberOfRows();
+        int columns = matrix.numberOfColumns();
+        BigInteger[][] result = new BigInteger[rows][columns];
+        Frac[] fractions = new Frac[columns];
+        for (int row = 0; row < rows; row++) {
+            BigInteger multiple = BigInteger.ONE;
+            for (int column = 0; column < columns; column++) {
+                fractions[column] = matrix.get(row, column).toFrac();
+                BigInteger denominator = fractions[column].getBigDenominator();
+                multiple = multiple.divide(multiple.gcd(denominator)).multiply(denominator);
+            }
+            for (int column = 0; column < columns; column++) {
+                BigInteger factor = multiple.divide(fractions[column].getBigDenominator());
+                result[row][column] = factor.multiply(fractions[column].getBigNumerator());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculates the images modulo the primes [firstPrime, firstPrime + count) in parallel
+     */
+    private List<Image> reduceModPrimes(BigInteger[][] coefficients, int columns, int firstPrime, int count) {
+        List<Callable<Image>> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int prime = prime(firstPrime + i);
+            tasks.add(() -> reduceModPrime(coefficients, columns, prime));
+        }
+        List<Image> images = new ArrayList<>(count);
+        try {
+            for (Future<Image> future : pool.invokeAll(tasks)) images.add(future.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while solving", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Solving modulo a prime failed", e.getCause());
+        }
+        return images;
+    }
+
+    /**
+     * Gauss-Jordan elimination modulo a prime. All values are below 2^31, so products fit into longs.
+     * The last column may contain a pivot here, which means the system is inconsistent modulo the prime
+     */
+    private static Image reduceModPrime(BigInteger[][] coefficients, int columns, int prime) {
+        int rows = coefficients.length;
+        BigInteger bigPrime = BigInteger.valueOf(prime);
+        long[][] values = new long[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                BigInteger value = coefficients[row][column];
+                values[row][column] = value.bitLength() < 64 ? Math.floorMod(value.longValue(), prime) : value.mod(bigPrime).longValue();
+            }
+        }
+
+        int[] pivotColumns = new int[Math.min(rows, columns)];
+        int pivotRow = 0;
+        for (int column = 0; column < columns && pivotRow < rows; column++) {
+            int row = pivotRow;
+            while (row < rows && values[row][column] == 0) row++;
+            if (row == rows) continue;
+            long[] temp = values[pivotRow];
+            values[pivotRow] = values[row];
+            values[row] = temp;
+
+            long[] pivot = values[pivotRow];
+            long inverse = inverse(pivot[column], prime);
+            for (int current = column; current < columns; current++) pivot[current] = pivot[current] * inverse % prime;
+            for (int other = 0; other < rows; other++) {
+                long[] target = values[other];
+                long factor = target[column];
+                if (other == pivotRow || factor == 0) continue;
+                // Subtracting is the same as adding prime - factor, which keeps all values positive
+                long negated = prime - factor;
+                for (int current = column; current < columns; current++) {
+                    target[current] = (target[current] + negated * pivot[current]) % prime;
+                }
+            }
+            pivotColumns[pivotRow++] = column;
+        }
+        return new Image(prime, Arrays.copyOf(pivotColumns, pivotRow), Arrays.copyOf(values, pivotRow));
+    }
+
+    /**
+     * Compares the pivot columns of two images: more pivots are better, then the earlier pivot columns
+     *
+     * @return Positive if the first one is better, 0 if both are the same
+     */
+    private static int compare(int[] first, int[] second) {
+        if (first.length != second.length) return first.length - second.length;
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] != second[i]) return second[i] - first[i];
+        }
+        return 0;
+    }
+
+    /**
+     * Function to get the columns without pivot, which include the last column
+     */
+    private static int[] otherColumns(int[] pivotColumns, int columns) {
+        int[] result = new int[columns - pivotColumns.length];
+        int count = 0;
+        int next = 0;
+        for (int column = 0; column < columns; column++) {
+            if (next < pivotColumns.length && pivotColumns[next] == column) {
+                next++;
+            } else {
+                result[count++] = column;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the image of a prime to the residues modulo the product of the primes before (Chinese Remainder Theorem).
+     * residues[row][i] belongs to the column otherColumns[i]
+     */
+    private static BigInteger[][] combine(BigInteger[][] residues, BigInteger modulus, Image image, int[] otherColumns) {
+        int rank = image.rows.length;
+        BigInteger prime = BigInteger.valueOf(image.prime);
+        if (residues == null) {
+            residues = new BigInteger[rank][otherColumns.length];
+            for (int row = 0; row < rank; row++) {
+                for (int i = 0; i < otherColumns.length; i++) residues[row][i] = BigInteger.valueOf(image.rows[row][otherColumns[i]]);
+            }
+            return residues;
+        }
+        // x = r + m * ((v - r) * m^-1 mod p), with the inverse of the old modulus m modulo the new prime p
+        long modulusInverse = inverse(modulus.mod(prime).longValue(), image.prime);
+        for (int row = 0; row < rank; row++) {
+            for (int i = 0; i < otherColumns.length; i++) {
+                BigInteger residue = residues[row][i];
+                long difference = Math.floorMod(image.rows[row][otherColumns[i]] - residue.mod(prime).longValue(), image.prime);
+                long step = difference * modulusInverse % image.prime;
+                if (step != 0) residues[row][i] = residue.add(modulus.multiply(BigInteger.valueOf(step)));
+            }
+        }
+        return residues;
+    }
+
+    /**
+     * Finds the fraction of every residue by rational reconstruction
+     *
+     * @return Fractions or null if a residue can't be reconstructed yet
+     */
+    private static Frac[][] reconstruct(BigInteger[][] residues, BigInteger modulus) {
+        BigInteger bound = modulus.shiftRight(1).sqrt();
+        Frac[][] result = new Frac[residues.length][];
+        for (int row = 0; row < residues.length; row++) {
+            result[row] = new Frac[residues[row].length];
+            for (int column = 0; column < residues[row].length; column++) {
+                Frac value = reconstruct(residues[row][column], modulus, bound);
+                if (value == null) return null;
+                result[row][column] = value;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Searches n/d with |n|, d at most bound and n = residue * d modulo the modulus, with the extended Euclidean algorithm
+     * (Wang's algorithm). The fraction is unique, if it exists
+     */
+    private static Frac reconstruct(BigInteger residue, BigInteger modulus, BigInteger bound) {
+        if (residue.compareTo(bound) <= 0) return new Frac(residue, BigInteger.ONE);
+        BigInteger previousRemainder = modulus;
+        BigInteger remainder = residue;
+        BigInteger previousCoefficient = BigInteger.ZERO;
+        BigInteger coefficient = BigInteger.ONE;
+        while (remainder.compareTo(bound) > 0) {
+            BigInteger quotient = previousRemainder.divide(remainder);
+            BigInteger nextRemainder = previousRemainder.subtract(quotient.multiply(remainder));
+            previousRemainder = remainder;
+            remainder = nextRemainder;
+            BigInteger nextCoefficient = previousCoefficient.subtract(quotient.multiply(coefficient));
+            previousCoefficient = coefficient;
+            coefficient = nextCoefficient;
+        }
+        if (coefficient.abs().compareTo(bound) > 0 || !remainder.gcd(coefficient).equals(BigInteger.ONE)) return null;
+        return new Frac(remainder, coefficient);
+    }
+
+    /**
+     * Checks exactly that the particular solution solves the integer system and every null space vector solves
+     * the homogeneous one. Together with the rank, which can't be larger than the one of any image, this proves the result
+     */
+    private static boolean verify(BigInteger[][] coefficients, Frac[][] reduced, int[] pivotColumns, int[] otherColumns) {
+        // The last column is the last of the other columns, the ones before are the free variables
+        int last = otherColumns.length - 1;
+        int variables = otherColumns[last];
+
+        Frac[] particular = new Frac[variables];
+        for (int row = 0; row < pivotColumns.length; row++) particular[pivotColumns[row]] = reduced[row][last];
+        if (!satisfies(coefficients, particular, false)) return false;
+
+        for (int i = 0; i < last; i++) {
+            Frac[] vector = new Frac[variables];
+            vector[otherColumns[i]] = new Frac(1);
+            for (int row = 0; row < pivotColumns.length; row++) vector[pivotColumns[row]] = reduced[row][i].clone().mult(-1);
+            if (!satisfies(coefficients, vector, true)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Checks A * x = b (or A * x = 0 if homogeneous) after multiplying x by the common multiple of its denominators
+     *
+     * @param vector Value of every variable, null for 0
+     */
+    private static boolean satisfies(BigInteger[][] coefficients, Frac[] vector, boolean homogeneous) {
+        int variables = vector.length;
+        BigInteger multiple = BigInteger.ONE;
+        for (Frac value : vector) {
+            if (value == null) continue;
+            BigInteger denominator = value.getBigDenominator();
+            multiple = multiple.divide(multiple.gcd(denominator)).multiply(denominator);
+        }
+        BigInteger[] scaled = new BigInteger[variables];
+        for (int i = 0; i < variables; i++) {
+            if (vector[i] != null && !vector[i].isZero()) {
+                scaled[i] = vector[i].getBigNumerator().multiply(multiple.divide(vector[i].getBigDenominator()));
+            }
+        }
+        for (BigInteger[] row : coefficients) {
+            BigInteger sum = BigInteger.ZERO;
+            for (int i = 0; i < variables; i++) {
+                if (scaled[i] != null && row[i].signum() != 0) sum = sum.add(row[i].multiply(scaled[i]));
+            }
+            BigInteger expected = homogeneous ? BigInteger.ZERO : row[variables].multiply(multiple);
+            if (!sum.equals(expected)) return false;
+        }
+        return true;
+    }
+
+    private static TwoDMatrix toMatrix(Frac[][] reduced, int[] pivotColumns, int[] otherColumns, int columns) {
+        // A matrix of rank 0 keeps one zero row, like the result of the eliminators
+        SmartNum[][] values = new SmartNum[Math.max(1, pivotColumns.length)][columns];
+        for (SmartNum[] row : values) Arrays.fill(row, SmartNum.ZERO);
+        for (int row = 0; row < pivotColumns.length; row++) {
+            values[row][pivotColumns[row]] = SmartNum.ONE;
+            for (int i = 0; i < otherColumns.length; i++) values[row][otherColumns[i]] = SmartNum.valueOf(reduced[row][i]);
+        }
+        return new TwoDMatrix(values);
+    }
+
+    private static Solution confirmInconsistent(TwoDMatrix matrix) {
+        SmartNum[][] copy = new SmartNum[matrix.numberOfRows()][matrix.numberOfColumns()];
+        for (int row = 0; row < copy.length; row++) {
+            for (int column = 0; column < copy[row].length; column++) copy[row][column] = matrix.get(row, column);
+        }
+        BareissEliminator eliminator = new BareissEliminator(new TwoDMatrix(copy));
+        return Solution.of(eliminator.eliminate(), eliminator.getPivotColumns());
+    }
+
+    /**
+     * Calculates the inverse of a value modulo a prime with the extended Euclidean algorithm
+     */
+    private static long inverse(long value, long prime) {
+        long previousRemainder = prime;
+        long remainder = value;
+        long previousCoefficient = 0;
+        long coefficient = 1;
+        while (remainder != 0) {
+            long quotient = previousRemainder / remainder;
+            long nextRemainder = previousRemainder - quotient * remainder;
+            previousRemainder = remainder;
+            remainder = nextRemainder;
+            long nextCoefficient = previousCoefficient - quotient * coefficient;
+            previousCoefficient = coefficient;
+            coefficient = nextCoefficient;
+        }
+        return Math.floorMod(previousCoefficient, prime);
+    }
+
+    /**
+     * Function to get the primes below 2^31 in descending order, they are searched once and kept
+     *
+     * @param index Position of the prime, 0 is the largest
+     * @return The prime
+     */
+    private static synchronized int prime(int index) {
+        int candidate = PRIMES.isEmpty() ? Integer.MAX_VALUE : PRIMES.get(PRIMES.size() - 1) - 2;
+        while (PRIMES.size() <= index) {
+            if (BigInteger.valueOf(candidate).isProbablePrime(40)) PRIMES.add(candidate);
+            candidate -= 2;
+        }
+        return PRIMES.get(index);
+    }
+
+    /**
+     * Reduced row echelon form modulo one prime, only the rows with pivots are kept
+     */
+    private static final class Image {
+
+        private final int prime;
+        private final int[] pivotColumns;
+        private final long[][] rows;
+        private boolean combined;
+
+        Image(int prime, int[] pivotColumns, long[][] rows) {
+            this.prime = prime;
+            this.pivotColumns = pivotColumns;
+            this.rows = rows;
+        }
+    }
+}
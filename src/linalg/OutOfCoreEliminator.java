@@ -0,0 +1,303 @@
+package linalg;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Gauss-Jordan elimination for double matrices that don't fit into the heap.
+ * The matrix is copied into a memory-mapped work file and only two panels of rows are kept on the heap at once.
+ * <p>
+ * The elimination runs in two passes over the panels. The forward pass is left-looking: a panel is loaded,
+ * all pivot rows of the panels above are streamed through it, then its own rows are eliminated and it is written back.
+ * As the rows below aren't known yet, the pivot of a row is the element of the largest magnitude in the row itself
+ * and every row is divided by its pivot. The backward pass runs from the last panel to the first and removes the
+ * entries above the pivots, streaming the finished panels below. At the end the rows are written to the result file
+ * sorted by their pivot columns, which gives the reduced row echelon form. Rows that became zero are left out.
+ * If the coefficient matrix doesn't have full rank, the pivot columns are chosen for stability and may differ from the ones
+ * of {@link GaussEliminator}. Every pivot column is still a unit column, so the solutions can be read off the same way.
+ */
+public class OutOfCoreEliminator {
+
+    /**
+     * Number of rows of a panel that is used if none is given
+     */
+    public static final int DEFAULT_PANEL_ROWS = 256;
+
+    /**
+     * Elements whose magnitude is below this fraction of the largest element of their original row are treated as zero
+     */
+    public static final double RELATIVE_TOLERANCE = 1e-12;
+
+    private final int panelRows;
+    private final boolean augmented;
+    private int[] pivotColumns;
+    private int rank = -1;
+    private long bytesRead;
+    private long bytesWritten;
+
+    /**
+     * Constructor for an eliminator working on augmented coefficient matrices with the default panel size
+     */
+    public OutOfCoreEliminator() {
+        this(DEFAULT_PANEL_ROWS, true);
+    }
+
+    /**
+     * Constructor for an eliminator. Two panels of panelRows * columns doubles have to fit into the heap
+     *
+     * @param panelRows Number of rows that are loaded into the heap at once
+     * @param augmented True if the last column holds the results of the equations and can't contain a pivot
+     * @throws IllegalArgumentException if the panel size isn't positive
+     */
+    public OutOfCoreEliminator(int panelRows, boolean augmented) {
+        if (panelRows < 1) throw new IllegalArgumentException("Panel size must be positive");
+        this.panelRows = panelRows;
+        this.augmented = augmented;
+    }
+
+    /**
+     * Brings a matrix into reduced row echelon form. The input isn't changed, the work file is placed next to the result
+     * and deleted at the end
+     *
+     * @param input      Matrix to reduce, for example opened with {@link BinaryMatrixFile#open(String)}
+     * @param resultPath Path of the binary file the reduced matrix is written to, an existing file is overwritten
+     * @return The reduced matrix, mapped from the result file
+     * @throws IOException           When an error while reading or writing occurs
+     * @throws IllegalStateException if the elimination has already been run
+     */
+    public MappedMatrix eliminate(MappedMatrix input, String resultPath) throws IOException {
+        if (rank >= 0) throw new IllegalStateException("The matrix has already been eliminated");
+        Path result = Path.of(resultPath).toAbsolutePath();
+        Path work = Files.createTempFile(result.getParent(), "linalg", ".work");
+        try (MappedRowStore store = new MappedRowStore(work, input.numberOfRows(), input.numberOfColumns())) {
+            double[] tolerances = copyInput(input, store);
+            pivotColumns = new int[store.numberOfRows()];
+            forwardPass(store, tolerances);
+            backwardPass(store);
+            writeResult(store, tolerances, resultPath);
+            bytesRead = store.getBytesRead();
+            bytesWritten = store.getBytesWritten();
+        } finally {
+            Files.deleteIfExists(work);
+        }
+        return BinaryMatrixFile.open(resultPath);
+    }
+
+    /**
+     * Function to get the rank of the coefficient part of the matrix
+     *
+     * @return Rank, which is the number of pivots
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public int getRank() {
+        checkEliminated();
+        return rank;
+    }
+
+    /**
+     * Function to get the number of bytes that have been copied from the work file into the heap.
+     * The input and the result file aren't included
+     *
+     * @return Number of bytes
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public long getBytesRead() {
+        checkEliminated();
+        return bytesRead;
+    }
+
+    /**
+     * Function to get the number of bytes that have been written to the work file
+     *
+     * @return Number of bytes
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public long getBytesWritten() {
+        checkEliminated();
+        return bytesWritten;
+    }
+
+    /**
+     * Copies the input into the work file panel by panel
+     *
+     * @return Tolerance for every row, based on its largest coefficient
+     */
+    private double[] copyInput(MappedMatrix input, MappedRowStore store) {
+        int rows = store.numberOfRows();
+        int columns = store.numberOfColumns();
+        int coefficientColumns = coefficientColumns(columns);
+        double[] tolerances = new double[rows];
+        double[] panel = new double[panelRows * columns];
+        for (int first = 0; first < rows; first += panelRows) {
+            int end = Math.min(first + panelRows, rows);
+            for (int row = first; row < end; row++) {
+                int offset = (row - first) * columns;
+                double largest = 0;
+                for (int column = 0; column < columns; column++) {
+                    double value = input.getDouble(row, column);
+                    panel[offset + column] = value;
+                    if (column < coefficientColumns) largest = Math.max(largest, Math.abs(value));
+                }
+                tolerances[row] = largest * RELATIVE_TOLERANCE;
+            }
+            store.writeRows(first, end, panel);
+        }
+        return tolerances;
+    }
+
+    private void forwardPass(MappedRowStore store, double[] tolerances) {
+        int rows = store.numberOfRows();
+        int columns = store.numberOfColumns();
+        int coefficientColumns = coefficientColumns(columns);
+        double[] panel = new double[panelRows * columns];
+        double[] streamed = new double[panelRows * columns];
+        for (int first = 0; first < rows; first += panelRows) {
+            int end = Math.min(first + panelRows, rows);
+            store.readRows(first, end, panel);
+            // Left-looking: apply all pivot rows above, in their order
+            for (int streamedFirst = 0; streamedFirst < first; streamedFirst += panelRows) {
+                int streamedEnd = Math.min(streamedFirst + panelRows, first);
+                store.readRows(streamedFirst, streamedEnd, streamed);
+                for (int pivotRow = streamedFirst; pivotRow < streamedEnd; pivotRow++) {
+                    if (pivotColumns[pivotRow] < 0) continue;
+                    eliminate(panel, 0, end - first, streamed, (pivotRow - streamedFirst) * columns, pivotColumns[pivotRow], columns);
+                }
+            }
+            // Eliminate inside the panel
+            for (int row = first; row < end; row++) {
+                int offset = (row - first) * columns;
+                int pivotColumn = findPivotColumn(panel, offset, coefficientColumns, tolerances[row]);
+                pivotColumns[row] = pivotColumn;
+                if (pivotColumn < 0) {
+                    // Remove the rounding errors, so the row is exactly zero
+                    for (int column = 0; column < coefficientColumns; column++) panel[offset + column] = 0;
+                    continue;
+                }
+                double pivot = panel[offset + pivotColumn];
+                for (int column = 0; column < columns; column++) panel[offset + column] /= pivot;
+                panel[offset + pivotColumn] = 1;
+                eliminate(panel, row - first + 1, end - first, panel, offset, pivotColumn, columns);
+            }
+            store.writeRows(first, end, panel);
+        }
+    }
+
+    private void backwardPass(MappedRowStore store) {
+        int rows = store.numberOfRows();
+        int columns = store.numberOfColumns();
+        double[] panel = new double[panelRows * columns];
+        double[] streamed = new double[panelRows * columns];
+        int lastFirst = (rows - 1) / panelRows * panelRows;
+        for (int first = lastFirst; first >= 0; first -= panelRows) {
+            int end = Math.min(first + panelRows, rows);
+            store.readRows(first, end, panel);
+            // The panels below are already reduced, so their rows can be applied in any order
+            for (int streamedFirst = end; streamedFirst < rows; streamedFirst += panelRows) {
+                int streamedEnd = Math.min(streamedFirst + panelRows, rows);
+                store.readRows(streamedFirst, streamedEnd, streamed);
+                for (int pivotRow = streamedFirst; pivotRow < streamedEnd; pivotRow++) {
+                    if (pivotColumns[pivotRow] < 0) continue;
+                    eliminate(panel, 0, end - first, streamed, (pivotRow - streamedFirst) * columns, pivotColumns[pivotRow], columns);
+                }
+            }
+            for (int pivotRow = end - 1; pivotRow > first; pivotRow--) {
+                if (pivotColumns[pivotRow] < 0) continue;
+                eliminate(panel, 0, pivotRow - first, panel, (pivotRow - first) * columns, pivotColumns[pivotRow], columns);
+            }
+            store.writeRows(first, end, panel);
+        }
+    }
+
+    /**
+     * Writes the rows sorted by pivot column into the result file. Rows without pivot follow, if they aren't zero
+     */
+    private void writeResult(MappedRowStore store, double[] tolerances, String resultPath) throws IOException {
+        int rows = store.numberOfRows();
+        int columns = store.numberOfColumns();
+        int[] rowOfPivot = new int[columns];
+        Arrays.fill(rowOfPivot, -1);
+        rank = 0;
+        for (int row = 0; row < rows; row++) {
+            if (pivotColumns[row] >= 0) {
+                rowOfPivot[pivotColumns[row]] = row;
+                rank++;
+            }
+        }
+
+        double[] values = new double[columns];
+        int[] remaining = new int[rows - rank];
+        int remainingCount = 0;
+        for (int row = 0; row < rows; row++) {
+            if (pivotColumns[row] >= 0) continue;
+            store.readRows(row, row + 1, values);
+            boolean zero = true;
+            for (int column = coefficientColumns(columns); column < columns; column++) {
+                if (Math.abs(values[column]) > tolerances[row]) zero = false;
+            }
+            if (!zero) remaining[remainingCount++] = row;
+        }
+        // Keep one row, so the matrix still has its columns
+        if (rank + remainingCount == 0 && rows > 0) remaining[remainingCount++] = 0;
+
+        try (BinaryMatrixFile.Writer writer = new BinaryMatrixFile.Writer(resultPath, BinaryMatrixFile.ElementType.DOUBLE, rank + remainingCount, columns)) {
+            for (int column = 0; column < columns; column++) {
+                if (rowOfPivot[column] >= 0) writeRow(store, rowOfPivot[column], values, writer);
+            }
+            for (int i = 0; i < remainingCount; i++) writeRow(store, remaining[i], values, writer);
+        }
+    }
+
+    private static void writeRow(MappedRowStore store, int row, double[] values, BinaryMatrixFile.Writer writer) throws IOException {
+        store.readRows(row, row + 1, values);
+        for (double value : values) writer.putDouble(value);
+    }
+
+    /**
+     * Subtracts a normalized pivot row from the rows [firstRow, endRow) of a panel, so they become zero in the pivot column
+     *
+     * @param panel       Panel containing the rows to change
+     * @param firstRow    First row inside the panel
+     * @param endRow      End of the rows inside the panel (exclusive)
+     * @param source      Array containing the pivot row
+     * @param pivotOffset Start of the pivot row in source
+     * @param pivotColumn Column of the pivot, which is 1
+     * @param columns     Length of the rows
+     */
+    private static void eliminate(double[] panel, int firstRow, int endRow, double[] source, int pivotOffset, int pivotColumn, int columns) {
+        for (int row = firstRow; row < endRow; row++) {
+            int offset = row * columns;
+            double factor = panel[offset + pivotColumn];
+            if (factor == 0) continue;
+            RowOps.axpy(-factor, source, pivotOffset, panel, offset, columns);
+            panel[offset + pivotColumn] = 0;
+        }
+    }
+
+    /**
+     * Searches the element of the largest magnitude among the coefficients of a row
+     *
+     * @return Column of the pivot or -1 if all coefficients are below the tolerance
+     */
+    private static int findPivotColumn(double[] panel, int offset, int coefficientColumns, double tolerance) {
+        int pivotColumn = -1;
+        double largest = tolerance;
+        for (int column = 0; column < coefficientColumns; column++) {
+            double magnitude = Math.abs(panel[offset + column]);
+            if (magnitude > largest) {
+                largest = magnitude;
+                pivotColumn = column;
+            }
+        }
+        return pivotColumn;
+    }
+
+    private int coefficientColumns(int columns) {
+        return augmented ? columns - 1 : columns;
+    }
+
+    private void checkEliminated() {
+        if (rank < 0) throw new IllegalStateException("The matrix hasn't been eliminated yet");
+    }
+}
@@ -0,0 +1,667 @@
+package linalg;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.Arrays;
+
+import static linalg.MathHelper.gcd;
+
+/**
+ * Object to operate with two-dimensional matrices of exact rational numbers.
+ * Numerators and denominators are stored in two parallel row-major long arrays, so calculations don't create any objects.
+ * Only cells whose value doesn't fit into a long anymore are promoted to BigIntegers, which are stored in separate arrays.
+ * All values are kept canceled and with a positive denominator.
+ */
+public class RationalMatrix {
+
+    private static final BigInteger LONG_MIN = BigInteger.valueOf(Long.MIN_VALUE);
+
+    private long[] numerators;
+    private long[] denominators;
+    private BigInteger[] bigNumerators; // Only allocated once the first cell overflows, null for cells that fit into longs
+    private BigInteger[] bigDenominators;
+    private int promotedCells;
+    private int rows;
+    private int columns;
+
+    /**
+     * Constructor for a matrix with the given dimensions, filled with zeros
+     *
+     * @param rows    Number of rows
+     * @param columns Number of columns
+     */
+    public RationalMatrix(int rows, int columns) {
+        if (rows < 0 || columns < 0) throw new IllegalArgumentException("Dimensions must not be negative");
+        int size = Math.multiplyExact(rows, columns);
+        this.numerators = new long[size];
+        this.denominators = new long[size];
+        Arrays.fill(denominators, 1);
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Constructor for a matrix from a TwoDMatrix
+     *
+     * @param matrix TwoDMatrix to convert, all values have to be exact
+     * @throws IllegalArgumentException if the matrix contains a value of type double
+     */
+    public RationalMatrix(TwoDMatrix matrix) {
+        this(matrix.numberOfRows(), matrix.numberOfColumns());
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                set(row, column, matrix.get(row, column));
+            }
+        }
+    }
+
+    /**
+     * Function for getting the number of rows
+     *
+     * @return Number of rows
+     */
+    public int numberOfRows() {
+        return rows;
+    }
+
+    /**
+     * Function for getting the number of columns
+     *
+     * @return Number of columns
+     */
+    public int numberOfColumns() {
+        return columns;
+    }
+
+    /**
+     * Function for getting the number of cells that currently don't fit into longs
+     *
+     * @return Number of cells stored as BigIntegers
+     */
+    public int promotedCells() {
+        return promotedCells;
+    }
+
+    /**
+     * This method updates a value inside the matrix
+     *
+     * @param row         ID of the target row (or "y-value")
+     * @param column      ID of the target column (or "x-value")
+     * @param numerator   Numerator of the new value
+     * @param denominator Denominator of the new value
+     * @throws ArithmeticException if the denominator is zero
+     */
+    public void set(int row, int column, long numerator, long denominator) {
+        if (denominator == 0) throw new ArithmeticException("Division by zero");
+        int i = index(row, column);
+        if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) {
+            storeBig(i, BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+            return;
+        }
+        long gcd = gcd(numerator, denominator);
+        if (denominator < 0) gcd = -gcd;
+        storeLong(i, numerator / gcd, denominator / gcd);
+    }
+
+    /**
+     * This method updates a value inside the matrix
+     *
+     * @param row         ID of the target row (or "y-value")
+     * @param column      ID of the target column (or "x-value")
+     * @param numerator   Numerator of the new value
+     * @param denominator Denominator of the new value
+     * @throws ArithmeticException if the denominator is zero
+     */
+    public void set(int row, int column, BigInteger numerator, BigInteger denominator) {
+        if (denominator.signum() == 0) throw new ArithmeticException("Division by zero");
+        storeBig(index(row, column), numerator, denominator);
+    }
+
+    /**
+     * This method updates a value inside the matrix
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @param value  New value, has to be exact
+     * @throws IllegalArgumentException if the value is of type double
+     */
+    public void set(int row, int column, SmartNum value) {
+        if (!value.isExact()) throw new IllegalArgumentException("Only exact values can be stored in a RationalMatrix");
+        Frac frac = value.toFrac();
+        if (frac.fitsLong()) set(row, column, frac.getLongNumerator(), frac.getLongDenominator());
+        else set(row, column, frac.getBigNumerator(), frac.getBigDenominator());
+    }
+
+    /**
+     * Method to get a value in the matrix at a specific position
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Value at the given position
+     */
+    public SmartNum get(int row, int column) {
+        int i = index(row, column);
+        if (isPromoted(i)) return SmartNum.valueOf(new Frac(bigNumerators[i], bigDenominators[i]));
+        return SmartNum.valueOf(new Frac(numerators[i], denominators[i]));
+    }
+
+    /**
+     * Method to get the numerator of a value in the matrix at a specific position
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Numerator of the value at the given position
+     * @throws ArithmeticException if the numerator doesn't fit into a long
+     */
+    public long getNumerator(int row, int column) {
+        int i = index(row, column);
+        if (isPromoted(i)) throw new ArithmeticException("Value exceeds the range of long");
+        return numerators[i];
+    }
+
+    /**
+     * Method to get the denominator of a value in the matrix at a specific position
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Denominator of the value at the given position, always positive
+     * @throws ArithmeticException if the denominator doesn't fit into a long
+     */
+    public long getDenominator(int row, int column) {
+        int i = index(row, column);
+        if (isPromoted(i)) throw new ArithmeticException("Value exceeds the range of long");
+        return denominators[i];
+    }
+
+    /**
+     * Method to get the numerator of a value in the matrix at a specific position, no matter how large it is
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Numerator of the value at the given position
+     */
+    public BigInteger getBigNumerator(int row, int column) {
+        return numeratorAt(index(row, column));
+    }
+
+    /**
+     * Method to get the denominator of a value in the matrix at a specific position, no matter how large it is
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Denominator of the value at the given position, always positive
+     */
+    public BigInteger getBigDenominator(int row, int column) {
+        return denominatorAt(index(row, column));
+    }
+
+    /**
+     * Method to get a value in the matrix at a specific position as a double
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Approximated value at the given position
+     */
+    public double getDouble(int row, int column) {
+        int i = index(row, column);
+        if (!isPromoted(i)) return (double) numerators[i] / (double) denominators[i];
+        return new BigDecimal(bigNumerators[i]).divide(new BigDecimal(bigDenominators[i]), MathContext.DECIMAL64).doubleValue();
+    }
+
+    /**
+     * Checks if the value at a given position doesn't fit into longs and is stored as BigIntegers
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return True if the value is stored as BigIntegers
+     */
+    public boolean isPromoted(int row, int column) {
+        return isPromoted(index(row, column));
+    }
+
+    /**
+     * Checks if a value in the matrix at a specific position is zero
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return True if the element is zero
+     */
+    public boolean isZero(int row, int column) {
+        int i = index(row, column);
+        return !isPromoted(i) && numerators[i] == 0;
+    }
+
+    /**
+     * Checks if a row at a given index in the matrix is zero
+     *
+     * @param rowIndex Index of the to checking row
+     * @return True if all elements are zero
+     */
+    public boolean isRowZero(int rowIndex) {
+        for (int column = 0; column < columns; column++) if (!isZero(rowIndex, column)) return false;
+        return true;
+    }
+
+    /**
+     * Swaps two rows of the matrix
+     *
+     * @param first  ID of the first row
+     * @param second ID of the second row
+     */
+    public void swapRows(int first, int second) {
+        if (first == second) return;
+        int a = index(first, 0);
+        int b = index(second, 0);
+        for (int column = 0; column < columns; column++, a++, b++) {
+            long tempNumerator = numerators[a];
+            numerators[a] = numerators[b];
+            numerators[b] = tempNumerator;
+            long tempDenominator = denominators[a];
+            denominators[a] = denominators[b];
+            denominators[b] = tempDenominator;
+            if (bigNumerators != null) {
+                BigInteger tempBig = bigNumerators[a];
+                bigNumerators[a] = bigNumerators[b];
+                bigNumerators[b] = tempBig;
+                tempBig = bigDenominators[a];
+                bigDenominators[a] = bigDenominators[b];
+                bigDenominators[b] = tempBig;
+            }
+        }
+    }
+
+    /**
+     * Function to delete a row. The following rows are moved up inside the existing arrays
+     *
+     * @param row ID of the target row
+     */
+    public void deleteRow(int row) {
+        int start = index(row, 0);
+        for (int column = 0; column < columns; column++) if (isPromoted(start + column)) promotedCells--;
+        int length = (rows - row - 1) * columns;
+        System.arraycopy(numerators, start + columns, numerators, start, length);
+        System.arraycopy(denominators, start + columns, denominators, start, length);
+        if (bigNumerators != null) {
+            System.arraycopy(bigNumerators, start + columns, bigNumerators, start, length);
+            System.arraycopy(bigDenominators, start + columns, bigDenominators, start, length);
+            int end = rows * columns;
+            Arrays.fill(bigNumerators, end - columns, end, null);
+            Arrays.fill(bigDenominators, end - columns, end, null);
+        }
+        rows--;
+    }
+
+    /**
+     * Function to delete a column. The remaining values are compacted inside the existing arrays
+     *
+     * @param column ID of the target column
+     */
+    public void deleteColumn(int column) {
+        if (column < 0 || column >= columns) throw new IndexOutOfBoundsException("Column " + column + " out of bounds for " + columns + " columns");
+        int newColumns = columns - 1;
+        for (int row = 0; row < rows; row++) {
+            if (isPromoted(row * columns + column)) promotedCells--;
+            int source = row * columns;
+            int target = row * newColumns;
+            compact(numerators, source, target, column, newColumns);
+            compact(denominators, source, target, column, newColumns);
+            if (bigNumerators != null) {
+                compact(bigNumerators, source, target, column, newColumns);
+                compact(bigDenominators, source, target, column, newColumns);
+            }
+        }
+        if (bigNumerators != null) {
+            Arrays.fill(bigNumerators, rows * newColumns, rows * columns, null);
+            Arrays.fill(bigDenominators, rows * newColumns, rows * columns, null);
+        }
+        columns = newColumns;
+    }
+
+    /**
+     * Multiplies all values of a row by a factor
+     *
+     * @param row                ID of the target row
+     * @param factorNumerator   Numerator of the factor
+     * @param factorDenominator Denominator of the factor
+     * @throws ArithmeticException if the denominator of the factor is zero
+     */
+    public void scaleRow(int row, long factorNumerator, long factorDenominator) {
+        if (factorDenominator == 0) throw new ArithmeticException("Division by zero");
+        if (factorNumerator == 0) {
+            clearRow(row);
+            return;
+        }
+        if (factorDenominator < 0 || factorNumerator == Long.MIN_VALUE) {
+            scaleRow(row, BigInteger.valueOf(factorNumerator), BigInteger.valueOf(factorDenominator));
+            return;
+        }
+        long gcd = gcd(factorNumerator, factorDenominator);
+        factorNumerator /= gcd;
+        factorDenominator /= gcd;
+        int start = index(row, 0);
+        for (int i = start; i < start + columns; i++) {
+            if (isPromoted(i)) {
+                storeBig(i, bigNumerators[i].multiply(BigInteger.valueOf(factorNumerator)),
+                        bigDenominators[i].multiply(BigInteger.valueOf(factorDenominator)));
+            } else if (numerators[i] != 0 && !tryMultiply(i, factorNumerator, factorDenominator)) {
+                storeBig(i, BigInteger.valueOf(numerators[i]).multiply(BigInteger.valueOf(factorNumerator)),
+                        BigInteger.valueOf(denominators[i]).multiply(BigInteger.valueOf(factorDenominator)));
+            }
+        }
+    }
+
+    /**
+     * Multiplies all values of a row by a factor
+     *
+     * @param row                ID of the target row
+     * @param factorNumerator   Numerator of the factor
+     * @param factorDenominator Denominator of the factor
+     * @throws ArithmeticException if the denominator of the factor is zero
+     */
+    public void scaleRow(int row, BigInteger factorNumerator, BigInteger factorDenominator) {
+        if (factorDenominator.signum() == 0) throw new ArithmeticException("Division by zero");
+        if (factorNumerator.signum() == 0) {
+            clearRow(row);
+            return;
+        }
+        if (factorDenominator.signum() < 0) {
+            factorNumerator = factorNumerator.negate();
+            factorDenominator = factorDenominator.negate();
+        }
+        if (fitsLongFastPath(factorNumerator) && fitsLongFastPath(factorDenominator)) {
+            scaleRow(row, factorNumerator.longValue(), factorDenominator.longValue());
+            return;
+        }
+        int start = index(row, 0);
+        for (int i = start; i < start + columns; i++) {
+            if (isPromoted(i) || numerators[i] != 0) {
+                storeBig(i, numeratorAt(i).multiply(factorNumerator), denominatorAt(i).multiply(factorDenominator));
+            }
+        }
+    }
+
+    /**
+     * Adds a multiple of one row to another row: target = target + factor * source
+     *
+     * @param target            ID of the row that is changed
+     * @param source            ID of the row that is added
+     * @param factorNumerator   Numerator of the factor
+     * @param factorDenominator Denominator of the factor
+     * @throws ArithmeticException if the denominator of the factor is zero
+     */
+    public void addMultipleOfRow(int target, int source, long factorNumerator, long factorDenominator) {
+        if (factorDenominator == 0) throw new ArithmeticException("Division by zero");
+        if (factorNumerator == 0) return;
+        if (factorDenominator < 0 || factorNumerator == Long.MIN_VALUE) {
+            addMultipleOfRow(target, source, BigInteger.valueOf(factorNumerator), BigInteger.valueOf(factorDenominator));
+            return;
+        }
+        long gcd = gcd(factorNumerator, factorDenominator);
+        factorNumerator /= gcd;
+        factorDenominator /= gcd;
+        int s = index(source, 0);
+        int t = index(target, 0);
+        for (int column = 0; column < columns; column++, s++, t++) {
+            if (isPromoted(s) || isPromoted(t)) {
+                if (isPromoted(s) || numerators[s] != 0) {
+                    addProductBig(t, BigInteger.valueOf(factorNumerator), BigInteger.valueOf(factorDenominator), numeratorAt(s), denominatorAt(s));
+                }
+            } else if (numerators[s] != 0 && !tryAddProduct(t, factorNumerator, factorDenominator, numerators[s], denominators[s])) {
+                addProductBig(t, BigInteger.valueOf(factorNumerator), BigInteger.valueOf(factorDenominator),
+                        BigInteger.valueOf(numerators[s]), BigInteger.valueOf(denominators[s]));
+            }
+        }
+    }
+
+    /**
+     * Adds a multiple of one row to another row: target = target + factor * source
+     *
+     * @param target            ID of the row that is changed
+     * @param source            ID of the row that is added
+     * @param factorNumerator   Numerator of the factor
+     * @param factorDenominator Denominator of the factor
+     * @throws ArithmeticException if the denominator of the factor is zero
+     */
+    public void addMultipleOfRow(int target, int source, BigInteger factorNumerator, BigInteger factorDenominator) {
+        if (factorDenominator.signum() == 0) throw new ArithmeticException("Division by zero");
+        if (factorNumerator.signum() == 0) return;
+        if (factorDenominator.signum() < 0) {
+            factorNumerator = factorNumerator.negate();
+            factorDenominator = factorDenominator.negate();
+        }
+        if (fitsLongFastPath(factorNumerator) && fitsLongFastPath(factorDenominator)) {
+            addMultipleOfRow(target, source, factorNumerator.longValue(), factorDenominator.longValue());
+            return;
+        }
+        int s = index(source, 0);
+        int t = index(target, 0);
+        for (int column = 0; column < columns; column++, s++, t++) {
+            if (isPromoted(s) || numerators[s] != 0) {
+                addProductBig(t, factorNumerator, factorDenominator, numeratorAt(s), denominatorAt(s));
+            }
+        }
+    }
+
+    /**
+     * Write the matrix into a csv file, values separated by commas. An existing file is overwritten
+     *
+     * @param path Path of the csv file
+     * @throws IOException When an error while writing occurs
+     */
+    public void exportToCsv(String path) throws IOException {
+        exportToCsv(path, false);
+    }
+
+    /**
+     * Write the matrix into a csv file, values separated by commas. See {@link CsvWriter}
+     *
+     * @param path   Path of the csv file
+     * @param append True to append the matrix to an existing file, false to overwrite it
+     * @throws IOException When an error while writing occurs
+     */
+    public void exportToCsv(String path, boolean append) throws IOException {
+        CsvWriter.write(path, this, append);
+    }
+
+    /**
+     * Write the matrix into a binary file, which is overwritten if it exists. See {@link BinaryMatrixFile}
+     *
+     * @param path Path of the file
+     * @throws IOException When an error while writing occurs
+     * @throws ArithmeticException if an exact value doesn't fit into longs
+     */
+    public void exportToBinary(String path) throws IOException {
+        BinaryMatrixFile.write(path, this);
+    }
+
+    /**
+     * Converting the matrix into a TwoDMatrix of SmartNums
+     *
+     * @return TwoDMatrix with the same values
+     */
+    public TwoDMatrix toTwoDMatrix() {
+        SmartNum[][] matrix = new SmartNum[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                matrix[row][column] = get(row, column);
+            }
+        }
+        return new TwoDMatrix(matrix);
+    }
+
+    /**
+     * Converting the matrix into a string (values separated by whitespaces, rows by new lines and round brackets)
+     *
+     * @return String with the matrix
+     */
+    @Override
+    public String toString() {
+        StringBuilder returnString = new StringBuilder();
+        for (int row = 0; row < rows; row++) {
+            returnString.append("(");
+            for (int column = 0; column < columns; column++) {
+                int i = row * columns + column;
+                if (column != 0) returnString.append(" ");
+                returnString.append(numeratorAt(i));
+                if (!denominatorAt(i).equals(BigInteger.ONE)) returnString.append("/").append(denominatorAt(i));
+            }
+            returnString.append(")\n");
+        }
+        return returnString.toString();
+    }
+
+    /**
+     * Tries to calculate cell = cell + (fn / fd) * (sn / sd) in longs. All fractions have to be canceled with positive denominators
+     *
+     * @return False if the calculation overflowed, the cell is unchanged in that case
+     */
+    private boolean tryAddProduct(int i, long fn, long fd, long sn, long sd) {
+        try {
+            // Cancel crosswise first, so the product is already canceled and stays small
+            long g1 = gcd(fn, sd);
+            long g2 = gcd(sn, fd);
+            long productNumerator = Math.multiplyExact(fn / g1, sn / g2);
+            long productDenominator = Math.multiplyExact(fd / g2, sd / g1);
+            if (productNumerator == Long.MIN_VALUE) return false;
+            long tn = numerators[i];
+            long td = denominators[i];
+            if (tn == 0) {
+                numerators[i] = productNumerator;
+                denominators[i] = productDenominator;
+                return true;
+            }
+            long g = gcd(td, productDenominator);
+            long numerator = Math.addExact(Math.multiplyExact(tn, productDenominator / g), Math.multiplyExact(productNumerator, td / g));
+            if (numerator == 0) {
+                numerators[i] = 0;
+                denominators[i] = 1;
+                return true;
+            }
+            if (numerator == Long.MIN_VALUE) return false;
+            // As both summands were canceled, only the common factor g can still be shared (Knuth, TAOCP 4.5.1)
+            long g3 = gcd(numerator, g);
+            long denominator = Math.multiplyExact(td / g, productDenominator / g3);
+            numerators[i] = numerator / g3;
+            denominators[i] = denominator;
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Tries to calculate cell = cell * (fn / fd) in longs. The factor has to be canceled with a positive denominator
+     *
+     * @return False if the calculation overflowed, the cell is unchanged in that case
+     */
+    private boolean tryMultiply(int i, long fn, long fd) {
+        try {
+            long g1 = gcd(numerators[i], fd);
+            long g2 = gcd(fn, denominators[i]);
+            long numerator = Math.multiplyExact(numerators[i] / g1, fn / g2);
+            long denominator = Math.multiplyExact(denominators[i] / g2, fd / g1);
+            if (numerator == Long.MIN_VALUE) return false;
+            numerators[i] = numerator;
+            denominators[i] = denominator;
+            return true;
+        } catch (ArithmeticException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Calculates cell = cell + (fn / fd) * (sn / sd) with BigIntegers
+     */
+    private void addProductBig(int i, BigInteger fn, BigInteger fd, BigInteger sn, BigInteger sd) {
+        BigInteger productDenominator = fd.multiply(sd);
+        BigInteger td = denominatorAt(i);
+        storeBig(i, numeratorAt(i).multiply(productDenominator).add(fn.multiply(sn).multiply(td)), td.multiply(productDenominator));
+    }
+
+    /**
+     * Sets all values of a row to 0/1, the canceled form of zero
+     */
+    private void clearRow(int row) {
+        int start = index(row, 0);
+        for (int i = start; i < start + columns; i++) storeLong(i, 0, 1);
+    }
+
+    /**
+     * Stores a canceled value with positive denominator in the long arrays
+     */
+    private void storeLong(int i, long numerator, long denominator) {
+        if (isPromoted(i)) {
+            bigNumerators[i] = null;
+            bigDenominators[i] = null;
+            promotedCells--;
+        }
+        numerators[i] = numerator;
+        denominators[i] = denominator;
+    }
+
+    /**
+     * Cancels a value and stores it. It is only kept as BigIntegers if it doesn't fit into longs
+     */
+    private void storeBig(int i, BigInteger numerator, BigInteger denominator) {
+        BigInteger gcd = numerator.gcd(denominator);
+        if (denominator.signum() < 0) gcd = gcd.negate();
+        numerator = numerator.divide(gcd);
+        denominator = denominator.divide(gcd);
+        if (fitsLongFastPath(numerator) && fitsLongFastPath(denominator)) {
+            storeLong(i, numerator.longValue(), denominator.longValue());
+            return;
+        }
+        if (bigNumerators == null) {
+            bigNumerators = new BigInteger[numerators.length];
+            bigDenominators = new BigInteger[denominators.length];
+        }
+        if (bigNumerators[i] == null) promotedCells++;
+        bigNumerators[i] = numerator;
+        bigDenominators[i] = denominator;
+    }
+
+    private BigInteger numeratorAt(int i) {
+        return isPromoted(i) ? bigNumerators[i] : BigInteger.valueOf(numerators[i]);
+    }
+
+    private BigInteger denominatorAt(int i) {
+        return isPromoted(i) ? bigDenominators[i] : BigInteger.valueOf(denominators[i]);
+    }
+
+    private boolean isPromoted(int i) {
+        return bigNumerators != null && bigNumerators[i] != null;
+    }
+
+    /**
+     * Checks if a BigInteger fits into a long and isn't Long.MIN_VALUE, which can't be negated
+     */
+    private static boolean fitsLongFastPath(BigInteger value) {
+        return value.bitLength() < 64 && !value.equals(LONG_MIN);
+    }
+
+    private static void compact(long[] array, int source, int target, int column, int newColumns) {
+        System.arraycopy(array, source, array, target, column);
+        System.arraycopy(array, source + column + 1, array, target + column, newColumns - column);
+    }
+
+    private static void compact(Object[] array, int source, int target, int column, int newColumns) {
+        System.arraycopy(array, source, array, target, column);
+        System.arraycopy(array, source + column + 1, array, target + column, newColumns - column);
+    }
+
+    /**
+     * Calculates the position of a cell inside the backing arrays
+     *
+     * @param row    ID of the target row
+     * @param column ID of the target column
+     * @return Index inside the backing arrays
+     */
+    private int index(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Cell (" + row + ", " + column + ") out of bounds for " + rows + "x" + columns);
+        }
+        return row * columns + column;
+    }
+}
@@ -0,0 +1,179 @@
+package linalg;
+
+/**
+ * Kernels for row operations on double rows stored in arrays, used by all double calculations.
+ * Rows are given as array and offset, so they can be parts of a row-major matrix.
+ * <p>
+ * If the JVM runs with {@code --add-modules jdk.incubator.vector}, the operations are done by the Vector API kernels
+ * of {@code VectorKernels}, which are compiled separately. Otherwise, or if the system property {@code linalg.vector}
+ * is {@code false}, the scalar loops of {@link ScalarKernels} are used. Both give the same results, only the dot
+ * product adds its terms in a different order.
+ */
+final class RowOps {
+
+    private static final Kernels KERNELS = loadKernels();
+
+    private RowOps() {
+    }
+
+    /**
+     * Adds a multiple of one row to another: y += alpha * x
+     *
+     * @param alpha   Factor of x
+     * @param x       Array containing the added row
+     * @param xOffset Start of the added row
+     * @param y       Array containing the changed row
+     * @param yOffset Start of the changed row
+     * @param length  Number of elements
+     */
+    static void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        KERNELS.axpy(alpha, x, xOffset, y, yOffset, length);
+    }
+
+    /**
+     * Multiplies a row by a factor: x *= alpha
+     *
+     * @param alpha  Factor
+     * @param x      Array containing the row
+     * @param offset Start of the row
+     * @param length Number of elements
+     */
+    static void scale(double alpha, double[] x, int offset, int length) {
+        KERNELS.scale(alpha, x, offset, length);
+    }
+
+    /**
+     * Swaps the elements of two rows, which must not overlap
+     *
+     * @param a       Array containing the first row
+     * @param aOffset Start of the first row
+     * @param b       Array containing the second row
+     * @param bOffset Start of the second row
+     * @param length  Number of elements
+     */
+    static void swap(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        KERNELS.swap(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Calculates the dot product of two rows
+     *
+     * @param x       Array containing the first row
+     * @param xOffset Start of the first row
+     * @param y       Array containing the second row
+     * @param yOffset Start of the second row
+     * @param length  Number of elements
+     * @return Sum of the products of the elements
+     */
+    static double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        return KERNELS.dot(x, xOffset, y, yOffset, length);
+    }
+
+    /**
+     * Checks if all elements of a row are zero
+     *
+     * @param x      Array containing the row
+     * @param offset Start of the row
+     * @param length Number of elements
+     * @return True if all elements are zero
+     */
+    static boolean isZero(double[] x, int offset, int length) {
+        return KERNELS.isZero(x, offset, length);
+    }
+
+    /**
+     * Function to get the name of the kernels in use
+     *
+     * @return "vector" or "scalar"
+     */
+    static String kernels() {
+        return KERNELS instanceof ScalarKernels ? "scalar" : "vector";
+    }
+
+    /**
+     * Loads the Vector API kernels if the module is there. The field holding them is a constant for the JIT,
+     * so the calls are inlined like static ones
+     */
+    private static Kernels loadKernels() {
+        if (!Boolean.parseBoolean(System.getProperty("linalg.vector", "true"))
+                || ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return new ScalarKernels();
+        }
+        try {
+            return (Kernels) Class.forName("linalg.VectorKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            // The Vector API kernels aren't on the class path
+            return new ScalarKernels();
+        }
+    }
+
+    /**
+     * Implementation of the row operations, see the methods of {@link RowOps} with the same names
+     */
+    interface Kernels {
+
+        void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+        void scale(double alpha, double[] x, int offset, int length);
+
+        void swap(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+        double dot(double[] x, int xOffset, double[] y, int yOffset, int length);
+
+        boolean isZero(double[] x, int offset, int length);
+    }
+
+    /**
+     * The fallback: simple counted loops over contiguous memory without calls or branches inside
+     */
+    static final class ScalarKernels implements Kernels {
+
+        @Override
+        public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+            for (int i = 0; i < length; i++) y[yOffset + i] += alpha * x[xOffset + i];
+        }
+
+        @Override
+        public void scale(double alpha, double[] x, int offset, int length) {
+            for (int i = 0; i < length; i++) x[offset + i] *= alpha;
+        }
+
+        @Override
+        public void swap(double[] a, int aOffset, double[] b, int bOffset, int length) {
+            for (int i = 0; i < length; i++) {
+                double temp = a[aOffset + i];
+                a[aOffset + i] = b[bOffset + i];
+                b[bOffset + i] = temp;
+            }
+        }
+
+        /**
+         * Four independent sums are used, as the JIT keeps the order of floating point additions
+         * and with a single sum every addition would have to wait for the previous one
+         */
+        @Override
+        public double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+            double sum0 = 0;
+            double sum1 = 0;
+            double sum2 = 0;
+            double sum3 = 0;
+            int i = 0;
+            for (; i + 3 < length; i += 4) {
+                sum0 += x[xOffset + i] * y[yOffset + i];
+                sum1 += x[xOffset + i + 1] * y[yOffset + i + 1];
+                sum2 += x[xOffset + i + 2] * y[yOffset + i + 2];
+                sum3 += x[xOffset + i + 3] * y[yOffset + i + 3];
+            }
+            for (; i < length; i++) sum0 += x[xOffset + i] * y[yOffset + i];
+            return (sum0 + sum1) + (sum2 + sum3);
+        }
+
+        @Override
+        public boolean isZero(double[] x, int offset, int length) {
+            // Or-ing the bits without an early exit keeps the loop branch free, -0.0 only differs in the sign bit
+            long bits = 0;
+            for (int i = 0; i < length; i++) bits |= Double.doubleToRawLongBits(x[offset + i]);
+            return (bits & Long.MAX_VALUE) == 0;
+        }
+    }
+}
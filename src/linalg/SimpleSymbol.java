@@ -25,7 +25,7 @@ public class SimpleSymbol {
     public SimpleSymbol(SmartNum factor, char symbol) {
         this.factor = factor;
         this.symbol = symbol;
-        this.power = new SmartNum(1);
+        this.power = SmartNum.ONE;
     }
 
     /**
@@ -96,15 +96,15 @@ public class SimpleSymbol {
         }
         s = s.replace(String.valueOf(symbol), "");
         if (s.isEmpty()) {
-            factor = new SmartNum(1);
-            power = new SmartNum(1);
+            factor = SmartNum.ONE;
+            power = SmartNum.ONE;
         } else if (s.contains("^")) {
             String elements[] = s.split("\\^");
             factor = new SmartNum(elements[0]);
             power = new SmartNum(elements[1]);
         } else {
             factor = new SmartNum(s);
-            power = new SmartNum(1);
+            power = SmartNum.ONE;
         }
     }
 
@@ -126,7 +126,7 @@ public class SimpleSymbol {
      */
     public SimpleSymbol add(SimpleSymbol other) {
         if (other.symbol == symbol && other.power == power) {
-            factor = factor.add(other.factor.clone());
+            factor = factor.add(other.factor);
             return this;
         }
         throw new ArithmeticException("Symbols are not the same");
@@ -141,7 +141,7 @@ public class SimpleSymbol {
      */
     public SimpleSymbol subtract(SimpleSymbol other) {
         if (other.symbol == symbol && other.power == power) {
-            factor = factor.subtract(other.factor.clone());
+            factor = factor.subtract(other.factor);
             return this;
         }
         throw new ArithmeticException("Symbols are not the same");
@@ -156,8 +156,8 @@ public class SimpleSymbol {
      */
     public SimpleSymbol mult(SimpleSymbol other) {
         if (other.symbol == symbol) {
-            factor = factor.mult(other.factor.clone());
-            power = power.add(other.power.clone());
+            factor = factor.mult(other.factor);
+            power = power.add(other.power);
             return this;
         }
         throw new ArithmeticException("Symbols are not the same");
@@ -172,8 +172,8 @@ public class SimpleSymbol {
      */
     public SimpleSymbol divide(SimpleSymbol other) {
         if (other.symbol == symbol) {
-            factor = factor.divide(other.factor.clone());
-            power = power.subtract(other.power.clone());
+            factor = factor.divide(other.factor);
+            power = power.subtract(other.power);
             return this;
         }
         throw new ArithmeticException("Symbols are not the same");
@@ -181,13 +181,13 @@ public class SimpleSymbol {
 
     @Override
     public String toString() {
-        if (factor.equals(new SmartNum(0)))
+        if (factor.equals(SmartNum.ZERO))
             return "0";
-        else if (power.equals(new SmartNum(1)) && factor.equals(new SmartNum(1)))
+        else if (power.equals(SmartNum.ONE) && factor.equals(SmartNum.ONE))
             return String.valueOf(symbol);
-        else if (power.equals(new SmartNum(1)))
+        else if (power.equals(SmartNum.ONE))
             return String.format("(%s) * %s", factor, symbol);
-        else if (factor.equals(new SmartNum(1)))
+        else if (factor.equals(SmartNum.ONE))
             return String.format("%s ^ (%s)", symbol, power);
         else
             return String.format("(%s) * %s ^ (%s)", factor, symbol, power);
@@ -3,30 +3,48 @@ package linalg;
 /**
  * Class that implements the datatype SmartNum, an object that can be used to represent numbers in calculations.
  * SmartNums will automatically choose their internal type between integer, fraction and double, depending on what preserves the most accuracy.
+ * SmartNums are immutable: all calculations return a new SmartNum and never change the SmartNums they are called on,
+ * so they can be shared freely, even between threads.
  */
 public class SmartNum extends MathObject {
 
-    private NumberType bestType;
-    private int intValue;
-    private Frac fracValue;
-    private double doubleValue;
+    private static final int CACHE_LOW = -128;
+    private static final int CACHE_HIGH = 127;
+    private static final SmartNum[] CACHE = new SmartNum[CACHE_HIGH - CACHE_LOW + 1];
+
+    static {
+        for (int i = 0; i < CACHE.length; i++) {
+            int value = i + CACHE_LOW;
+            CACHE[i] = new SmartNum(NumberType.INTEGER, value, new Frac(value), value);
+        }
+    }
+
+    public static final SmartNum ZERO = valueOf(0);
+    public static final SmartNum ONE = valueOf(1);
+    public static final SmartNum MINUS_ONE = valueOf(-1);
+
+    private final NumberType bestType;
+    private final int intValue;
+    private final Frac fracValue; // Never changed after construction and never handed out, as Frac is mutable
+    private final double doubleValue;
 
     /**
      * Constructor used to create a SmartNum from an int.
      *
      * @param value int value of the number
+     * @see #valueOf(int) which returns cached instances for small values
      */
     public SmartNum(int value) {
-        setInt(value);
+        this(NumberType.INTEGER, value, new Frac(value), value);
     }
 
     /**
-     * Constructor used to create a SmartNum from a fraction.
+     * Constructor used to create a SmartNum from a fraction. The fraction is copied.
      *
      * @param value Frac value of the number
      */
     public SmartNum(Frac value) {
-        setFrac(value);
+        this(valueOf(value));
     }
 
     /**
@@ -35,7 +53,7 @@ public class SmartNum extends MathObject {
      * @param value double value of the number
      */
     public SmartNum(double value) {
-        setDouble(value);
+        this(valueOf(value));
     }
 
     /**
@@ -49,222 +67,238 @@ public class SmartNum extends MathObject {
      * @throws NumberFormatException if the provided String is not of the correct shape
      */
     public SmartNum(String value) {
+        this(parse(value));
+    }
+
+    /**
+     * Copy constructor, used by the public constructors to take over the state of a SmartNum created by a factory method
+     *
+     * @param other SmartNum to copy
+     */
+    private SmartNum(SmartNum other) {
+        this(other.bestType, other.intValue, other.fracValue, other.doubleValue);
+    }
+
+    /**
+     * Constructor that sets all fields directly
+     *
+     * @implNote only doubleValue will be correct if the internal type is double, fracValue and intValue should NOT be accessed!
+     * Only doubleValue and fracValue will be correct if the internal type is fraction, intValue should NOT be accessed!
+     */
+    private SmartNum(NumberType bestType, int intValue, Frac fracValue, double doubleValue) {
+        this.bestType = bestType;
+        this.intValue = intValue;
+        this.fracValue = fracValue;
+        this.doubleValue = doubleValue;
+    }
+
+    /**
+     * Method that returns a SmartNum with the given int value. Small values are cached and not created again.
+     *
+     * @param value int value of the number
+     * @return SmartNum with the given value
+     */
+    public static SmartNum valueOf(int value) {
+        if (value >= CACHE_LOW && value <= CACHE_HIGH) return CACHE[value - CACHE_LOW];
+        return new SmartNum(NumberType.INTEGER, value, new Frac(value), value);
+    }
+
+    /**
+     * Method that returns a SmartNum with the given long value. Values that don't fit into an int are stored as fraction.
+     *
+     * @param value long value of the number
+     * @return SmartNum with the given value
+     */
+    public static SmartNum valueOf(long value) {
+        if ((int) value == value) return valueOf((int) value);
+        return ofOwnedFrac(new Frac(value, 1));
+    }
+
+    /**
+     * Method that returns a SmartNum with the given fraction value. The fraction is copied.
+     *
+     * @param value Frac value of the number
+     * @return SmartNum with the given value, an integer if the fraction can be canceled to one
+     */
+    public static SmartNum valueOf(Frac value) {
+        return ofOwnedFrac(value.clone());
+    }
+
+    /**
+     * Method that returns a SmartNum with the given double value.
+     * The SmartNum will be an integer or a fraction if that represents the value accurately (see {@link #tryToSetFracFromDouble})
+     *
+     * @param value double value of the number
+     * @return SmartNum with the given value
+     */
+    public static SmartNum valueOf(double value) {
+        if (canBeInt(value)) return valueOf((int) value);
+        SmartNum frac = tryToSetFracFromDouble(value);
+        return (frac != null) ? frac : new SmartNum(NumberType.DOUBLE, 0, null, value);
+    }
+
+    /**
+     * Method that parses a String into a SmartNum, see {@link #SmartNum(String)}
+     *
+     * @param value String value of the number
+     * @return SmartNum with the given value
+     * @throws NumberFormatException if the provided String is not of the correct shape
+     */
+    private static SmartNum parse(String value) {
         try { //Try to parse to INTEGER
-            int parsedIntValue = Integer.parseInt(value);
-            setInt(parsedIntValue);
+            return valueOf(Integer.parseInt(value));
         } catch (NumberFormatException e1) {
             try { //Try to parse to DOUBLE
-                double parsedDoubleValue = Double.parseDouble(value);
-                setDouble(parsedDoubleValue);
+                return valueOf(Double.parseDouble(value));
             } catch (NumberFormatException e2) {
                 try { //Try to parse to FRAC
-                    Frac castedFrac = Frac.parseFrac(value);
-                    setFrac(castedFrac);
+                    return ofOwnedFrac(Frac.parseFrac(value));
                 } catch (NumberFormatException e3) {
                     throw new NumberFormatException("This number type is not available");
                 }
             }
         }
-        tryToImprove();
     }
 
     /**
-     * Method that tries to improve the internal type of the SmartNum:
-     * Tries to make an int out of a fraction
-     * or a fraction or an int out of a double
-     * This method will not do anything if the current internal type is int
+     * Method that creates a SmartNum from a fraction that isn't referenced anywhere else.
+     * Tries to make an int out of the fraction.
      *
-     * @return success
+     * @param frac value of the number, will be kept by the SmartNum
+     * @return SmartNum with the given value
      */
-    private boolean tryToImprove() {
-        switch (bestType) {
-            case INTEGER -> {
-                return false;
-            }
-            case FRACTION -> {
-                if (fracValue.isInteger()) {
-                    setInt(fracValue);
-                }
-                return true;
-            }
-            case DOUBLE -> {
-                if (canBeInt(doubleValue)) {
-                    intValue = (int) doubleValue;
-                    fracValue = new Frac(intValue);
-                    bestType = NumberType.INTEGER;
-                    return true;
-                } else {
-                    return tryToSetFracFromDouble(doubleValue);
-                }
-            }
-        }
-        return false;
+    private static SmartNum ofOwnedFrac(Frac frac) {
+        if (frac.isInteger() && frac.fitsInt()) return valueOf(frac.getNumerator());
+        return new SmartNum(NumberType.FRACTION, 0, frac, frac.approx());
+    }
+
+    /**
+     * Method that creates a SmartNum from the double result of a calculation on an exact value.
+     * If the result can't be stored exactly, this is counted as double fallback in the {@link SolverMetrics}
+     *
+     * @param value double value of the number
+     * @return SmartNum with the given value
+     */
+    private static SmartNum fromExact(double value) {
+        SmartNum result = valueOf(value);
+        if (result.bestType == NumberType.DOUBLE && SolverMetrics.isEnabled()) SolverMetrics.DOUBLE_FALLBACKS.increment();
+        return result;
     }
 
     /**
-     * Method that tries to set the current type to a fraction from being provided a double
+     * Method that tries to create a fraction from being provided a double
      * This is done by viewing the input value as a fraction of the type value/1, then multiplying numerator and denominator by 10, until both are int.
-     * The internal type is only set to fraction, if the fraction that was obtained in this fashion can be canceled.
+     * A fraction is only returned, if the fraction that was obtained in this fashion can be canceled.
      * Ex:  0.25 -> 1/4
      * 0.1 -> 0.1
      * Also doubles with more than 10 digits after the decimal point will never be converted to a fraction.
      *
      * @param value double value of the number
-     * @return success
+     * @return SmartNum holding the fraction or null if it couldn't be created
      */
-    private boolean tryToSetFracFromDouble(double value) {
+    private static SmartNum tryToSetFracFromDouble(double value) {
         int zeros = 0;
         while (!canBeInt(value)) {
-            if (zeros > 10) return false;
+            if (zeros > 10) return null;
             value = value * 10;
             zeros++;
         }
         Frac frac = new Frac((int) value, (int) Math.pow(10, zeros));
-        if (frac.getNumerator() != value) {
-            setFrac(frac);
-            return true;
-        }
-        return false;
-    }
-
-    /**
-     * Method that sets the internal type to an integer
-     *
-     * @param value value the SmartNum will be set to
-     */
-    private void setInt(int value) {
-        intValue = value;
-        fracValue = new Frac(value);
-        doubleValue = value;
-        bestType = NumberType.INTEGER;
-    }
-
-    /**
-     * Method that sets the internal type to an integer
-     *
-     * @param value value the SmartNum will be set to. Has to a fraction of the form n/1
-     * @throws NumberFormatException if the fraction value is not of the correct form
-     */
-    private void setInt(Frac value) {
-        if (value.getDenominator() != 1) {
-            throw new NumberFormatException("The provided fraction is not of type n/1");
+        if (frac.getLongNumerator() != value) {
+            return ofOwnedFrac(frac);
         }
-        intValue = value.getNumerator();
-        fracValue = value;
-        doubleValue = value.getNumerator();
-        bestType = NumberType.INTEGER;
-    }
-
-    /**
-     * Method that sets the internal type to double
-     *
-     * @param value value that SmartNum will be set to
-     * @implNote only doubleValue will be correct if the internal type is double, fracValue and intValue should NOT be accessed!
-     */
-    private void setDouble(double value) {
-        doubleValue = value;
-        bestType = NumberType.DOUBLE;
-        tryToImprove();
-    }
-
-    /**
-     * Method that sets the internal type to a fraction
-     *
-     * @param frac value that the SmartNum will be set to
-     * @implNote only doubleValue and fracValue will be correct if the internal type is fraction, intValue should NOT be accessed!
-     */
-    private void setFrac(Frac frac) {
-        fracValue = frac;
-        doubleValue = fracValue.approx();
-        bestType = NumberType.FRACTION;
-        tryToImprove();
+        return null;
     }
 
     /**
      * Method that adds an integer to the value of this SmartNum
      *
      * @param summand number to be added
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      */
     public SmartNum add(int summand) {
-        switch (bestType) {
-            case INTEGER -> setInt(summand + intValue);
-            case FRACTION -> setFrac(fracValue.add(new Frac(summand)));
-            case DOUBLE -> setDouble(doubleValue + summand);
-        }
-        return this;
+        return switch (bestType) {
+            case INTEGER -> valueOf((long) summand + intValue);
+            case FRACTION -> ofOwnedFrac(fracValue.clone().add(new Frac(summand)));
+            case DOUBLE -> valueOf(doubleValue + summand);
+        };
     }
 
     /**
      * Method that adds a fraction to the value of this SmartNum
      *
      * @param summand number to be added
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum and the summand are not changed
      */
     public SmartNum add(Frac summand) {
-        switch (bestType) {
-            case INTEGER -> setFrac(summand.add(intValue));
-            case FRACTION -> setFrac(fracValue.add(summand));
-            case DOUBLE -> setDouble(doubleValue + summand.approx());
-        }
-        return this;
+        return switch (bestType) {
+            case INTEGER -> ofOwnedFrac(new Frac(intValue).add(summand));
+            case FRACTION -> ofOwnedFrac(fracValue.clone().add(summand));
+            case DOUBLE -> valueOf(doubleValue + summand.approx());
+        };
     }
 
     /**
      * Method that adds a double to the value of this SmartNum
      *
      * @param summand number to be added
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      */
     public SmartNum add(double summand) {
-        switch (bestType) {
-            case INTEGER -> setDouble(summand + intValue);
-            case FRACTION -> setDouble(fracValue.approx() + summand);
-            case DOUBLE -> setDouble(summand + doubleValue);
-        }
-        return this;
+        return switch (bestType) {
+            case INTEGER -> fromExact(summand + intValue);
+            case FRACTION -> fromExact(fracValue.approx() + summand);
+            case DOUBLE -> valueOf(summand + doubleValue);
+        };
     }
 
     /**
      * Method that adds a SmartNum to the value of this SmartNum
      *
      * @param summand number to be added
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      */
     public SmartNum add(SmartNum summand) {
-        switch (summand.bestType) {
+        return switch (summand.bestType) {
             case INTEGER -> add(summand.intValue);
             case FRACTION -> add(summand.fracValue);
             case DOUBLE -> add(summand.doubleValue);
-        }
-        return this;
+        };
     }
 
     /**
      * Method that subtracts an int from the value of this SmartNum
      *
      * @param subtrahend number to be subtracted
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      */
     public SmartNum subtract(int subtrahend) {
-        return add(-1 * subtrahend);
+        return switch (bestType) {
+            case INTEGER -> valueOf((long) intValue - subtrahend);
+            case FRACTION -> ofOwnedFrac(fracValue.clone().subtract(subtrahend));
+            case DOUBLE -> valueOf(doubleValue - subtrahend);
+        };
     }
 
     /**
      * Method that subtracts a fraction from the value of this SmartNum
      *
      * @param subtrahend number to be subtracted
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum and the subtrahend are not changed
      */
     public SmartNum subtract(Frac subtrahend) {
-        return add(subtrahend.mult(-1));
+        return switch (bestType) {
+            case INTEGER -> ofOwnedFrac(new Frac(intValue).subtract(subtrahend));
+            case FRACTION -> ofOwnedFrac(fracValue.clone().subtract(subtrahend));
+            case DOUBLE -> valueOf(doubleValue - subtrahend.approx());
+        };
     }
 
     /**
      * Method that subtracts a double from the value of this SmartNum
      *
      * @param subtrahend number to be subtracted
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      */
     public SmartNum subtract(double subtrahend) {
         return add(subtrahend * -1);
@@ -274,105 +308,109 @@ public class SmartNum extends MathObject {
      * Method that subtracts a SmartNum from the value of this SmartNum
      *
      * @param subtrahend number to be subtracted
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      */
     public SmartNum subtract(SmartNum subtrahend) {
-        return add(subtrahend.mult(-1));
+        return switch (subtrahend.bestType) {
+            case INTEGER -> subtract(subtrahend.intValue);
+            case FRACTION -> subtract(subtrahend.fracValue);
+            case DOUBLE -> subtract(subtrahend.doubleValue);
+        };
     }
 
     /**
      * Method that multiplies this SmartNum by an int
      *
      * @param factor number to be multiplied
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      */
     public SmartNum mult(int factor) {
-        switch (bestType) {
-            case INTEGER -> setInt(factor * intValue);
-            case FRACTION -> setFrac(fracValue.mult(factor));
-            case DOUBLE -> setDouble(doubleValue * factor);
-        }
-        return this;
+        return switch (bestType) {
+            case INTEGER -> valueOf((long) factor * intValue);
+            case FRACTION -> ofOwnedFrac(fracValue.clone().mult(factor));
+            case DOUBLE -> valueOf(doubleValue * factor);
+        };
     }
 
     /**
      * Method that multiplies this SmartNum by a fraction
      *
      * @param factor number to be multiplied
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum and the factor are not changed
      */
     public SmartNum mult(Frac factor) {
-        switch (bestType) {
-            case INTEGER -> setFrac(factor.clone().mult(intValue));
-            case FRACTION -> setFrac(fracValue.mult(factor));
-            case DOUBLE -> setDouble(doubleValue * factor.approx());
-        }
-        return this;
+        return switch (bestType) {
+            case INTEGER -> ofOwnedFrac(factor.clone().mult(intValue));
+            case FRACTION -> ofOwnedFrac(fracValue.clone().mult(factor));
+            case DOUBLE -> valueOf(doubleValue * factor.approx());
+        };
     }
 
     /**
      * Method that multiplies this SmartNum by a double
      *
      * @param factor number to be multiplied
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      */
     public SmartNum mult(double factor) {
-        switch (bestType) {
-            case INTEGER -> setDouble(factor * intValue);
-            case FRACTION, DOUBLE -> setDouble(doubleValue * factor);
-        }
-        return this;
+        return switch (bestType) {
+            case INTEGER -> fromExact(factor * intValue);
+            case FRACTION -> fromExact(doubleValue * factor);
+            case DOUBLE -> valueOf(doubleValue * factor);
+        };
     }
 
     /**
      * Method that multiplies this SmartNum by a SmartNum
      *
      * @param factor number to be multiplied
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      */
     public SmartNum mult(SmartNum factor) {
-        switch (factor.bestType) {
+        return switch (factor.bestType) {
             case INTEGER -> mult(factor.intValue);
             case FRACTION -> mult(factor.fracValue);
             case DOUBLE -> mult(factor.doubleValue);
-        }
-        return this;
+        };
     }
 
     /**
      * Method that divides this SmartNum by an integer
      *
      * @param value number to be divided by, cannot be 0
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      * @throws ArithmeticException if value is 0
      */
     public SmartNum divide(int value) {
         if (value == 0) throw new ArithmeticException("Division by zero");
-        switch (bestType) {
-            case INTEGER -> setFrac(new Frac(intValue, value));
-            case FRACTION -> setFrac(fracValue.divide(value));
+        return switch (bestType) {
+            case INTEGER -> ofOwnedFrac(new Frac(intValue, value));
+            case FRACTION -> ofOwnedFrac(fracValue.clone().divide(value));
             case DOUBLE -> mult(1.0d / value);
-        }
-        return this;
+        };
     }
 
     /**
      * Method that divides this SmartNum by a fraction
      *
      * @param value number to be divided by, cannot be 0
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum and the divisor are not changed
      * @throws ArithmeticException if value is 0
      */
     public SmartNum divide(Frac value) {
-        if (value.getNumerator() == 0) throw new ArithmeticException("Division by zero");
-        return mult(value.clone().invert());
+        if (value.isZero()) throw new ArithmeticException("Division by zero");
+        return switch (bestType) {
+            case INTEGER -> ofOwnedFrac(new Frac(intValue).divide(value));
+            case FRACTION -> ofOwnedFrac(fracValue.clone().divide(value));
+            case DOUBLE -> valueOf(doubleValue / value.approx());
+        };
     }
 
     /**
      * Method that divides this SmartNum by a double
      *
      * @param value number to be divided by, cannot be 0
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      * @throws ArithmeticException if value is 0
      */
     public SmartNum divide(double value) {
@@ -384,17 +422,25 @@ public class SmartNum extends MathObject {
      * Method that divides this SmartNum by a SmartNum
      *
      * @param value number to be divided by, cannot be 0
-     * @return return the result in addition to changing the value inside the object this is called on.
+     * @return the result, this SmartNum is not changed
      * @throws ArithmeticException if value is 0
      */
     public SmartNum divide(SmartNum value) {
         if (value.isZero()) throw new ArithmeticException("Division by zero");
-        switch (value.bestType) {
+        return switch (value.bestType) {
             case INTEGER -> divide(value.intValue);
             case FRACTION -> divide(value.fracValue);
             case DOUBLE -> divide(value.doubleValue);
-        }
-        return this;
+        };
+    }
+
+    /**
+     * Method that negates this SmartNum
+     *
+     * @return the negated value, this SmartNum is not changed
+     */
+    public SmartNum negate() {
+        return mult(-1);
     }
 
     @Override
@@ -407,14 +453,96 @@ public class SmartNum extends MathObject {
     }
 
     /**
-     * Clones this SmartNum
+     * Appends the number in the same format as {@link #toString()}, without creating a String
+     *
+     * @param target StringBuilder to append to
+     * @return The given StringBuilder
+     */
+    StringBuilder appendTo(StringBuilder target) {
+        return switch (bestType) {
+            case INTEGER -> target.append(intValue);
+            case FRACTION -> fracValue.appendTo(target);
+            case DOUBLE -> target.append(doubleValue);
+        };
+    }
+
+    /**
+     * Clones this SmartNum. As SmartNums are immutable, this SmartNum itself is returned
      *
-     * @return a duplicate of this SmartNum
-     * @implNote the values of the number types that are better than the current best ones (Ex. intValue if bestType is double) might be different.
-     * this shouldn´t be a problem though, since these values should never be accessed
+     * @return this SmartNum
      */
     public SmartNum clone() {
-        return new SmartNum(toString());
+        return this;
+    }
+
+    /**
+     * Method that returns the value of this SmartNum as a double, without creating any objects
+     *
+     * @return the (possibly approximated) double value of this SmartNum
+     */
+    public double toDouble() {
+        return doubleValue;
+    }
+
+    /**
+     * Method that checks if this SmartNum holds an exact value, which means its internal type is either int or fraction
+     *
+     * @return whether the value of this SmartNum is exact
+     */
+    public boolean isExact() {
+        return bestType != NumberType.DOUBLE;
+    }
+
+    /**
+     * Method that checks if this SmartNum is stored as an integer, which a double can represent exactly
+     *
+     * @return whether the internal type is int
+     */
+    boolean isInteger() {
+        return bestType == NumberType.INTEGER;
+    }
+
+    /**
+     * Method that returns the exact value of this SmartNum as a fraction, which may be BigInteger-backed.
+     * The fraction of a fraction SmartNum is shared, so it must not be changed
+     *
+     * @return the value as fraction
+     * @throws ArithmeticException if the internal type is double
+     */
+    Frac toFrac() {
+        return switch (bestType) {
+            case INTEGER -> new Frac(intValue);
+            case FRACTION -> fracValue;
+            case DOUBLE -> throw new ArithmeticException("A double has no exact value");
+        };
+    }
+
+    /**
+     * Method that returns the numerator of this SmartNum. For integers this is the value itself.
+     *
+     * @return the numerator of this SmartNum
+     * @throws ArithmeticException if the internal type is double or the numerator doesn't fit into a long
+     */
+    public long getNumerator() {
+        return switch (bestType) {
+            case INTEGER -> intValue;
+            case FRACTION -> fracValue.getLongNumerator();
+            case DOUBLE -> throw new ArithmeticException("A double has no exact numerator");
+        };
+    }
+
+    /**
+     * Method that returns the denominator of this SmartNum. For integers this is 1.
+     *
+     * @return the denominator of this SmartNum
+     * @throws ArithmeticException if the internal type is double or the denominator doesn't fit into a long
+     */
+    public long getDenominator() {
+        return switch (bestType) {
+            case INTEGER -> 1;
+            case FRACTION -> fracValue.getLongDenominator();
+            case DOUBLE -> throw new ArithmeticException("A double has no exact denominator");
+        };
     }
 
     /**
@@ -433,7 +561,11 @@ public class SmartNum extends MathObject {
      * @return weather this Smart num is 0
      */
     public boolean isZero() {
-        return doubleValue == 0d;
+        return switch (bestType) {
+            case INTEGER -> intValue == 0;
+            case FRACTION -> fracValue.isZero(); // Very small fractions might be approximated by 0.0
+            case DOUBLE -> doubleValue == 0d;
+        };
     }
 
     /**
@@ -451,4 +583,4 @@ public class SmartNum extends MathObject {
         FRACTION,
         DOUBLE
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,191 @@
+package linalg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Solution of a system of linear equations, read off the reduced row echelon form of its augmented coefficient matrix.
+ * All solutions are the particular solution plus any linear combination of the null space basis.
+ */
+public class Solution {
+
+    /**
+     * Number of solutions of a system
+     */
+    public enum Type {
+        /**
+         * Exactly one solution, every variable has a pivot
+         */
+        UNIQUE,
+        /**
+         * Infinitely many solutions, there are free variables
+         */
+        INFINITE,
+        /**
+         * No solution, a row of the reduced matrix reads 0 = c with c not zero
+         */
+        INCONSISTENT
+    }
+
+    private final Type type;
+    private final int rank;
+    private final int[] pivotColumns;
+    private final SmartNum[] particular;
+    private final List<SmartNum[]> nullSpace;
+    private final TwoDMatrix reduced;
+
+    private Solution(Type type, int rank, int[] pivotColumns, SmartNum[] particular, List<SmartNum[]> nullSpace, TwoDMatrix reduced) {
+        this.type = type;
+        this.rank = rank;
+        this.pivotColumns = pivotColumns;
+        this.particular = particular;
+        this.nullSpace = nullSpace;
+        this.reduced = reduced;
+    }
+
+    /**
+     * Reads the solution off a reduced augmented matrix, whose first rows are the pivot rows sorted by pivot column
+     *
+     * @param reduced      Augmented matrix in reduced row echelon form, as returned by {@link GaussEliminator#eliminate()}
+     * @param pivotColumns Pivot column of every pivot row
+     * @return Solution of the system
+     */
+    static Solution of(TwoDMatrix reduced, int[] pivotColumns) {
+        return of(reduced, pivotColumns, 0);
+    }
+
+    /**
+     * Reads the solution off a reduced augmented matrix like {@link #of(TwoDMatrix, int[])}, but treats results of the
+     * equations below the pivot rows as zero if they aren't exact and their magnitude is at most the tolerance
+     *
+     * @param reduced      Augmented matrix in reduced row echelon form
+     * @param pivotColumns Pivot column of every pivot row
+     * @param tolerance    Largest magnitude of a rounding error, see {@link GaussEliminator#getTolerance()}
+     * @return Solution of the system
+     */
+    static Solution of(TwoDMatrix reduced, int[] pivotColumns, double tolerance) {
+        int rank = pivotColumns.length;
+        int variables = reduced.numberOfColumns() - 1;
+        // The rows below the pivot rows are zero in the coefficients, any other value on the right side contradicts
+        for (int row = rank; row < reduced.numberOfRows(); row++) {
+            if (!GaussEliminator.isNegligible(reduced.get(row, variables), tolerance)) {
+                return new Solution(Type.INCONSISTENT, rank, pivotColumns, null, List.of(), reduced);
+            }
+        }
+
+        SmartNum[] particular = new SmartNum[variables];
+        Arrays.fill(particular, SmartNum.ZERO);
+        boolean[] pivot = new boolean[variables];
+        for (int row = 0; row < rank; row++) {
+            pivot[pivotColumns[row]] = true;
+            particular[pivotColumns[row]] = reduced.get(row, variables);
+        }
+
+        // Every free variable gives one basis vector: the free variable is 1, the pivot variables compensate it
+        List<SmartNum[]> nullSpace = new ArrayList<>(variables - rank);
+        for (int free = 0; free < variables; free++) {
+            if (pivot[free]) continue;
+            SmartNum[] vector = new SmartNum[variables];
+            Arrays.fill(vector, SmartNum.ZERO);
+            vector[free] = SmartNum.ONE;
+            for (int row = 0; row < rank; row++) {
+                if (!reduced.isZero(row, free)) vector[pivotColumns[row]] = reduced.get(row, free).negate();
+            }
+            nullSpace.add(vector);
+        }
+        Type type = nullSpace.isEmpty() ? Type.UNIQUE : Type.INFINITE;
+        return new Solution(type, rank, pivotColumns, particular, nullSpace, reduced);
+    }
+
+    /**
+     * Function to get the number of solutions
+     *
+     * @return UNIQUE, INFINITE or INCONSISTENT
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Function to check if the system has at least one solution
+     *
+     * @return True if the system isn't inconsistent
+     */
+    public boolean hasSolution() {
+        return type != Type.INCONSISTENT;
+    }
+
+    /**
+     * Function to get the rank of the coefficient matrix
+     *
+     * @return Rank, which is the number of pivots
+     */
+    public int getRank() {
+        return rank;
+    }
+
+    /**
+     * Function to get the columns of the pivots, which are the variables that aren't free
+     *
+     * @return Pivot columns in ascending order
+     */
+    public int[] getPivotColumns() {
+        return pivotColumns.clone();
+    }
+
+    /**
+     * Function to get one solution of the system, in which all free variables are 0
+     *
+     * @return Value of every variable or null if the system is inconsistent
+     */
+    public SmartNum[] getParticularSolution() {
+        return particular == null ? null : particular.clone();
+    }
+
+    /**
+     * Function to get a basis of the null space of the coefficient matrix, one vector per free variable
+     *
+     * @return Basis vectors, empty if the solution is unique or the system is inconsistent
+     */
+    public List<SmartNum[]> getNullSpaceBasis() {
+        List<SmartNum[]> copy = new ArrayList<>(nullSpace.size());
+        for (SmartNum[] vector : nullSpace) copy.add(vector.clone());
+        return copy;
+    }
+
+    /**
+     * Function to get the reduced row echelon form the solution has been read off
+     *
+     * @return Reduced augmented matrix
+     */
+    public TwoDMatrix getReducedMatrix() {
+        return reduced;
+    }
+
+    /**
+     * Converting the solution into a string, for example "x = (1, 2, 0) + t1 * (-3, 0, 1)"
+     *
+     * @return String with the solution
+     */
+    @Override
+    public String toString() {
+        if (type == Type.INCONSISTENT) return "No solution";
+        StringBuilder text = new StringBuilder("x = ");
+        appendVector(text, particular);
+        for (int i = 0; i < nullSpace.size(); i++) {
+            text.append(" + t").append(i + 1).append(" * ");
+            appendVector(text, nullSpace.get(i));
+        }
+        return text.toString();
+    }
+
+    private static void appendVector(StringBuilder text, SmartNum[] vector) {
+        text.append('(');
+        for (int i = 0; i < vector.length; i++) {
+            if (i > 0) text.append(", ");
+            text.append(vector[i]);
+        }
+        text.append(')');
+    }
+}
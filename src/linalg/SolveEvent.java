@@ -0,0 +1,75 @@
+package linalg;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event of one Gauss-Jordan elimination, only emitted while {@link SolverMetrics} are enabled
+ */
+@Name("linalg.Solve")
+@Label("Matrix Solve")
+@Category("LinAlg")
+@Description("Gauss-Jordan elimination of a matrix with the time of every phase")
+class SolveEvent extends Event {
+
+    // Indices of the phases in the phase times, in the order of SolverMetrics.recordSolve
+    static final int PIVOT_SEARCH = 0;
+    static final int NORMALIZATION = 1;
+    static final int ROW_UPDATE = 2;
+    static final int COMPACTION = 3;
+
+    @Label("Rows")
+    int rows;
+
+    @Label("Columns")
+    int columns;
+
+    @Label("Rank")
+    int rank;
+
+    @Label("Deleted Rows")
+    int deletedRows;
+
+    @Label("Parallel")
+    boolean parallel;
+
+    @Label("Pivot Search")
+    @Timespan(Timespan.NANOSECONDS)
+    long pivotSearchNanos;
+
+    @Label("Normalization")
+    @Timespan(Timespan.NANOSECONDS)
+    long normalizationNanos;
+
+    @Label("Row Updates")
+    @Timespan(Timespan.NANOSECONDS)
+    long rowUpdateNanos;
+
+    @Label("Compaction")
+    @Timespan(Timespan.NANOSECONDS)
+    long compactionNanos;
+
+    /**
+     * Ends the event and commits it with the results of the elimination, if a recording wants it
+     *
+     * @param phaseNanos Times of pivot search, normalization, row updates and compaction
+     */
+    void finish(int rows, int columns, int rank, int deletedRows, boolean parallel, long[] phaseNanos) {
+        end();
+        if (!shouldCommit()) return;
+        this.rows = rows;
+        this.columns = columns;
+        this.rank = rank;
+        this.deletedRows = deletedRows;
+        this.parallel = parallel;
+        pivotSearchNanos = phaseNanos[PIVOT_SEARCH];
+        normalizationNanos = phaseNanos[NORMALIZATION];
+        rowUpdateNanos = phaseNanos[ROW_UPDATE];
+        compactionNanos = phaseNanos[COMPACTION];
+        commit();
+    }
+}
@@ -0,0 +1,210 @@
+package linalg;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in counters and timers for the solver, to find out where the time of a slow solve goes.
+ * Collecting is disabled by default, in that case every instrumented place only reads one flag.
+ * <p>
+ * The values can be read as a {@link Snapshot}, over JMX after calling {@link #registerMBean()} and,
+ * while a flight recording is running, every elimination emits a {@code linalg.Solve} JFR event with its phase times.
+ * The promotion counters of {@link Frac} are collected under the same flag and are included in the snapshot.
+ */
+public final class SolverMetrics {
+
+    /**
+     * Name the MXBean is registered under
+     */
+    public static final String OBJECT_NAME = "linalg:type=SolverMetrics";
+
+    private static volatile boolean enabled;
+
+    private static final LongAdder SOLVES = new LongAdder();
+    private static final LongAdder ELIMINATION_STEPS = new LongAdder();
+    private static final LongAdder ROW_UPDATES = new LongAdder();
+    private static final LongAdder DELETED_ROWS = new LongAdder();
+    static final LongAdder DOUBLE_FALLBACKS = new LongAdder();
+    static final LongAdder BIG_INTEGER_GCDS = new LongAdder();
+    private static final LongAdder PIVOT_SEARCH_NANOS = new LongAdder();
+    private static final LongAdder NORMALIZATION_NANOS = new LongAdder();
+    private static final LongAdder ROW_UPDATE_NANOS = new LongAdder();
+    private static final LongAdder COMPACTION_NANOS = new LongAdder();
+
+    private SolverMetrics() {
+    }
+
+    /**
+     * Function to check if metrics are collected
+     *
+     * @return True if collecting is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Enables or disables collecting. The values collected so far are kept
+     *
+     * @param enabled True to collect metrics
+     */
+    public static void setEnabled(boolean enabled) {
+        SolverMetrics.enabled = enabled;
+    }
+
+    /**
+     * Resets all counters and timers to zero, including the promotion counters of {@link Frac}
+     */
+    public static void reset() {
+        for (LongAdder adder : new LongAdder[]{SOLVES, ELIMINATION_STEPS, ROW_UPDATES, DELETED_ROWS, DOUBLE_FALLBACKS,
+                BIG_INTEGER_GCDS, PIVOT_SEARCH_NANOS, NORMALIZATION_NANOS, ROW_UPDATE_NANOS, COMPACTION_NANOS}) {
+            adder.reset();
+        }
+        Frac.resetPromotionCounters();
+    }
+
+    /**
+     * Function to get the current values. Updates that run at the same time may be only partly included
+     *
+     * @return Snapshot of all counters and timers
+     */
+    public static Snapshot snapshot() {
+        return new Snapshot(SOLVES.sum(), ELIMINATION_STEPS.sum(), ROW_UPDATES.sum(), DELETED_ROWS.sum(), DOUBLE_FALLBACKS.sum(),
+                Frac.getLongPromotions(), Frac.getBigIntegerPromotions(), BIG_INTEGER_GCDS.sum(),
+                PIVOT_SEARCH_NANOS.sum(), NORMALIZATION_NANOS.sum(), ROW_UPDATE_NANOS.sum(), COMPACTION_NANOS.sum());
+    }
+
+    /**
+     * Registers the metrics as MXBean at the platform MBeanServer under {@link #OBJECT_NAME}, if that hasn't happened yet
+     *
+     * @return Name of the MXBean
+     * @throws JMException When the MXBean can't be registered
+     */
+    public static synchronized ObjectName registerMBean() throws JMException {
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (!server.isRegistered(name)) server.registerMBean(new MXBean(), name);
+        return name;
+    }
+
+    /**
+     * Adds the counters and phase times of one finished elimination
+     *
+     * @param steps       Number of pivots
+     * @param rowUpdates  Number of rows a pivot row has been subtracted from
+     * @param deletedRows Number of deleted zero rows
+     * @param phaseNanos  Times of pivot search, normalization, row updates and compaction
+     */
+    static void recordSolve(int steps, long rowUpdates, int deletedRows, long[] phaseNanos) {
+        SOLVES.increment();
+        ELIMINATION_STEPS.add(steps);
+        ROW_UPDATES.add(rowUpdates);
+        DELETED_ROWS.add(deletedRows);
+        PIVOT_SEARCH_NANOS.add(phaseNanos[0]);
+        NORMALIZATION_NANOS.add(phaseNanos[1]);
+        ROW_UPDATE_NANOS.add(phaseNanos[2]);
+        COMPACTION_NANOS.add(phaseNanos[3]);
+    }
+
+    /**
+     * Values of all counters and timers at one point in time. Times are in nanoseconds and summed up over all threads
+     *
+     * @param solves             Number of eliminations that have been run
+     * @param eliminationSteps   Number of pivots, each of them is one step of the elimination
+     * @param rowUpdates         Number of rows a pivot row has been subtracted from
+     * @param deletedRows        Number of rows that became zero and were deleted
+     * @param doubleFallbacks    Number of calculations on an exact SmartNum whose result had to be stored as double
+     * @param fracLongPromotions Number of fraction results that left the int range
+     * @param fracOverflows      Number of fraction results that left the long range and were stored as BigIntegers
+     * @param bigIntegerGcds     Number of fractions that were canceled with a BigInteger gcd
+     * @param pivotSearchNanos   Time spent searching pivots
+     * @param normalizationNanos Time spent dividing pivot rows by their pivot
+     * @param rowUpdateNanos     Time spent subtracting pivot rows from the other rows
+     * @param compactionNanos    Time spent deleting zero rows
+     */
+    public record Snapshot(long solves, long eliminationSteps, long rowUpdates, long deletedRows, long doubleFallbacks,
+                           long fracLongPromotions, long fracOverflows, long bigIntegerGcds,
+                           long pivotSearchNanos, long normalizationNanos, long rowUpdateNanos, long compactionNanos) {
+    }
+
+    private static final class MXBean implements SolverMetricsMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return SolverMetrics.isEnabled();
+        }
+
+        @Override
+        public void setEnabled(boolean enabled) {
+            SolverMetrics.setEnabled(enabled);
+        }
+
+        @Override
+        public void reset() {
+            SolverMetrics.reset();
+        }
+
+        @Override
+        public long getSolves() {
+            return SOLVES.sum();
+        }
+
+        @Override
+        public long getEliminationSteps() {
+            return ELIMINATION_STEPS.sum();
+        }
+
+        @Override
+        public long getRowUpdates() {
+            return ROW_UPDATES.sum();
+        }
+
+        @Override
+        public long getDeletedRows() {
+            return DELETED_ROWS.sum();
+        }
+
+        @Override
+        public long getDoubleFallbacks() {
+            return DOUBLE_FALLBACKS.sum();
+        }
+
+        @Override
+        public long getFracLongPromotions() {
+            return Frac.getLongPromotions();
+        }
+
+        @Override
+        public long getFracOverflows() {
+            return Frac.getBigIntegerPromotions();
+        }
+
+        @Override
+        public long getBigIntegerGcds() {
+            return BIG_INTEGER_GCDS.sum();
+        }
+
+        @Override
+        public long getPivotSearchNanos() {
+            return PIVOT_SEARCH_NANOS.sum();
+        }
+
+        @Override
+        public long getNormalizationNanos() {
+            return NORMALIZATION_NANOS.sum();
+        }
+
+        @Override
+        public long getRowUpdateNanos() {
+            return ROW_UPDATE_NANOS.sum();
+        }
+
+        @Override
+        public long getCompactionNanos() {
+            return COMPACTION_NANOS.sum();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package linalg;
+
+/**
+ * Management interface of {@link SolverMetrics}, see {@link SolverMetrics#registerMBean()}.
+ * Every counter and timer is a read-only attribute
+ */
+public interface SolverMetricsMXBean {
+
+    /**
+     * @return True if metrics are collected
+     */
+    boolean isEnabled();
+
+    /**
+     * @param enabled True to collect metrics
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Resets all counters and timers to zero
+     */
+    void reset();
+
+    /**
+     * @return Number of eliminations that have been run
+     */
+    long getSolves();
+
+    /**
+     * @return Number of pivots
+     */
+    long getEliminationSteps();
+
+    /**
+     * @return Number of rows a pivot row has been subtracted from
+     */
+    long getRowUpdates();
+
+    /**
+     * @return Number of zero rows that were deleted
+     */
+    long getDeletedRows();
+
+    /**
+     * @return Number of calculations on exact SmartNums with a double result
+     */
+    long getDoubleFallbacks();
+
+    /**
+     * @return Number of fraction results that left the int range
+     */
+    long getFracLongPromotions();
+
+    /**
+     * @return Number of fraction results that left the long range
+     */
+    long getFracOverflows();
+
+    /**
+     * @return Number of BigInteger gcds used to cancel fractions
+     */
+    long getBigIntegerGcds();
+
+    /**
+     * @return Time spent searching pivots in nanoseconds
+     */
+    long getPivotSearchNanos();
+
+    /**
+     * @return Time spent normalizing pivot rows in nanoseconds
+     */
+    long getNormalizationNanos();
+
+    /**
+     * @return Time spent updating rows in nanoseconds
+     */
+    long getRowUpdateNanos();
+
+    /**
+     * @return Time spent deleting zero rows in nanoseconds
+     */
+    long getCompactionNanos();
+}
@@ -0,0 +1,376 @@
+package linalg;
+
+import java.util.Arrays;
+
+/**
+ * Gauss-Jordan elimination for sparse matrices. Only the elements that aren't zero are stored and touched,
+ * so the cost depends on the number of non-zero elements and the fill-in instead of the dimensions.
+ * <p>
+ * The pivots are chosen with the Markowitz strategy to keep the fill-in small: the column with the fewest elements
+ * is eliminated next and the pivot is taken from its row with the fewest elements. For values that aren't exact
+ * only pivots with a magnitude of at least {@link #PIVOT_THRESHOLD} times the largest element of the column are allowed,
+ * and values whose magnitude is at most {@link OutOfCoreEliminator#RELATIVE_TOLERANCE} times the largest coefficient
+ * are rounding errors, which are dropped instead of stored.
+ * After the forward elimination the pivot rows are reduced from the last to the first one.
+ * The result is sorted by pivot columns and rows that became zero are left out, like the result of {@link GaussEliminator}.
+ * If the coefficient matrix doesn't have full rank, the pivot columns may differ from the ones of {@link GaussEliminator},
+ * but every pivot column is still a unit column.
+ */
+public class SparseEliminator {
+
+    /**
+     * Minimal magnitude of a pivot relative to the largest element of its column, if the values aren't exact
+     */
+    public static final double PIVOT_THRESHOLD = 0.1;
+
+    private final CsrMatrix matrix;
+    private final boolean augmented;
+    private final int columns;
+    private final int[][] rowColumns; // Columns of the elements of every row, sorted
+    private final SmartNum[][] rowValues;
+    private final int[] rowLengths;
+    private final int[][] columnRows; // Rows that have or had an element in the column, may contain outdated entries
+    private final int[] columnRowCounts;
+    private final int[] columnCounts; // Number of elements of every column in the rows that aren't pivot rows yet
+    // Columns that can still contain a pivot, in doubly linked lists by their count, so the sparsest one is found quickly
+    private int[] bucketHeads;
+    private int[] nextInBucket;
+    private int[] previousInBucket;
+    private boolean[] inBucket;
+    private int[] pivotColumns;
+    private int rank = -1;
+    private double tolerance;
+
+    // Buffers for merging two rows
+    private int[] mergedColumns = new int[0];
+    private SmartNum[] mergedValues = new SmartNum[0];
+
+    /**
+     * Constructor for an eliminator working on an augmented coefficient matrix, where the last column holds the results
+     * of the equations and therefore never contains a pivot
+     *
+     * @param matrix Matrix to reduce, isn't changed
+     */
+    public SparseEliminator(CsrMatrix matrix) {
+        this(matrix, true);
+    }
+
+    /**
+     * Constructor for an eliminator
+     *
+     * @param matrix    Matrix to reduce, isn't changed
+     * @param augmented True if the last column holds the results of the equations and can't contain a pivot
+     */
+    public SparseEliminator(CsrMatrix matrix, boolean augmented) {
+        this.matrix = matrix;
+        this.augmented = augmented;
+        int rows = matrix.numberOfRows();
+        columns = matrix.numberOfColumns();
+        rowColumns = new int[rows][];
+        rowValues = new SmartNum[rows][];
+        rowLengths = new int[rows];
+        columnRows = new int[columns][];
+        columnRowCounts = new int[columns];
+        columnCounts = new int[columns];
+        int[] pointers = matrix.rowPointers();
+        for (int row = 0; row < rows; row++) {
+            rowColumns[row] = Arrays.copyOfRange(matrix.columnIndices(), pointers[row], pointers[row + 1]);
+            rowValues[row] = Arrays.copyOfRange(matrix.values(), pointers[row], pointers[row + 1]);
+            rowLengths[row] = rowColumns[row].length;
+            for (int column : rowColumns[row]) columnCounts[column]++;
+        }
+        for (int column = 0; column < columns; column++) columnRows[column] = new int[columnCounts[column]];
+        for (int row = 0; row < rows; row++) {
+            for (int column : rowColumns[row]) columnRows[column][columnRowCounts[column]++] = row;
+        }
+    }
+
+    /**
+     * Brings the matrix into reduced row echelon form
+     *
+     * @return The reduced matrix
+     * @throws IllegalStateException if the elimination has already been run
+     */
+    public CsrMatrix eliminate() {
+        if (rank >= 0) throw new IllegalStateException("The matrix has already been eliminated");
+        int rows = matrix.numberOfRows();
+        int pivotColumnLimit = augmented ? columns - 1 : columns;
+        double largestCoefficient = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int i = 0; i < rowLengths[row]; i++) {
+                if (rowColumns[row][i] < pivotColumnLimit) largestCoefficient = Math.max(largestCoefficient, Math.abs(rowValues[row][i].toDouble()));
+            }
+        }
+        tolerance = largestCoefficient * OutOfCoreEliminator.RELATIVE_TOLERANCE;
+        boolean[] isPivotRow = new boolean[rows];
+        int[] pivotRows = new int[Math.min(rows, pivotColumnLimit)];
+        pivotColumns = new int[pivotRows.length];
+        int[] candidates = new int[rows];
+        bucketHeads = new int[rows + 1];
+        Arrays.fill(bucketHeads, -1);
+        nextInBucket = new int[columns];
+        previousInBucket = new int[columns];
+        inBucket = new boolean[columns];
+        for (int column = 0; column < pivotColumnLimit; column++) {
+            inBucket[column] = true;
+            link(column);
+        }
+
+        int steps = 0;
+        while (steps < pivotRows.length) {
+            int column = sparsestColumn();
+            if (column < 0) break;
+
+            // Collect the rows that still have an element in the column
+            int candidateCount = 0;
+            double largest = 0;
+            for (int i = 0; i < columnRowCounts[column]; i++) {
+                int row = columnRows[column][i];
+                if (isPivotRow[row] || find(row, column) < 0) continue;
+                candidates[candidateCount++] = row;
+                largest = Math.max(largest, Math.abs(rowValues[row][find(row, column)].toDouble()));
+            }
+            int pivotRow = choosePivotRow(candidates, candidateCount, column, largest);
+            if (pivotRow < 0) {
+                // Only rounding errors are left in the column, so the variable is free
+                unlink(column);
+                inBucket[column] = false;
+                for (int i = 0; i < candidateCount; i++) removeElement(candidates[i], column);
+                continue;
+            }
+
+            isPivotRow[pivotRow] = true;
+            unlink(column);
+            inBucket[column] = false;
+            for (int i = 0; i < rowLengths[pivotRow]; i++) changeCount(rowColumns[pivotRow][i], -1);
+            normalize(pivotRow, column);
+            for (int i = 0; i < candidateCount; i++) {
+                if (candidates[i] != pivotRow) eliminate(candidates[i], pivotRow, column, true);
+            }
+            pivotRows[steps] = pivotRow;
+            pivotColumns[steps++] = column;
+        }
+        rank = steps;
+
+        // Reduce the pivot rows from the last one, the rows below are already reduced and only contain their pivot
+        // besides the free columns and the results, so every subtraction removes exactly one element
+        int[] stepOfColumn = new int[columns];
+        Arrays.fill(stepOfColumn, -1);
+        for (int step = 0; step < rank; step++) stepOfColumn[pivotColumns[step]] = step;
+        for (int step = rank - 1; step >= 0; step--) {
+            int row = pivotRows[step];
+            int[] laterPivots = new int[rowLengths[row]];
+            int count = 0;
+            for (int i = 0; i < rowLengths[row]; i++) {
+                int column = rowColumns[row][i];
+                if (stepOfColumn[column] > step) laterPivots[count++] = column;
+            }
+            for (int i = 0; i < count; i++) eliminate(row, pivotRows[stepOfColumn[laterPivots[i]]], laterPivots[i], false);
+        }
+
+        return buildResult(isPivotRow, pivotRows);
+    }
+
+    /**
+     * Function to get the rank of the coefficient part of the matrix
+     *
+     * @return Rank, which is the number of pivots
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public int getRank() {
+        checkEliminated();
+        return rank;
+    }
+
+    /**
+     * Function to get the columns of the pivots, sorted. The pivot of row i of the result is in column getPivotColumns()[i]
+     *
+     * @return Pivot column of every row that has a pivot
+     * @throws IllegalStateException if the elimination hasn't been run yet
+     */
+    public int[] getPivotColumns() {
+        checkEliminated();
+        int[] sorted = Arrays.copyOf(pivotColumns, rank);
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Searches the column with the fewest elements that can still contain a pivot
+     *
+     * @return ID of the column or -1 if all remaining columns are zero
+     */
+    private int sparsestColumn() {
+        for (int count = 1; count < bucketHeads.length; count++) {
+            if (bucketHeads[count] >= 0) return bucketHeads[count];
+        }
+        return -1;
+    }
+
+    private void changeCount(int column, int delta) {
+        if (inBucket[column]) unlink(column);
+        columnCounts[column] += delta;
+        if (inBucket[column]) link(column);
+    }
+
+    private void link(int column) {
+        int head = bucketHeads[columnCounts[column]];
+        nextInBucket[column] = head;
+        previousInBucket[column] = -1;
+        if (head >= 0) previousInBucket[head] = column;
+        bucketHeads[columnCounts[column]] = column;
+    }
+
+    private void unlink(int column) {
+        int next = nextInBucket[column];
+        int previous = previousInBucket[column];
+        if (previous >= 0) nextInBucket[previous] = next;
+        else bucketHeads[columnCounts[column]] = next;
+        if (next >= 0) previousInBucket[next] = previous;
+    }
+
+    /**
+     * Chooses the row with the fewest elements among the candidates, which keeps the Markowitz cost
+     * (elements in the row - 1) * (elements in the column - 1) minimal. Values that aren't exact have to pass the threshold
+     * and rounding errors are never chosen
+     *
+     * @return ID of the row or -1 if the column only contains rounding errors
+     */
+    private int choosePivotRow(int[] candidates, int candidateCount, int column, double largest) {
+        int best = -1;
+        for (int i = 0; i < candidateCount; i++) {
+            int row = candidates[i];
+            SmartNum value = rowValues[row][find(row, column)];
+            if (GaussEliminator.isNegligible(value, tolerance)) continue;
+            if (!value.isExact() && Math.abs(value.toDouble()) < PIVOT_THRESHOLD * largest) continue;
+            if (best < 0 || rowLengths[row] < rowLengths[best]) best = row;
+        }
+        return best;
+    }
+
+    /**
+     * Divides a row by its pivot, so the pivot becomes 1
+     */
+    private void normalize(int row, int column) {
+        SmartNum[] values = rowValues[row];
+        SmartNum pivot = values[find(row, column)];
+        for (int i = 0; i < rowLengths[row]; i++) {
+            values[i] = rowColumns[row][i] == column ? SmartNum.ONE : values[i].divide(pivot);
+        }
+    }
+
+    /**
+     * Subtracts the normalized pivot row from a row, so the row becomes zero in the pivot column.
+     * Both rows are merged in one pass over their elements
+     *
+     * @param count True if the row isn't a pivot row yet, so the column counts and lists have to be updated
+     */
+    private void eliminate(int row, int pivotRow, int pivotColumn, boolean count) {
+        int position = find(row, pivotColumn);
+        if (position < 0) return;
+        SmartNum factor = rowValues[row][position];
+        int[] columnsA = rowColumns[row];
+        SmartNum[] valuesA = rowValues[row];
+        int lengthA = rowLengths[row];
+        int[] columnsB = rowColumns[pivotRow];
+        SmartNum[] valuesB = rowValues[pivotRow];
+        int lengthB = rowLengths[pivotRow];
+        if (mergedColumns.length < lengthA + lengthB) {
+            mergedColumns = new int[lengthA + lengthB];
+            mergedValues = new SmartNum[lengthA + lengthB];
+        }
+
+        int a = 0, b = 0, length = 0;
+        while (a < lengthA || b < lengthB) {
+            int columnA = a < lengthA ? columnsA[a] : Integer.MAX_VALUE;
+            int columnB = b < lengthB ? columnsB[b] : Integer.MAX_VALUE;
+            if (columnA < columnB) {
+                mergedColumns[length] = columnA;
+                mergedValues[length++] = valuesA[a++];
+            } else if (columnB < columnA) {
+                // Fill-in
+                SmartNum value = factor.mult(valuesB[b++]).negate();
+                if (GaussEliminator.isNegligible(value, tolerance)) continue;
+                mergedColumns[length] = columnB;
+                mergedValues[length++] = value;
+                if (count) addToColumn(columnB, row);
+            } else {
+                SmartNum value = columnA == pivotColumn ? SmartNum.ZERO : valuesA[a].subtract(factor.mult(valuesB[b]));
+                a++;
+                b++;
+                if (GaussEliminator.isNegligible(value, tolerance)) {
+                    if (count) changeCount(columnA, -1);
+                } else {
+                    mergedColumns[length] = columnA;
+                    mergedValues[length++] = value;
+                }
+            }
+        }
+        if (columnsA.length < length) {
+            rowColumns[row] = Arrays.copyOf(mergedColumns, Math.max(length, 2 * columnsA.length));
+            rowValues[row] = Arrays.copyOf(mergedValues, rowColumns[row].length);
+        } else {
+            System.arraycopy(mergedColumns, 0, columnsA, 0, length);
+            System.arraycopy(mergedValues, 0, valuesA, 0, length);
+        }
+        rowLengths[row] = length;
+    }
+
+    /**
+     * Removes an element from a row that isn't a pivot row
+     */
+    private void removeElement(int row, int column) {
+        int position = find(row, column);
+        int moved = rowLengths[row] - position - 1;
+        System.arraycopy(rowColumns[row], position + 1, rowColumns[row], position, moved);
+        System.arraycopy(rowValues[row], position + 1, rowValues[row], position, moved);
+        rowValues[row][--rowLengths[row]] = null;
+        changeCount(column, -1);
+    }
+
+    private void addToColumn(int column, int row) {
+        changeCount(column, 1);
+        if (columnRowCounts[column] == columnRows[column].length) {
+            columnRows[column] = Arrays.copyOf(columnRows[column], Math.max(4, 2 * columnRowCounts[column]));
+        }
+        columnRows[column][columnRowCounts[column]++] = row;
+    }
+
+    /**
+     * Searches the position of an element in a row
+     *
+     * @return Position inside the row arrays or a negative number if the element is zero
+     */
+    private int find(int row, int column) {
+        return Arrays.binarySearch(rowColumns[row], 0, rowLengths[row], column);
+    }
+
+    /**
+     * Creates the result: the pivot rows sorted by pivot column, then the other rows that aren't zero.
+     * A zero matrix keeps one zero row
+     */
+    private CsrMatrix buildResult(boolean[] isPivotRow, int[] pivotRows) {
+        int[] order = new int[matrix.numberOfRows()];
+        int[] rowOfColumn = new int[columns];
+        Arrays.fill(rowOfColumn, -1);
+        for (int step = 0; step < rank; step++) rowOfColumn[pivotColumns[step]] = pivotRows[step];
+        int count = 0;
+        for (int column = 0; column < columns; column++) if (rowOfColumn[column] >= 0) order[count++] = rowOfColumn[column];
+        for (int row = 0; row < order.length; row++) if (!isPivotRow[row] && rowLengths[row] > 0) order[count++] = row;
+        if (count == 0 && order.length > 0) order[count++] = 0;
+
+        int[] rowPointers = new int[count + 1];
+        for (int i = 0; i < count; i++) rowPointers[i + 1] = rowPointers[i] + rowLengths[order[i]];
+        int[] columnIndices = new int[rowPointers[count]];
+        SmartNum[] values = new SmartNum[rowPointers[count]];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(rowColumns[order[i]], 0, columnIndices, rowPointers[i], rowLengths[order[i]]);
+            System.arraycopy(rowValues[order[i]], 0, values, rowPointers[i], rowLengths[order[i]]);
+        }
+        return new CsrMatrix(count, columns, rowPointers, columnIndices, values);
+    }
+
+    private void checkEliminated() {
+        if (rank < 0) throw new IllegalStateException("The matrix hasn't been eliminated yet");
+    }
+}
@@ -0,0 +1,298 @@
+package linalg;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Matrix multiplication with the Strassen-Winograd algorithm, which needs 7 instead of 8 multiplications of half-sized
+ * blocks and therefore about O(n^2.81) operations instead of O(n^3).
+ * <p>
+ * The factors are split into quadrants recursively, odd sizes are padded with zeros. As soon as one dimension of a
+ * product is at most the crossover, it is calculated with the classical kernel, as the additions of the
+ * algorithm cost more than they save for small blocks. The seven products of a step are calculated in parallel
+ * on a ForkJoinPool. Exact multiplications are expensive, so exact matrices get a smaller default crossover,
+ * but the additions of fractions need gcds as well and make the values larger, which eats up part of the gain.
+ * <p>
+ * Double results may differ from the classical product by rounding errors that are a bit larger.
+ */
+public class StrassenMultiplier {
+
+    /**
+     * Crossover for double matrices that is used if none is given
+     */
+    public static final int DEFAULT_DOUBLE_CROSSOVER = 256;
+    /**
+     * Crossover for exact matrices that is used if none is given
+     */
+    public static final int DEFAULT_EXACT_CROSSOVER = 64;
+
+    private final int doubleCrossover;
+    private final int exactCrossover;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructor for a multiplier with the default crossovers, running on the common pool
+     */
+    public StrassenMultiplier() {
+        this(DEFAULT_DOUBLE_CROSSOVER, DEFAULT_EXACT_CROSSOVER, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for a multiplier
+     *
+     * @param doubleCrossover Largest dimension for which double blocks are multiplied with the classical kernel
+     * @param exactCrossover  Largest dimension for which exact blocks are multiplied with the classical kernel
+     * @param pool            Pool the products are calculated on
+     * @throws IllegalArgumentException if a crossover isn't positive
+     */
+    public StrassenMultiplier(int doubleCrossover, int exactCrossover, ForkJoinPool pool) {
+        if (doubleCrossover < 1 || exactCrossover < 1) throw new IllegalArgumentException("Crossover must be positive");
+        this.doubleCrossover = doubleCrossover;
+        this.exactCrossover = exactCrossover;
+        this.pool = pool;
+    }
+
+    /**
+     * Multiplies two matrices. If both only contain exact values, the result is calculated exactly with SmartNums,
+     * otherwise with doubles.
+     *
+     * @param left  Left factor with n columns
+     * @param right Right factor with n rows
+     * @return The product left * right
+     * @throws IllegalArgumentException if the dimensions don't match
+     */
+    public TwoDMatrix multiply(TwoDMatrix left, TwoDMatrix right) {
+        MatrixMultiplier.checkDimensions(left.numberOfColumns(), right.numberOfRows());
+        if (!left.isExact() || !right.isExact()) {
+            return multiply(new DenseDoubleMatrix(left), new DenseDoubleMatrix(right)).toTwoDMatrix();
+        }
+        int rows = left.numberOfRows();
+        int inner = left.numberOfColumns();
+        int columns = right.numberOfColumns();
+        SmartNum[] product = pool.invoke(new Product<>(new ExactBlocks(), flatten(left), flatten(right), rows, inner, columns, exactCrossover));
+        SmartNum[][] result = new SmartNum[rows][columns];
+        for (int row = 0; row < rows; row++) System.arraycopy(product, row * columns, result[row], 0, columns);
+        return new TwoDMatrix(result);
+    }
+
+    /**
+     * Multiplies two double matrices
+     *
+     * @param left  Left factor with n columns
+     * @param right Right factor with n rows
+     * @return The product left * right
+     * @throws IllegalArgumentException if the dimensions don't match
+     */
+    public DenseDoubleMatrix multiply(DenseDoubleMatrix left, DenseDoubleMatrix right) {
+        MatrixMultiplier.checkDimensions(left.numberOfColumns(), right.numberOfRows());
+        int rows = left.numberOfRows();
+        int inner = left.numberOfColumns();
+        int columns = right.numberOfColumns();
+        double[] product = pool.invoke(new Product<>(new DoubleBlocks(), left.data(), right.data(), rows, inner, columns, doubleCrossover));
+        return new DenseDoubleMatrix(product, rows, columns);
+    }
+
+    private static SmartNum[] flatten(TwoDMatrix matrix) {
+        int columns = matrix.numberOfColumns();
+        SmartNum[] values = new SmartNum[matrix.numberOfRows() * columns];
+        for (int row = 0; row < matrix.numberOfRows(); row++) {
+            for (int column = 0; column < columns; column++) values[row * columns + column] = matrix.get(row, column);
+        }
+        return values;
+    }
+
+    /**
+     * Operations on row-major blocks of one number type. The blocks are arrays, so they can be copied with System.arraycopy
+     */
+    private interface Blocks<T> {
+
+        /**
+         * Creates a block filled with zeros
+         */
+        T zeros(int length);
+
+        T add(T x, T y);
+
+        T subtract(T x, T y);
+
+        /**
+         * Multiplies a rows x inner block with an inner x columns block with the classical algorithm
+         */
+        T multiply(T a, T b, int rows, int inner, int columns);
+    }
+
+    /**
+     * Task calculating the product of a rows x inner block with an inner x columns block
+     */
+    private static class Product<T> extends RecursiveTask<T> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Blocks<T> blocks;
+        private final T a;
+        private final T b;
+        private final int rows;
+        private final int inner;
+        private final int columns;
+        private final int crossover;
+
+        Product(Blocks<T> blocks, T a, T b, int rows, int inner, int columns, int crossover) {
+            this.blocks = blocks;
+            this.a = a;
+            this.b = b;
+            this.rows = rows;
+            this.inner = inner;
+            this.columns = columns;
+            this.crossover = crossover;
+        }
+
+        @Override
+        protected T compute() {
+            if (rows <= crossover || inner <= crossover || columns <= crossover) return blocks.multiply(a, b, rows, inner, columns);
+            int halfRows = (rows + 1) / 2;
+            int halfInner = (inner + 1) / 2;
+            int halfColumns = (columns + 1) / 2;
+            T a11 = quadrant(a, rows, inner, 0, 0, halfRows, halfInner);
+            T a12 = quadrant(a, rows, inner, 0, halfInner, halfRows, halfInner);
+            T a21 = quadrant(a, rows, inner, halfRows, 0, halfRows, halfInner);
+            T a22 = quadrant(a, rows, inner, halfRows, halfInner, halfRows, halfInner);
+            T b11 = quadrant(b, inner, columns, 0, 0, halfInner, halfColumns);
+            T b12 = quadrant(b, inner, columns, 0, halfColumns, halfInner, halfColumns);
+            T b21 = quadrant(b, inner, columns, halfInner, 0, halfInner, halfColumns);
+            T b22 = quadrant(b, inner, columns, halfInner, halfColumns, halfInner, halfColumns);
+
+            // Winograd's form: 7 products and 15 additions
+            T s1 = blocks.add(a21, a22);
+            T s2 = blocks.subtract(s1, a11);
+            T s3 = blocks.subtract(a11, a21);
+            T s4 = blocks.subtract(a12, s2);
+            T t1 = blocks.subtract(b12, b11);
+            T t2 = blocks.subtract(b22, t1);
+            T t3 = blocks.subtract(b22, b12);
+            T t4 = blocks.subtract(t2, b21);
+
+            Product<T> p1 = half(a11, b11, halfRows, halfInner, halfColumns);
+            Product<T> p2 = half(a12, b21, halfRows, halfInner, halfColumns);
+            Product<T> p3 = half(s4, b22, halfRows, halfInner, halfColumns);
+            Product<T> p4 = half(a22, t4, halfRows, halfInner, halfColumns);
+            Product<T> p5 = half(s1, t1, halfRows, halfInner, halfColumns);
+            Product<T> p6 = half(s2, t2, halfRows, halfInner, halfColumns);
+            Product<T> p7 = half(s3, t3, halfRows, halfInner, halfColumns);
+            invokeAll(p1, p2, p3, p4, p5, p6, p7);
+
+            T u2 = blocks.add(p1.join(), p6.join());
+            T u3 = blocks.add(u2, p7.join());
+            T u4 = blocks.add(u2, p5.join());
+            T c11 = blocks.add(p1.join(), p2.join());
+            T c12 = blocks.add(u4, p3.join());
+            T c21 = blocks.subtract(u3, p4.join());
+            T c22 = blocks.add(u3, p5.join());
+
+            // The padding of the quadrants is cut off
+            T c = blocks.zeros(rows * columns);
+            place(c11, c, 0, 0, halfRows, halfColumns);
+            place(c12, c, 0, halfColumns, halfRows, halfColumns);
+            place(c21, c, halfRows, 0, halfRows, halfColumns);
+            place(c22, c, halfRows, halfColumns, halfRows, halfColumns);
+            return c;
+        }
+
+        private Product<T> half(T a, T b, int rows, int inner, int columns) {
+            return new Product<>(blocks, a, b, rows, inner, columns, crossover);
+        }
+
+        /**
+         * Copies the quadrant starting at (firstRow, firstColumn) into a new block, the part outside of the matrix stays zero
+         */
+        private T quadrant(T source, int sourceRows, int sourceColumns, int firstRow, int firstColumn, int quadrantRows, int quadrantColumns) {
+            T target = blocks.zeros(quadrantRows * quadrantColumns);
+            int copiedRows = Math.min(quadrantRows, sourceRows - firstRow);
+            int copiedColumns = Math.min(quadrantColumns, sourceColumns - firstColumn);
+            for (int row = 0; row < copiedRows; row++) {
+                System.arraycopy(source, (firstRow + row) * sourceColumns + firstColumn, target, row * quadrantColumns, copiedColumns);
+            }
+            return target;
+        }
+
+        /**
+         * Copies a quadrant of the result into this product, as far as it lies inside of it
+         */
+        private void place(T quadrant, T target, int firstRow, int firstColumn, int quadrantRows, int quadrantColumns) {
+            int copiedRows = Math.min(quadrantRows, rows - firstRow);
+            int copiedColumns = Math.min(quadrantColumns, columns - firstColumn);
+            for (int row = 0; row < copiedRows; row++) {
+                System.arraycopy(quadrant, row * quadrantColumns, target, (firstRow + row) * columns + firstColumn, copiedColumns);
+            }
+        }
+    }
+
+    private static class DoubleBlocks implements Blocks<double[]> {
+
+        @Override
+        public double[] zeros(int length) {
+            return new double[length];
+        }
+
+        @Override
+        public double[] add(double[] x, double[] y) {
+            double[] sum = x.clone();
+            RowOps.axpy(1, y, 0, sum, 0, sum.length);
+            return sum;
+        }
+
+        @Override
+        public double[] subtract(double[] x, double[] y) {
+            double[] difference = x.clone();
+            RowOps.axpy(-1, y, 0, difference, 0, difference.length);
+            return difference;
+        }
+
+        @Override
+        public double[] multiply(double[] a, double[] b, int rows, int inner, int columns) {
+            double[] c = new double[rows * columns];
+            MatrixMultiplier.multiplyRows(a, b, c, inner, columns, 0, rows, MatrixMultiplier.DEFAULT_TILE_SIZE);
+            return c;
+        }
+    }
+
+    private static class ExactBlocks implements Blocks<SmartNum[]> {
+
+        @Override
+        public SmartNum[] zeros(int length) {
+            SmartNum[] block = new SmartNum[length];
+            Arrays.fill(block, SmartNum.ZERO);
+            return block;
+        }
+
+        @Override
+        public SmartNum[] add(SmartNum[] x, SmartNum[] y) {
+            SmartNum[] sum = x.clone();
+            for (int i = 0; i < sum.length; i++) if (!y[i].isZero()) sum[i] = sum[i].add(y[i]);
+            return sum;
+        }
+
+        @Override
+        public SmartNum[] subtract(SmartNum[] x, SmartNum[] y) {
+            SmartNum[] difference = x.clone();
+            for (int i = 0; i < difference.length; i++) if (!y[i].isZero()) difference[i] = difference[i].subtract(y[i]);
+            return difference;
+        }
+
+        @Override
+        public SmartNum[] multiply(SmartNum[] a, SmartNum[] b, int rows, int inner, int columns) {
+            SmartNum[] c = zeros(rows * columns);
+            for (int row = 0; row < rows; row++) {
+                for (int k = 0; k < inner; k++) {
+                    SmartNum factor = a[row * inner + k];
+                    if (factor.isZero()) continue;
+                    for (int column = 0; column < columns; column++) {
+                        SmartNum value = b[k * columns + column];
+                        if (!value.isZero()) c[row * columns + column] = c[row * columns + column].add(factor.mult(value));
+                    }
+                }
+            }
+            return c;
+        }
+    }
+}
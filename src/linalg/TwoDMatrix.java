@@ -1,60 +1,81 @@
 package linalg;
 
-import java.util.Scanner;
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * Object to operate with two-dimensional matrices
+ * <p>
+ * The values are stored in row arrays, which are reached through an array of row references and, once rows or columns
+ * have been deleted or rearranged, index maps for the rows and columns. The array of row references itself is never
+ * changed. Deleting or swapping rows and columns therefore only changes these indices and never copies elements,
+ * deleting the first or the last row doesn't even touch the index map.
+ * Views ({@link #subMatrix}, {@link #rowView}, {@link #columnView}, {@link #transpose}) share the row arrays with the
+ * matrix they were created from: changed values are visible in both, but deleting or swapping rows and columns only
+ * affects the view (or the matrix) it is done on. So a solver can reduce a view in place without touching the
+ * order of the rows of the whole matrix.
  */
 public class TwoDMatrix {
 
-    private SmartNum[][] matrix;
+    // References to the row arrays, never changed. For a transposed matrix these are its columns
+    private final SmartNum[][] matrix;
+    // Row i is at index firstRow + i of the row references, or at index rowMap[firstRow + i] if the map isn't null
+    private int[] rowMap;
+    private int firstRow;
+    private int rows;
+    private int columns;
+    // Index inside the row arrays of every column, null if column i is at index i and the row arrays have no other elements
+    private int[] columnMap;
+    private final boolean transposed;
 
     /**
-     * Constructor for a 2D-matrix from a given SmartNum 2D-Array
+     * Constructor for a 2D-matrix from a given SmartNum 2D-Array. The row arrays aren't copied, but used as storage.
+     * Deleting or swapping rows doesn't change the given array
      *
      * @param matrix 2D-Array of SmartNum containing the matrix
      */
     public TwoDMatrix(SmartNum[][] matrix) {
-        this.matrix = matrix;
+        this(matrix, null, 0, matrix.length, null, matrix.length == 0 ? 0 : matrix[0].length, false);
     }
 
     /**
-     * Constructor for a 2D-matrix, loading the matrix from a csv file. Values in the file should be separated by comma
+     * Constructor for a 2D-matrix, loading the matrix from a csv file. Values in the file should be separated by comma.
+     * The file is read in a single pass, see {@link CsvReader}
      *
      * @param path The path of the csv File
      * @throws FileNotFoundException If the File doesn't exist our couldn't be accessed
+     * @throws UncheckedIOException  When another error while reading occurs
      */
     public TwoDMatrix(String path) throws FileNotFoundException {
-        String row = "";
-        int rows = 0;
-        File file = new File(path);
-        Scanner sc = new Scanner(file);
-
-        while (sc.hasNext()) {
-            rows++;
-            row = sc.nextLine();
-        }
+        this(read(path));
+    }
 
-        int columns = row.split(",").length;
-        matrix = new SmartNum[rows][columns];
-        sc.close();
-        sc = new Scanner(file);
-
-        int currentRow = 0;
-        while (sc.hasNext()) {
-            row = sc.next();
-            String[] rowSplited = row.split(",");
-            for (int column = 0; column < rowSplited.length; column++) {
-                matrix[currentRow][column] = new SmartNum(rowSplited[column]);
-            }
-            currentRow++;
+    /**
+     * Constructor for a matrix or a view on the row arrays of another one
+     */
+    private TwoDMatrix(SmartNum[][] matrix, int[] rowMap, int firstRow, int rows, int[] columnMap, int columns, boolean transposed) {
+        this.matrix = matrix;
+        this.rowMap = rowMap;
+        this.firstRow = firstRow;
+        this.rows = rows;
+        this.columnMap = columnMap;
+        this.columns = columns;
+        this.transposed = transposed;
+    }
+
+    private static SmartNum[][] read(String path) throws FileNotFoundException {
+        try {
+            return CsvReader.read(path, MatrixBuilder.forTwoDMatrix()).matrix;
+        } catch (NoSuchFileException | AccessDeniedException e) {
+            throw new FileNotFoundException(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        sc.close();
     }
 
     /**
@@ -65,19 +86,19 @@ public class TwoDMatrix {
     @Override
     public String toString() {
         StringBuilder returnString = new StringBuilder();
-        int[] longest = new int[matrix[0].length];
-        for (SmartNum[] row : matrix) {
-            for (int i = 0; i < row.length; i++) {
-                int len = row[i].toString().length();
+        int[] longest = new int[numberOfColumns()];
+        for (int row = 0; row < numberOfRows(); row++) {
+            for (int i = 0; i < longest.length; i++) {
+                int len = element(row, i).toString().length();
                 if (len > longest[i]) longest[i] = len;
             }
         }
-        for (SmartNum[] row : matrix) {
+        for (int row = 0; row < numberOfRows(); row++) {
             returnString.append("(");
-            for (int i = 0; i < row.length; i++) {
-                int len = row[i].toString().length();
-                returnString.append(row[i].toString());
-                returnString.append(" ".repeat(Math.max(0, longest[i] - len + 1)));
+            for (int i = 0; i < longest.length; i++) {
+                String value = element(row, i).toString();
+                returnString.append(value);
+                returnString.append(" ".repeat(Math.max(0, longest[i] - value.length() + 1)));
             }
             returnString = new StringBuilder(returnString.substring(0, returnString.length() - 1));
             returnString.append(")\n");
@@ -91,7 +112,7 @@ public class TwoDMatrix {
      * @return Number of rows
      */
     public int numberOfRows() {
-        return matrix.length;
+        return transposed ? columns : rows;
     }
 
     /**
@@ -100,7 +121,7 @@ public class TwoDMatrix {
      * @return Number of columns
      */
     public int numberOfColumns() {
-        return matrix[0].length;
+        return transposed ? rows : columns;
     }
 
     /**
@@ -112,7 +133,11 @@ public class TwoDMatrix {
      */
     public void set(int row, int column, SmartNum value) {
         try {
-            matrix[row][column] = value;
+            if (transposed) {
+                storageRow(column)[storageColumn(row)] = value;
+            } else {
+                storageRow(row)[storageColumn(column)] = value;
+            }
         } catch (ArrayIndexOutOfBoundsException e) {
             e.printStackTrace();
         }
@@ -127,7 +152,7 @@ public class TwoDMatrix {
      */
     public SmartNum get(int row, int column) {
         try {
-            return new SmartNum(matrix[row][column].toString()); // Has to be a new SmartNum, otherwise it will be mutable
+            return element(row, column); // SmartNums are immutable, so the value can be shared
         } catch (ArrayIndexOutOfBoundsException e) {
             e.printStackTrace();
             return null;
@@ -135,58 +160,336 @@ public class TwoDMatrix {
     }
 
     /**
-     * Function to delete a row
+     * Method to get a value in the matrix at a specific position as a double, without copying the element
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Value at the given position as a double
+     */
+    public double getDouble(int row, int column) {
+        return element(row, column).toDouble();
+    }
+
+    /**
+     * Method to get the numerator of a value in the matrix at a specific position, without copying the element
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Numerator of the value at the given position
+     * @throws ArithmeticException if the value is not exact
+     */
+    public long getNumerator(int row, int column) {
+        return element(row, column).getNumerator();
+    }
+
+    /**
+     * Method to get the denominator of a value in the matrix at a specific position, without copying the element
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return Denominator of the value at the given position
+     * @throws ArithmeticException if the value is not exact
+     */
+    public long getDenominator(int row, int column) {
+        return element(row, column).getDenominator();
+    }
+
+    /**
+     * Checks if a value in the matrix at a specific position is zero, without copying the element
+     *
+     * @param row    ID of the target row (or "y-value")
+     * @param column ID of the target column (or "x-value")
+     * @return True if the element is zero
+     */
+    public boolean isZero(int row, int column) {
+        return element(row, column).isZero();
+    }
+
+    /**
+     * Function to delete a row. Only the references to the following rows are moved up, no element is copied,
+     * so deleting the last row takes constant time
      *
      * @param row ID of the target row
      */
     public void deleteRow(int row) {
-        SmartNum[][] newMatrix = new SmartNum[numberOfRows() - 1][numberOfColumns()];
-        for (int i = 0; i <= newMatrix.length; i++) {
-            if (i < row) {
-                newMatrix[i] = matrix[i];
-            } else if (i > row) {
-                newMatrix[i - 1] = matrix[i];
-            }
+        if (transposed) {
+            deleteStorageColumn(row);
+        } else {
+            deleteStorageRow(row);
+        }
+    }
+
+    /**
+     * Function to delete several rows at once in a single pass over the row references
+     *
+     * @param rowsToDelete Array with one entry per row, true for every row that should be deleted
+     */
+    public void deleteRows(boolean[] rowsToDelete) {
+        if (transposed) {
+            ensureColumnMap();
+            int remaining = 0;
+            for (int i = 0; i < columns; i++) if (!rowsToDelete[i]) columnMap[remaining++] = columnMap[i];
+            columns = remaining;
+        } else {
+            ensureRowMap();
+            int remaining = 0;
+            for (int i = 0; i < rows; i++) if (!rowsToDelete[i]) rowMap[firstRow + remaining++] = rowMap[firstRow + i];
+            rows = remaining;
         }
-        matrix = newMatrix;
+    }
 
+    /**
+     * Function to swap two rows. Only the references to the rows are exchanged
+     *
+     * @param first  ID of the first row
+     * @param second ID of the second row
+     */
+    public void swapRows(int first, int second) {
+        if (transposed) {
+            Objects.checkIndex(first, columns);
+            Objects.checkIndex(second, columns);
+            ensureColumnMap();
+            int temp = columnMap[first];
+            columnMap[first] = columnMap[second];
+            columnMap[second] = temp;
+        } else {
+            Objects.checkIndex(first, rows);
+            Objects.checkIndex(second, rows);
+            ensureRowMap();
+            int temp = rowMap[firstRow + first];
+            rowMap[firstRow + first] = rowMap[firstRow + second];
+            rowMap[firstRow + second] = temp;
+        }
     }
 
     /**
-     * Function to delete a column
+     * Function to delete a column. Only the index map of the columns changes, no element is copied
      *
      * @param column ID of the target column
      */
     public void deleteColumn(int column) {
-        SmartNum[][] newMatrix = new SmartNum[numberOfRows()][numberOfColumns() - 1];
-        for (int j = 0; j < newMatrix.length; j++) {
-            for (int i = 0; i <= newMatrix[0].length; i++) {
-                if (i < column) {
-                    newMatrix[j][i] = matrix[j][i];
-                } else if (i > column) {
-                    newMatrix[j][i - 1] = matrix[j][i];
-                }
-            }
+        if (transposed) {
+            deleteStorageRow(column);
+        } else {
+            deleteStorageColumn(column);
+        }
+    }
+
+    /**
+     * Creates a view on a part of the matrix, see {@link TwoDMatrix}. Only the row references and the column indices
+     * of the part are copied
+     *
+     * @param firstRow    First row of the view
+     * @param endRow      Row after the last row of the view
+     * @param firstColumn First column of the view
+     * @param endColumn   Column after the last column of the view
+     * @return View with endRow - firstRow rows and endColumn - firstColumn columns
+     * @throws IndexOutOfBoundsException if the part isn't inside the matrix
+     */
+    public TwoDMatrix subMatrix(int firstRow, int endRow, int firstColumn, int endColumn) {
+        Objects.checkFromToIndex(firstRow, endRow, numberOfRows());
+        Objects.checkFromToIndex(firstColumn, endColumn, numberOfColumns());
+        if (transposed) {
+            return view(firstColumn, endColumn, firstRow, endRow, true);
+        }
+        return view(firstRow, endRow, firstColumn, endColumn, false);
+    }
+
+    /**
+     * Creates a view on one row, which is a matrix with one row, see {@link #subMatrix}
+     *
+     * @param row ID of the row
+     * @return View with one row
+     */
+    public TwoDMatrix rowView(int row) {
+        return subMatrix(row, row + 1, 0, numberOfColumns());
+    }
+
+    /**
+     * Creates a view on one column, which is a matrix with one column, see {@link #subMatrix}
+     *
+     * @param column ID of the column
+     * @return View with one column
+     */
+    public TwoDMatrix columnView(int column) {
+        return subMatrix(0, numberOfRows(), column, column + 1);
+    }
+
+    /**
+     * Creates a transposed view, whose rows are the columns of this matrix, see {@link TwoDMatrix}
+     *
+     * @return Transposed view
+     */
+    public TwoDMatrix transpose() {
+        return view(0, rows, 0, columns, !transposed);
+    }
+
+    /**
+     * Creates a copy of the matrix with its own row arrays, which doesn't share any values with this matrix
+     *
+     * @return Copy of the matrix
+     */
+    public TwoDMatrix copy() {
+        SmartNum[][] values = new SmartNum[numberOfRows()][numberOfColumns()];
+        for (int row = 0; row < values.length; row++) {
+            for (int column = 0; column < values[row].length; column++) values[row][column] = element(row, column);
         }
-        matrix = newMatrix;
+        return new TwoDMatrix(values, null, 0, values.length, null, numberOfColumns(), false);
     }
 
     /**
-     * Write the 2D-Matrix into a csv file, values separated by commas
+     * Write the 2D-Matrix into a csv file, values separated by commas. An existing file is overwritten
      *
      * @param path Path of the csv file
      * @throws IOException When an error while writing occurs
      */
     public void exportToCsv(String path) throws IOException {
-        BufferedWriter writer = new BufferedWriter(new FileWriter(path, true));
-        for (int i = 0; i < numberOfRows(); i++) {
-            for (int j = 0; j < numberOfColumns(); j++) {
-                writer.append(get(i, j).toString());
-                if (j != numberOfColumns() - 1) writer.append(",");
-            }
-            if (i != numberOfRows()) writer.append("\n");
+        exportToCsv(path, false);
+    }
+
+    /**
+     * Write the 2D-Matrix into a csv file, values separated by commas. See {@link CsvWriter}
+     *
+     * @param path   Path of the csv file
+     * @param append True to append the matrix to an existing file, false to overwrite it
+     * @throws IOException When an error while writing occurs
+     */
+    public void exportToCsv(String path, boolean append) throws IOException {
+        CsvWriter.write(path, this, append);
+    }
+
+    /**
+     * Write the matrix into a binary file, which is overwritten if it exists. See {@link BinaryMatrixFile}
+     *
+     * @param path Path of the file
+     * @throws IOException When an error while writing occurs
+     * @throws ArithmeticException if an exact value doesn't fit into longs
+     */
+    public void exportToBinary(String path) throws IOException {
+        BinaryMatrixFile.write(path, this);
+    }
+
+    /**
+     * Checks if all values of the matrix are exact, which means none of them is a double
+     *
+     * @return True if all elements are integers or fractions
+     */
+    public boolean isExact() {
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) if (!storageRow(row)[storageColumn(column)].isExact()) return false;
         }
-        writer.close();
+        return true;
+    }
+
+    /**
+     * Multiplies this matrix with another one, see {@link MatrixMultiplier}.
+     * The product is exact if both matrices are exact, otherwise it is calculated with doubles.
+     *
+     * @param other Right factor, needs as many rows as this matrix has columns
+     * @return The product this * other
+     * @throws IllegalArgumentException if the dimensions don't match
+     */
+    public TwoDMatrix multiply(TwoDMatrix other) {
+        return new MatrixMultiplier().multiply(this, other);
+    }
+
+    /**
+     * Multiplies this matrix with another one with the Strassen-Winograd algorithm, see {@link StrassenMultiplier}.
+     * Faster than {@link #multiply(TwoDMatrix)} for large matrices. The product is exact if both matrices are exact, otherwise it is calculated with doubles.
+     *
+     * @param other Right factor, needs as many rows as this matrix has columns
+     * @return The product this * other
+     * @throws IllegalArgumentException if the dimensions don't match
+     */
+    public TwoDMatrix multiplyStrassen(TwoDMatrix other) {
+        return new StrassenMultiplier().multiply(this, other);
+    }
+
+    /**
+     * Calculates the determinant from one {@link LUDecomposition}, exact if all values are exact, otherwise with doubles.
+     * The matrix isn't changed. To get the determinant and the inverse, factor the matrix once with a LUDecomposition
+     *
+     * @return Determinant
+     * @throws IllegalArgumentException if the matrix isn't square
+     */
+    public SmartNum determinant() {
+        return determinant(defaultMode());
+    }
+
+    /**
+     * Calculates the determinant from one {@link LUDecomposition}. The matrix isn't changed
+     *
+     * @param mode Number type the calculation is done with
+     * @return Determinant
+     * @throws IllegalArgumentException if the matrix isn't square
+     */
+    public SmartNum determinant(ComputationMode mode) {
+        return new LUDecomposition(this, mode).determinant();
+    }
+
+    /**
+     * Calculates the rank, exact if all values are exact, otherwise with doubles. The matrix isn't changed
+     *
+     * @return Rank, the number of linearly independent rows
+     */
+    public int rank() {
+        return rank(defaultMode());
+    }
+
+    /**
+     * Calculates the rank. The matrix isn't changed.
+     * Exact values are eliminated fraction-free by a {@link BareissEliminator}, in double mode small values are treated
+     * as zero, see {@link DenseDoubleMatrix#rank()}
+     *
+     * @param mode Number type the calculation is done with
+     * @return Rank, the number of linearly independent rows
+     * @throws IllegalArgumentException if the mode is exact, but the matrix contains values that aren't exact
+     */
+    public int rank(ComputationMode mode) {
+        if (mode == ComputationMode.DOUBLE) return new DenseDoubleMatrix(this).rank();
+        BareissEliminator eliminator = new BareissEliminator(copy(), false);
+        eliminator.eliminate();
+        return eliminator.getRank();
+    }
+
+    /**
+     * Calculates the inverse from one {@link LUDecomposition}, exact if all values are exact, otherwise with doubles.
+     * The matrix isn't changed
+     *
+     * @return The inverse as a new matrix
+     * @throws IllegalArgumentException if the matrix isn't square
+     * @throws ArithmeticException      if the matrix is singular or, with doubles, nearly singular
+     */
+    public TwoDMatrix inverse() {
+        return inverse(defaultMode());
+    }
+
+    /**
+     * Calculates the inverse from one {@link LUDecomposition}. The matrix isn't changed.
+     * In double mode matrices whose condition estimate shows that the result would be meaningless are rejected
+     *
+     * @param mode Number type the calculation is done with
+     * @return The inverse as a new matrix
+     * @throws IllegalArgumentException if the matrix isn't square
+     * @throws ArithmeticException      if the matrix is singular or, in double mode, nearly singular
+     */
+    public TwoDMatrix inverse(ComputationMode mode) {
+        return new LUDecomposition(this, mode).inverse();
+    }
+
+    /**
+     * Estimates the condition number in the 1-norm with doubles, see {@link LUDecomposition#conditionEstimate()}.
+     * Large values mean that double calculations with the matrix are inaccurate
+     *
+     * @return Estimated condition number, infinity if the matrix is singular
+     * @throws IllegalArgumentException if the matrix isn't square
+     */
+    public double conditionEstimate() {
+        return new LUDecomposition(this, ComputationMode.DOUBLE).conditionEstimate();
+    }
+
+    private ComputationMode defaultMode() {
+        return isExact() ? ComputationMode.EXACT : ComputationMode.DOUBLE;
     }
 
     /**
@@ -196,9 +499,91 @@ public class TwoDMatrix {
      * @return True if all elements are zero
      */
     public boolean isRowZero(int rowIndex) {
-        SmartNum[] row = matrix[rowIndex];
-        for (SmartNum element : row) if (!element.isZero()) return false;
+        for (int column = 0; column < numberOfColumns(); column++) if (!element(rowIndex, column).isZero()) return false;
         return true;
     }
 
+    private SmartNum element(int row, int column) {
+        return transposed ? storageRow(column)[storageColumn(row)] : storageRow(row)[storageColumn(column)];
+    }
+
+    /**
+     * Function to get a row array of the storage, which is a column if the matrix is transposed
+     */
+    private SmartNum[] storageRow(int row) {
+        if (row >= rows) throw new ArrayIndexOutOfBoundsException("Index " + row + " out of bounds for length " + rows);
+        return matrix[rowMap == null ? firstRow + row : rowMap[firstRow + row]];
+    }
+
+    /**
+     * Function to get the index inside the row arrays of a column, which is a row if the matrix is transposed
+     */
+    private int storageColumn(int column) {
+        // Without index map the row arrays have exactly one element per column, so they check the index themselves
+        if (columnMap == null) return column;
+        if (column >= columns) throw new ArrayIndexOutOfBoundsException("Index " + column + " out of bounds for length " + columns);
+        return columnMap[column];
+    }
+
+    /**
+     * Creates a view on the storage rows [firstStorageRow, endStorageRow) and columns [firstStorageColumn, endStorageColumn)
+     */
+    private TwoDMatrix view(int firstStorageRow, int endStorageRow, int firstStorageColumn, int endStorageColumn, boolean transposed) {
+        int[] map = rowMap == null ? null : Arrays.copyOfRange(rowMap, firstRow + firstStorageRow, firstRow + endStorageRow);
+        int first = rowMap == null ? firstRow + firstStorageRow : 0;
+        return new TwoDMatrix(matrix, map, first, endStorageRow - firstStorageRow,
+                columnMap(firstStorageColumn, endStorageColumn), endStorageColumn - firstStorageColumn, transposed);
+    }
+
+    /**
+     * Function to get the indices inside the row arrays of the columns [first, end), null if these are all columns of the row arrays
+     */
+    private int[] columnMap(int first, int end) {
+        if (columnMap != null) return Arrays.copyOfRange(columnMap, first, end);
+        if (first == 0 && end == columns) return null;
+        int[] map = new int[end - first];
+        for (int i = 0; i < map.length; i++) map[i] = first + i;
+        return map;
+    }
+
+    private void ensureColumnMap() {
+        if (columnMap != null) return;
+        columnMap = new int[columns];
+        for (int i = 0; i < columns; i++) columnMap[i] = i;
+    }
+
+    private void ensureRowMap() {
+        if (rowMap != null) return;
+        rowMap = new int[rows];
+        for (int i = 0; i < rows; i++) rowMap[i] = firstRow + i;
+        firstRow = 0;
+    }
+
+    /**
+     * Deletes a storage row. The first and the last row are deleted in O(1) by moving the bounds,
+     * for any other row the shorter part of the index map is moved
+     */
+    private void deleteStorageRow(int row) {
+        Objects.checkIndex(row, rows);
+        if (row > 0 && row < rows - 1) {
+            ensureRowMap();
+            if (row < rows / 2) {
+                System.arraycopy(rowMap, firstRow, rowMap, firstRow + 1, row);
+                firstRow++;
+            } else {
+                System.arraycopy(rowMap, firstRow + row + 1, rowMap, firstRow + row, rows - row - 1);
+            }
+        } else if (row == 0) {
+            firstRow++;
+        }
+        rows--;
+    }
+
+    private void deleteStorageColumn(int column) {
+        Objects.checkIndex(column, columns);
+        ensureColumnMap();
+        System.arraycopy(columnMap, column + 1, columnMap, column, columns - column - 1);
+        columns--;
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package linalg;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RationalMatrixTest {
+
+    @Test
+    void bigIntegerFractionsAreStoredPromoted() {
+        BigInteger numerator = BigInteger.TEN.pow(30).add(BigInteger.ONE);
+        BigInteger denominator = BigInteger.valueOf(3);
+        TwoDMatrix matrix = new TwoDMatrix(new SmartNum[][]{
+                {SmartNum.valueOf(new Frac(numerator, denominator)), SmartNum.valueOf(new Frac(1, 2))}
+        });
+        RationalMatrix rational = new RationalMatrix(matrix);
+
+        assertTrue(rational.isPromoted(0, 0));
+        assertEquals(numerator, rational.getBigNumerator(0, 0));
+        assertEquals(denominator, rational.getBigDenominator(0, 0));
+        assertEquals(1, rational.getNumerator(0, 1));
+        assertEquals(2, rational.getDenominator(0, 1));
+        assertEquals(1, rational.promotedCells());
+    }
+
+    @Test
+    void zeroSystemKeepsOneRow() {
+        RationalMatrix reduced = MatrixManipulator.solveGauss(new RationalMatrix(3, 4));
+
+        assertEquals(1, reduced.numberOfRows());
+        assertEquals(4, reduced.numberOfColumns());
+        assertTrue(reduced.isRowZero(0));
+    }
+}
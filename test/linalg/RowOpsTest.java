@@ -0,0 +1,84 @@
+package linalg;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the kernels in use, which are the Vector API ones when the tests run with the incubator module,
+ * with the scalar loops. Lengths and offsets are chosen so that the scalar tail loops run as well
+ */
+class RowOpsTest {
+
+    private static final RowOps.Kernels SCALAR = new RowOps.ScalarKernels();
+    private static final int[] LENGTHS = {0, 1, 3, 7, 8, 17, 64, 101};
+
+    private static double[] randomRow(Random random, int length) {
+        double[] row = new double[length];
+        for (int i = 0; i < length; i++) row[i] = random.nextGaussian() * 100;
+        return row;
+    }
+
+    @Test
+    void testsRunWithVectorKernels() {
+        assertEquals("vector", RowOps.kernels());
+    }
+
+    @Test
+    void axpyScaleAndSwapMatchScalarLoops() {
+        Random random = new Random(42);
+        for (int length : LENGTHS) {
+            double[] x = randomRow(random, length + 3);
+            double[] y = randomRow(random, length + 5);
+            double[] expectedX = x.clone();
+            double[] expectedY = y.clone();
+
+            RowOps.axpy(-1.7, x, 3, y, 5, length);
+            SCALAR.axpy(-1.7, expectedX, 3, expectedY, 5, length);
+            assertArrayEquals(expectedY, y);
+
+            RowOps.scale(0.3, x, 1, length);
+            SCALAR.scale(0.3, expectedX, 1, length);
+            assertArrayEquals(expectedX, x);
+
+            RowOps.swap(x, 2, y, 4, length);
+            SCALAR.swap(expectedX, 2, expectedY, 4, length);
+            assertArrayEquals(expectedX, x);
+            assertArrayEquals(expectedY, y);
+        }
+    }
+
+    @Test
+    void dotMatchesScalarLoop() {
+        Random random = new Random(7);
+        for (int length : LENGTHS) {
+            double[] x = randomRow(random, length + 1);
+            double[] y = randomRow(random, length + 2);
+            double expected = SCALAR.dot(x, 1, y, 2, length);
+            // The terms are added in a different order
+            assertEquals(expected, RowOps.dot(x, 1, y, 2, length), 1e-9 * (1 + Math.abs(expected)) * length);
+        }
+    }
+
+    @Test
+    void isZeroFindsEveryNonZeroElement() {
+        for (int length : LENGTHS) {
+            double[] row = new double[length + 2];
+            row[0] = 1;
+            row[length + 1] = 1;
+            assertEquals(SCALAR.isZero(row, 1, length), RowOps.isZero(row, 1, length));
+            for (int i = 1; i <= length; i++) {
+                row[i] = -0.0;
+                assertTrue(RowOps.isZero(row, 1, length));
+                row[i] = Double.MIN_VALUE;
+                assertFalse(RowOps.isZero(row, 1, length));
+                row[i] = 0;
+            }
+        }
+    }
+}
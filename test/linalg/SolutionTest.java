@@ -0,0 +1,71 @@
+package linalg;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SolutionTest {
+
+    /**
+     * The third equation is the sum of the first two, so the coefficient matrix has rank 2.
+     * In doubles the third row doesn't become exactly zero, the rounding errors must not be taken as pivot
+     * or as contradiction
+     */
+    private static TwoDMatrix dependentDoubleSystem() {
+        double[][] values = {
+                {Math.PI, Math.E, Math.sqrt(2), 1.7},
+                {Math.E, Math.sqrt(2), Math.PI, 0.3},
+                {0, 0, 0, 0}
+        };
+        for (int column = 0; column < 4; column++) values[2][column] = values[0][column] + values[1][column];
+        SmartNum[][] matrix = new SmartNum[3][4];
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < 4; column++) matrix[row][column] = SmartNum.valueOf(values[row][column]);
+        }
+        return new TwoDMatrix(matrix);
+    }
+
+    @Test
+    void roundingErrorsDontCreatePivots() {
+        TwoDMatrix system = dependentDoubleSystem();
+        int rank = system.subMatrix(0, 3, 0, 3).rank();
+        Solution solution = MatrixManipulator.solve(system);
+
+        assertEquals(2, rank);
+        assertEquals(rank, solution.getRank());
+        assertEquals(Solution.Type.INFINITE, solution.getType());
+        assertArrayEquals(new int[]{0, 1}, solution.getPivotColumns());
+        // The zero row is deleted, only the pivot rows remain
+        assertEquals(2, solution.getReducedMatrix().numberOfRows());
+    }
+
+    @Test
+    void roundingErrorsDontCreatePivotsInParallel() {
+        Solution solution = MatrixManipulator.solveParallel(dependentDoubleSystem());
+
+        assertEquals(2, solution.getRank());
+        assertEquals(Solution.Type.INFINITE, solution.getType());
+    }
+
+    @Test
+    void contradictionIsStillFound() {
+        TwoDMatrix system = dependentDoubleSystem();
+        system.set(2, 3, system.get(2, 3).add(1));
+        Solution solution = MatrixManipulator.solve(system);
+
+        assertEquals(2, solution.getRank());
+        assertEquals(Solution.Type.INCONSISTENT, solution.getType());
+    }
+
+    @Test
+    void exactSystemIsUnchanged() {
+        TwoDMatrix system = new TwoDMatrix(new SmartNum[][]{
+                {SmartNum.valueOf(1), SmartNum.valueOf(2), SmartNum.valueOf(3)},
+                {SmartNum.valueOf(2), SmartNum.valueOf(4), SmartNum.valueOf(new Frac(1, 1_000_000_000))}
+        });
+        Solution solution = MatrixManipulator.solve(system);
+
+        assertEquals(Solution.Type.INCONSISTENT, solution.getType());
+    }
+}
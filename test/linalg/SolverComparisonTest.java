@@ -0,0 +1,218 @@
+package linalg;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the results of the other solvers and of the file formats with {@link MatrixManipulator#solve(TwoDMatrix)}
+ * on systems with a unique solution, singular, inconsistent and double systems
+ */
+class SolverComparisonTest {
+
+    private static final double DELTA = 1e-9;
+
+    @TempDir
+    Path directory;
+
+    private static TwoDMatrix system(String... rows) {
+        SmartNum[][] matrix = new SmartNum[rows.length][];
+        for (int row = 0; row < rows.length; row++) {
+            String[] values = rows[row].split(" ");
+            matrix[row] = new SmartNum[values.length];
+            for (int column = 0; column < values.length; column++) matrix[row][column] = new SmartNum(values[column]);
+        }
+        return new TwoDMatrix(matrix);
+    }
+
+    private static TwoDMatrix unique() {
+        return system("2 1 -1 8", "-3 -1 2 -11", "-2 1 2 -3");
+    }
+
+    /**
+     * The second equation is twice the first, so z is free
+     */
+    private static TwoDMatrix singular() {
+        return system("1 2 3 6", "2 4 6 12", "1 -1 1/2 1");
+    }
+
+    private static TwoDMatrix inconsistent() {
+        return system("1 2 3 6", "2 4 6 13", "1 -1 1/2 1");
+    }
+
+    private static List<TwoDMatrix> exactSystems() {
+        return List.of(unique(), singular(), inconsistent());
+    }
+
+    /**
+     * The third equation is the sum of the first two, which isn't exact in doubles
+     */
+    private static TwoDMatrix dependentDoubleSystem() {
+        double[][] values = {
+                {Math.PI, Math.E, Math.sqrt(2), 1.7},
+                {Math.E, Math.sqrt(2), Math.PI, 0.3},
+                {0, 0, 0, 0}
+        };
+        for (int column = 0; column < 4; column++) values[2][column] = values[0][column] + values[1][column];
+        return doubles(values);
+    }
+
+    private static TwoDMatrix uniqueDoubleSystem() {
+        return doubles(new double[][]{{Math.PI, 1.5, -2.25}, {Math.E, -0.1, 4.2}});
+    }
+
+    private static TwoDMatrix doubles(double[][] values) {
+        SmartNum[][] matrix = new SmartNum[values.length][values[0].length];
+        for (int row = 0; row < values.length; row++) {
+            for (int column = 0; column < values[row].length; column++) matrix[row][column] = SmartNum.valueOf(values[row][column]);
+        }
+        return new TwoDMatrix(matrix);
+    }
+
+    private static List<TwoDMatrix> allSystems() {
+        return List.of(unique(), singular(), inconsistent(), dependentDoubleSystem(), uniqueDoubleSystem());
+    }
+
+    /**
+     * Checks type and rank. The particular solution has to be the same if the pivot columns are, otherwise
+     * it has to solve the system
+     */
+    private static void assertSameSolution(TwoDMatrix system, Solution actual) {
+        Solution expected = MatrixManipulator.solve(system.copy());
+        assertEquals(expected.getType(), actual.getType());
+        assertEquals(expected.getRank(), actual.getRank());
+        if (!expected.hasSolution()) return;
+        SmartNum[] particular = actual.getParticularSolution();
+        if (Arrays.equals(expected.getPivotColumns(), actual.getPivotColumns())) {
+            SmartNum[] expectedParticular = expected.getParticularSolution();
+            for (int i = 0; i < particular.length; i++) assertEquals(expectedParticular[i].toDouble(), particular[i].toDouble(), DELTA);
+        }
+        int variables = system.numberOfColumns() - 1;
+        for (int row = 0; row < system.numberOfRows(); row++) {
+            double sum = 0;
+            for (int column = 0; column < variables; column++) sum += system.getDouble(row, column) * particular[column].toDouble();
+            assertEquals(system.getDouble(row, variables), sum, DELTA);
+        }
+    }
+
+    /**
+     * Reads the solution off a reduced matrix whose first rank rows are the pivot rows, sorted by pivot column.
+     * The pivot of a row is the first unit column it has a one in, free columns can come before it
+     */
+    private static Solution solutionOf(TwoDMatrix reduced, int rank) {
+        int[] pivotColumns = new int[rank];
+        for (int row = 0; row < rank; row++) {
+            int column = 0;
+            while (!isUnitColumn(reduced, rank, row, column)) column++;
+            pivotColumns[row] = column;
+        }
+        return Solution.of(reduced, pivotColumns, DELTA);
+    }
+
+    private static boolean isUnitColumn(TwoDMatrix reduced, int rank, int pivotRow, int column) {
+        for (int row = 0; row < rank; row++) {
+            double expected = row == pivotRow ? 1 : 0;
+            if (Math.abs(reduced.getDouble(row, column) - expected) > DELTA) return false;
+        }
+        return true;
+    }
+
+    @Test
+    void sparseEliminationMatchesSolve() {
+        for (TwoDMatrix system : allSystems()) {
+            SparseEliminator eliminator = new SparseEliminator(new CsrMatrix(system));
+            TwoDMatrix reduced = eliminator.eliminate().toTwoDMatrix();
+            assertSameSolution(system, Solution.of(reduced, eliminator.getPivotColumns(), DELTA));
+        }
+    }
+
+    @Test
+    void bareissMatchesSolve() {
+        for (TwoDMatrix system : exactSystems()) assertSameSolution(system, MatrixManipulator.solveFractionFree(system.copy()));
+    }
+
+    @Test
+    void modularSolverMatchesSolve() {
+        for (TwoDMatrix system : exactSystems()) assertSameSolution(system, MatrixManipulator.solveModular(system.copy()));
+    }
+
+    @Test
+    void exactSolversGiveTheSameParticularSolution() {
+        TwoDMatrix system = singular();
+        SmartNum[] expected = MatrixManipulator.solve(system.copy()).getParticularSolution();
+        SmartNum[] bareiss = MatrixManipulator.solveFractionFree(system.copy()).getParticularSolution();
+        SmartNum[] modular = MatrixManipulator.solveModular(system.copy()).getParticularSolution();
+        for (int i = 0; i < expected.length; i++) {
+            assertTrue(expected[i].equals(bareiss[i]));
+            assertTrue(expected[i].equals(modular[i]));
+        }
+    }
+
+    @Test
+    void strassenProductGivesTheSameSolution() {
+        // Small crossovers, so the recursion runs even for these sizes
+        StrassenMultiplier strassen = new StrassenMultiplier(2, 2, ForkJoinPool.commonPool());
+        for (TwoDMatrix system : allSystems()) {
+            TwoDMatrix left = system.transpose().copy();
+            TwoDMatrix product = strassen.multiply(left, system);
+            TwoDMatrix classical = left.multiply(system);
+            assertEquals(classical.numberOfRows(), product.numberOfRows());
+            for (int row = 0; row < product.numberOfRows(); row++) {
+                for (int column = 0; column < product.numberOfColumns(); column++) {
+                    assertEquals(classical.getDouble(row, column), product.getDouble(row, column), DELTA);
+                }
+            }
+            // The normal equations of the system, with the last row of the product dropped, as it belongs to the results
+            int size = product.numberOfColumns();
+            TwoDMatrix normal = product.subMatrix(0, size - 1, 0, size).copy();
+            assertSameSolution(classical.subMatrix(0, size - 1, 0, size).copy(), MatrixManipulator.solve(normal));
+        }
+    }
+
+    @Test
+    void outOfCoreEliminationMatchesSolve() throws IOException {
+        for (TwoDMatrix system : allSystems()) {
+            String input = directory.resolve("input.bin").toString();
+            String result = directory.resolve("result.bin").toString();
+            BinaryMatrixFile.write(input, system);
+            // Panels of one row, so rows are streamed through other panels
+            OutOfCoreEliminator eliminator = new OutOfCoreEliminator(1, true);
+            TwoDMatrix reduced = eliminator.eliminate(BinaryMatrixFile.open(input), result).toTwoDMatrix();
+            assertSameSolution(system, solutionOf(reduced, eliminator.getRank()));
+        }
+    }
+
+    @Test
+    void binaryFormatKeepsTheSolution() throws IOException {
+        for (TwoDMatrix system : allSystems()) {
+            String path = directory.resolve("system.bin").toString();
+            system.exportToBinary(path);
+            TwoDMatrix loaded = BinaryMatrixFile.open(path).toTwoDMatrix();
+            assertEquals(system.isExact(), loaded.isExact());
+            assertSameSolution(system, MatrixManipulator.solve(loaded));
+        }
+    }
+
+    @Test
+    void csvFormatKeepsTheSolution() throws IOException {
+        for (TwoDMatrix system : allSystems()) {
+            String path = directory.resolve("system.csv").toString();
+            system.exportToCsv(path);
+            TwoDMatrix loaded = new TwoDMatrix(path);
+            assertEquals(system.isExact(), loaded.isExact());
+            Solution expected = MatrixManipulator.solve(system.copy());
+            Solution actual = MatrixManipulator.solve(loaded);
+            assertSameSolution(system, actual);
+            assertArrayEquals(expected.getPivotColumns(), actual.getPivotColumns());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package linalg;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverMetricsTest {
+
+    @BeforeEach
+    void enable() {
+        SolverMetrics.reset();
+        SolverMetrics.setEnabled(true);
+    }
+
+    @AfterEach
+    void disable() {
+        SolverMetrics.setEnabled(false);
+        SolverMetrics.reset();
+    }
+
+    /**
+     * x + y = 3, 2x + 2y = 6 and x - y = 1.5: the second row becomes zero and is deleted
+     */
+    private static TwoDMatrix system(double halfStep) {
+        return new TwoDMatrix(new SmartNum[][]{
+                {SmartNum.valueOf(1), SmartNum.valueOf(1), SmartNum.valueOf(3)},
+                {SmartNum.valueOf(2), SmartNum.valueOf(2), SmartNum.valueOf(6)},
+                {SmartNum.valueOf(1), SmartNum.valueOf(-1), SmartNum.valueOf(halfStep)}
+        });
+    }
+
+    @Test
+    void doubleSystemIsRecorded() {
+        MatrixManipulator.solve(system(1.5));
+        SolverMetrics.Snapshot snapshot = SolverMetrics.snapshot();
+
+        assertEquals(1, snapshot.solves());
+        assertEquals(2, snapshot.eliminationSteps());
+        assertEquals(1, snapshot.deletedRows());
+        assertTrue(snapshot.rowUpdates() > 0);
+        assertTrue(snapshot.pivotSearchNanos() + snapshot.rowUpdateNanos() > 0);
+    }
+
+    @Test
+    void exactSystemIsRecorded() {
+        MatrixManipulator.solve(system(2));
+        SolverMetrics.Snapshot snapshot = SolverMetrics.snapshot();
+
+        assertEquals(1, snapshot.solves());
+        assertEquals(2, snapshot.eliminationSteps());
+        assertEquals(1, snapshot.deletedRows());
+    }
+}
@@ -0,0 +1,42 @@
+package linalg;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SparseEliminatorTest {
+
+    /**
+     * The last equation is 0.1 times the first plus 0.3 times the second, so the coefficient matrix has rank 3.
+     * In doubles the last row doesn't become exactly zero
+     */
+    private static TwoDMatrix dependentDoubleSystem() {
+        double[][] values = {
+                {Math.PI, 0, Math.E, 1.3, 2.1},
+                {0, Math.sqrt(2), 0.7, Math.sqrt(3), -1.1},
+                {1.9, Math.sqrt(5), 0, 0.4, 0.6},
+                {0, 0, 0, 0, 0}
+        };
+        for (int column = 0; column < 5; column++) values[3][column] = 0.1 * values[0][column] + 0.3 * values[1][column];
+        SmartNum[][] matrix = new SmartNum[4][5];
+        for (int row = 0; row < 4; row++) {
+            for (int column = 0; column < 5; column++) matrix[row][column] = SmartNum.valueOf(values[row][column]);
+        }
+        return new TwoDMatrix(matrix);
+    }
+
+    @Test
+    void roundingErrorsDontCreatePivots() {
+        TwoDMatrix system = dependentDoubleSystem();
+        SparseEliminator eliminator = new SparseEliminator(new CsrMatrix(system));
+        CsrMatrix reduced = eliminator.eliminate();
+        Solution expected = MatrixManipulator.solve(system.copy());
+
+        assertEquals(Solution.Type.INFINITE, expected.getType());
+        assertEquals(expected.getRank(), eliminator.getRank());
+        // The pivot columns can differ from the dense ones, as the coefficient matrix doesn't have full rank
+        assertEquals(expected.getType(), Solution.of(reduced.toTwoDMatrix(), eliminator.getPivotColumns()).getType());
+        // The dependent row is dropped completely
+        assertEquals(3, reduced.numberOfRows());
+    }
+}
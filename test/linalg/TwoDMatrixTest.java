@@ -0,0 +1,53 @@
+package linalg;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class TwoDMatrixTest {
+
+    private static SmartNum[][] column(int... values) {
+        SmartNum[][] matrix = new SmartNum[values.length][];
+        for (int row = 0; row < values.length; row++) matrix[row] = new SmartNum[]{SmartNum.valueOf(values[row])};
+        return matrix;
+    }
+
+    private static int[] values(TwoDMatrix matrix) {
+        int[] values = new int[matrix.numberOfRows()];
+        for (int row = 0; row < values.length; row++) values[row] = (int) matrix.getNumerator(row, 0);
+        return values;
+    }
+
+    @Test
+    void givenArrayIsNotChanged() {
+        SmartNum[][] array = column(1, 2, 3);
+        SmartNum[] first = array[0];
+        TwoDMatrix matrix = new TwoDMatrix(array);
+        matrix.deleteRow(0);
+        matrix.swapRows(0, 1);
+
+        assertArrayEquals(new int[]{3, 2}, values(matrix));
+        assertSame(first, array[0]);
+        assertEquals(3, array.length);
+        assertEquals(3, array[2][0].getNumerator());
+    }
+
+    @Test
+    void rowsAreDeletedAnywhere() {
+        TwoDMatrix matrix = new TwoDMatrix(column(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        matrix.deleteRow(0);
+        matrix.deleteRow(8);
+        matrix.deleteRow(1);
+        matrix.deleteRow(5);
+        matrix.swapRows(0, 1);
+        matrix.deleteRow(0);
+        TwoDMatrix view = matrix.subMatrix(1, 4, 0, 1);
+        view.deleteRow(1);
+
+        assertArrayEquals(new int[]{1, 4, 5, 6, 8}, values(matrix));
+        assertArrayEquals(new int[]{4, 6}, values(view));
+        assertArrayEquals(new int[]{1, 4, 5, 6, 8}, values(matrix.transpose().transpose()));
+    }
+}
@@ -0,0 +1,86 @@
+package linalg;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Row operations with the Vector API, loaded by {@link RowOps} if the module jdk.incubator.vector is there.
+ * The rows are processed in vectors of the preferred width of the CPU, the rest in a scalar loop.
+ * Products and sums are calculated separately like in the scalar loops and not with fma,
+ * so axpy, scale and swap give exactly the same results as {@link RowOps.ScalarKernels}
+ */
+final class VectorKernels implements RowOps.Kernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONG_SPECIES = SPECIES.withLanes(long.class);
+
+    @Override
+    public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector product = DoubleVector.fromArray(SPECIES, x, xOffset + i).mul(alpha);
+            DoubleVector.fromArray(SPECIES, y, yOffset + i).add(product).intoArray(y, yOffset + i);
+        }
+        for (; i < length; i++) y[yOffset + i] += alpha * x[xOffset + i];
+    }
+
+    @Override
+    public void scale(double alpha, double[] x, int offset, int length) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, x, offset + i).mul(alpha).intoArray(x, offset + i);
+        }
+        for (; i < length; i++) x[offset + i] *= alpha;
+    }
+
+    @Override
+    public void swap(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        int bound = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector first = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            DoubleVector.fromArray(SPECIES, b, bOffset + i).intoArray(a, aOffset + i);
+            first.intoArray(b, bOffset + i);
+        }
+        for (; i < length; i++) {
+            double temp = a[aOffset + i];
+            a[aOffset + i] = b[bOffset + i];
+            b[bOffset + i] = temp;
+        }
+    }
+
+    /**
+     * Every lane keeps its own sum, which are added at the end
+     */
+    @Override
+    public double dot(double[] x, int xOffset, double[] y, int yOffset, int length) {
+        int bound = SPECIES.loopBound(length);
+        DoubleVector sums = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            DoubleVector product = DoubleVector.fromArray(SPECIES, x, xOffset + i).mul(DoubleVector.fromArray(SPECIES, y, yOffset + i));
+            sums = sums.add(product);
+        }
+        double sum = sums.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) sum += x[xOffset + i] * y[yOffset + i];
+        return sum;
+    }
+
+    @Override
+    public boolean isZero(double[] x, int offset, int length) {
+        // Like in the scalar loop the bits are or-ed without an early exit, -0.0 only differs in the sign bit
+        int bound = SPECIES.loopBound(length);
+        LongVector lanes = LongVector.zero(LONG_SPECIES);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            lanes = lanes.or(DoubleVector.fromArray(SPECIES, x, offset + i).reinterpretAsLongs());
+        }
+        long bits = lanes.reduceLanes(VectorOperators.OR);
+        for (; i < length; i++) bits |= Double.doubleToRawLongBits(x[offset + i]);
+        return (bits & Long.MAX_VALUE) == 0;
+    }
+}